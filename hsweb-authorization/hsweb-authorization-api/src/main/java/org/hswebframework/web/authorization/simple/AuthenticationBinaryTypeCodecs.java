@@ -0,0 +1,193 @@
+package org.hswebframework.web.authorization.simple;
+
+import org.hswebframework.web.authorization.Dimension;
+import org.hswebframework.web.authorization.DimensionType;
+import org.hswebframework.web.authorization.Permission;
+import org.hswebframework.web.authorization.access.DataAccessConfig;
+import org.hswebframework.web.cache.codec.BinaryCodecInput;
+import org.hswebframework.web.cache.codec.BinaryCodecOutput;
+import org.hswebframework.web.cache.codec.BinaryTypeCodec;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * 权限信息的二进制编解码器,通过META-INF/services注册到
+ * {@link org.hswebframework.web.cache.codec.BinaryReactiveCacheCodec},类型ID范围: 100-199
+ *
+ * @since 4.0.15
+ */
+@SuppressWarnings("all")
+public final class AuthenticationBinaryTypeCodecs {
+
+    private AuthenticationBinaryTypeCodecs() {
+    }
+
+    static <T> List<T> toList(Collection<T> collection) {
+        return collection == null ? null : new ArrayList<>(collection);
+    }
+
+    static <T> Set<T> toSet(List<T> list) {
+        return list == null ? null : new HashSet<>(list);
+    }
+
+    static <K, V> Map<K, V> toMap(Map<K, V> map) {
+        return map == null ? null : new HashMap<>(map);
+    }
+
+    public static class SimpleAuthenticationCodec implements BinaryTypeCodec<SimpleAuthentication> {
+        @Override
+        public int getTypeId() {
+            return 100;
+        }
+
+        @Override
+        public Class<SimpleAuthentication> getType() {
+            return SimpleAuthentication.class;
+        }
+
+        @Override
+        public void encode(SimpleAuthentication value, BinaryCodecOutput output) {
+            output.writeValue(value.getUser());
+            output.writeValue(toList(value.getPermissions()));
+            output.writeValue(toList(value.getDimensions()));
+            output.writeValue(toMap(value.getAttributes()));
+        }
+
+        @Override
+        public SimpleAuthentication decode(BinaryCodecInput input) {
+            SimpleAuthentication authentication = new SimpleAuthentication();
+            authentication.setUser(input.readValue());
+            List<Permission> permissions = input.readValue();
+            if (permissions != null) {
+                authentication.setPermissions(permissions);
+            }
+            List<Dimension> dimensions = input.readValue();
+            if (dimensions != null) {
+                authentication.setDimensions(dimensions);
+            }
+            Map<String, Serializable> attributes = input.readValue();
+            if (attributes != null) {
+                authentication.setAttributes(attributes);
+            }
+            return authentication;
+        }
+    }
+
+    public static class SimpleUserCodec implements BinaryTypeCodec<SimpleUser> {
+        @Override
+        public int getTypeId() {
+            return 101;
+        }
+
+        @Override
+        public Class<SimpleUser> getType() {
+            return SimpleUser.class;
+        }
+
+        @Override
+        public void encode(SimpleUser value, BinaryCodecOutput output) {
+            output.writeString(value.getId());
+            output.writeString(value.getUsername());
+            output.writeString(value.getName());
+            output.writeString(value.getUserType());
+            output.writeValue(toMap(value.getOptions()));
+        }
+
+        @Override
+        public SimpleUser decode(BinaryCodecInput input) {
+            SimpleUser user = new SimpleUser();
+            user.setId(input.readString());
+            user.setUsername(input.readString());
+            user.setName(input.readString());
+            user.setUserType(input.readString());
+            user.setOptions(input.readValue());
+            return user;
+        }
+    }
+
+    public static class SimplePermissionCodec implements BinaryTypeCodec<SimplePermission> {
+        @Override
+        public int getTypeId() {
+            return 102;
+        }
+
+        @Override
+        public Class<SimplePermission> getType() {
+            return SimplePermission.class;
+        }
+
+        @Override
+        public void encode(SimplePermission value, BinaryCodecOutput output) {
+            output.writeString(value.getId());
+            output.writeString(value.getName());
+            output.writeValue(toList(value.getActions()));
+            output.writeValue(toList(value.getDataAccesses()));
+            output.writeValue(toMap(value.getOptions()));
+        }
+
+        @Override
+        public SimplePermission decode(BinaryCodecInput input) {
+            SimplePermission permission = new SimplePermission();
+            permission.setId(input.readString());
+            permission.setName(input.readString());
+            permission.setActions(toSet(input.<List<String>>readValue()));
+            permission.setDataAccesses(toSet(input.<List<DataAccessConfig>>readValue()));
+            permission.setOptions(input.readValue());
+            return permission;
+        }
+    }
+
+    public static class SimpleDimensionCodec implements BinaryTypeCodec<SimpleDimension> {
+        @Override
+        public int getTypeId() {
+            return 103;
+        }
+
+        @Override
+        public Class<SimpleDimension> getType() {
+            return SimpleDimension.class;
+        }
+
+        @Override
+        public void encode(SimpleDimension value, BinaryCodecOutput output) {
+            output.writeString(value.getId());
+            output.writeString(value.getName());
+            output.writeValue(value.getType());
+            output.writeValue(toMap(value.getOptions()));
+        }
+
+        @Override
+        public SimpleDimension decode(BinaryCodecInput input) {
+            SimpleDimension dimension = new SimpleDimension();
+            dimension.setId(input.readString());
+            dimension.setName(input.readString());
+            dimension.setType(input.<DimensionType>readValue());
+            dimension.setOptions(input.readValue());
+            return dimension;
+        }
+    }
+
+    public static class SimpleDimensionTypeCodec implements BinaryTypeCodec<SimpleDimensionType> {
+        @Override
+        public int getTypeId() {
+            return 104;
+        }
+
+        @Override
+        public Class<SimpleDimensionType> getType() {
+            return SimpleDimensionType.class;
+        }
+
+        @Override
+        public void encode(SimpleDimensionType value, BinaryCodecOutput output) {
+            output.writeString(value.getId());
+            output.writeString(value.getName());
+        }
+
+        @Override
+        public SimpleDimensionType decode(BinaryCodecInput input) {
+            return SimpleDimensionType.of(input.readString(), input.readString());
+        }
+    }
+}
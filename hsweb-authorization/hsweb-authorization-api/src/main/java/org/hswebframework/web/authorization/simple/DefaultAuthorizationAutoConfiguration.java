@@ -9,16 +9,27 @@ import org.hswebframework.web.authorization.simple.builder.DataAccessConfigConve
 import org.hswebframework.web.authorization.simple.builder.SimpleAuthenticationBuilderFactory;
 import org.hswebframework.web.authorization.simple.builder.SimpleDataAccessConfigBuilderFactory;
 import org.hswebframework.web.authorization.token.*;
+import org.hswebframework.web.authorization.token.redis.RedisTokenAuthenticationManager;
+import org.hswebframework.web.authorization.token.redis.RedisUserTokenManager;
 import org.hswebframework.web.authorization.twofactor.TwoFactorValidatorManager;
 import org.hswebframework.web.authorization.twofactor.defaults.DefaultTwoFactorValidatorManager;
+import org.hswebframework.web.cache.codec.ReactiveCacheCodecRedisSerializer;
 import org.hswebframework.web.convert.CustomMessageConverter;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
 
 import java.util.List;
 
@@ -31,6 +42,46 @@ public class DefaultAuthorizationAutoConfiguration {
     @Autowired(required = false)
     private List<DataAccessConfigConverter> dataAccessConfigConverters;
 
+    /**
+     * 使用redis保存用户令牌: hsweb.user-token.storage=redis,
+     * 通过hsweb.user-token.redis-codec指定令牌在redis中的编解码器,如: jdk,binary. 为空时使用java序列化
+     *
+     * @since 4.0.15
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.data.redis.connection.ReactiveRedisConnectionFactory")
+    @ConditionalOnProperty(prefix = "hsweb.user-token", name = "storage", havingValue = "redis")
+    static class RedisUserTokenConfiguration {
+
+        static RedisSerializer<Object> createRedisSerializer(String codec) {
+            if (!StringUtils.hasText(codec)) {
+                return RedisSerializer.java();
+            }
+            if (!ClassUtils.isPresent("org.hswebframework.web.cache.codec.ReactiveCacheCodecs", RedisUserTokenConfiguration.class.getClassLoader())) {
+                throw new IllegalStateException("hsweb.user-token.redis-codec requires hsweb-concurrent-cache");
+            }
+            return ReactiveCacheCodecRedisSerializer.of(codec);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(UserTokenManager.class)
+        @ConfigurationProperties(prefix = "hsweb.user-token")
+        public RedisUserTokenManager redisUserTokenManager(ReactiveRedisConnectionFactory connectionFactory,
+                                                           ApplicationEventPublisher eventPublisher,
+                                                           @Value("${hsweb.user-token.redis-codec:}") String codec) {
+            RedisUserTokenManager tokenManager = new RedisUserTokenManager(connectionFactory, createRedisSerializer(codec));
+            tokenManager.setEventPublisher(eventPublisher);
+            return tokenManager;
+        }
+
+        @Bean
+        @ConditionalOnMissingBean(TokenAuthenticationManager.class)
+        public RedisTokenAuthenticationManager redisTokenAuthenticationManager(ReactiveRedisConnectionFactory connectionFactory,
+                                                                               @Value("${hsweb.user-token.redis-codec:}") String codec) {
+            return new RedisTokenAuthenticationManager(connectionFactory, createRedisSerializer(codec));
+        }
+    }
+
     @Bean
     @ConditionalOnMissingBean(UserTokenManager.class)
     @ConfigurationProperties(prefix = "hsweb.user-token")
@@ -0,0 +1,99 @@
+package org.hswebframework.web.authorization.simple;
+
+import org.hswebframework.web.authorization.Dimension;
+import org.hswebframework.web.authorization.Permission;
+import org.hswebframework.web.cache.codec.BinaryReactiveCacheCodec;
+import org.hswebframework.web.cache.codec.JdkReactiveCacheCodec;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class AuthenticationBinaryTypeCodecsTest {
+
+    BinaryReactiveCacheCodec codec = new BinaryReactiveCacheCodec();
+
+    private SimpleAuthentication createAuthentication() {
+        SimpleAuthentication authentication = new SimpleAuthentication();
+        authentication.setUser(SimpleUser
+                                       .builder()
+                                       .id("admin")
+                                       .username("admin")
+                                       .name("超级管理员")
+                                       .userType("user")
+                                       .options(Collections.singletonMap("tenant", "t1"))
+                                       .build());
+        authentication.setPermissions(Arrays.asList(
+                SimplePermission
+                        .builder()
+                        .id("user")
+                        .name("用户管理")
+                        .actions(new HashSet<>(Arrays.asList("query", "save")))
+                        .build()
+        ));
+        authentication.setDimensions(Arrays.asList(
+                SimpleDimension.of("role-1", "管理员", SimpleDimensionType.of("role", "角色"), Collections.singletonMap("level", 1))
+        ));
+        authentication.setAttributes(Collections.singletonMap("ip", "127.0.0.1"));
+        return authentication;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        SimpleAuthentication authentication = createAuthentication();
+
+        SimpleAuthentication decoded = (SimpleAuthentication) codec.decode(codec.encode(authentication));
+
+        SimpleUser user = (SimpleUser) decoded.getUser();
+        assertEquals("admin", user.getId());
+        assertEquals("admin", user.getUsername());
+        assertEquals("超级管理员", user.getName());
+        assertEquals("user", user.getUserType());
+        assertEquals("t1", user.getOptions().get("tenant"));
+
+        assertEquals(1, decoded.getPermissions().size());
+        Permission permission = decoded.getPermissions().get(0);
+        assertTrue(permission instanceof SimplePermission);
+        assertEquals("user", permission.getId());
+        assertEquals("用户管理", permission.getName());
+        assertEquals(new HashSet<>(Arrays.asList("query", "save")), permission.getActions());
+        assertTrue(decoded.hasPermission("user", "query"));
+
+        assertEquals(1, decoded.getDimensions().size());
+        Dimension dimension = decoded.getDimensions().get(0);
+        assertTrue(dimension instanceof SimpleDimension);
+        assertEquals("role-1", dimension.getId());
+        assertEquals("管理员", dimension.getName());
+        assertEquals("role", dimension.getType().getId());
+        assertEquals("角色", dimension.getType().getName());
+        assertEquals(1, dimension.getOptions().get("level"));
+        assertTrue(decoded.hasDimension("role", "role-1"));
+
+        assertEquals("127.0.0.1", decoded.getAttribute("ip").orElse(null));
+    }
+
+    @Test
+    public void testNullFields() {
+        SimpleAuthentication authentication = new SimpleAuthentication();
+        authentication.setUser(new SimpleUser());
+        authentication.setPermissions(Collections.singletonList(new SimplePermission()));
+
+        SimpleAuthentication decoded = (SimpleAuthentication) codec.decode(codec.encode(authentication));
+
+        assertNull(decoded.getUser().getId());
+        assertNull(decoded.getUser().getName());
+        assertEquals(1, decoded.getPermissions().size());
+        assertNull(decoded.getPermissions().get(0).getId());
+        assertTrue(decoded.getDimensions().isEmpty());
+    }
+
+    @Test
+    public void testSmallerThanJdk() {
+        SimpleAuthentication authentication = createAuthentication();
+
+        assertTrue(codec.encode(authentication).length < new JdkReactiveCacheCodec().encode(authentication).length);
+    }
+}
@@ -0,0 +1,83 @@
+package org.hswebframework.web.oauth2.server;
+
+import org.hswebframework.web.cache.codec.BinaryCodecInput;
+import org.hswebframework.web.cache.codec.BinaryCodecOutput;
+import org.hswebframework.web.cache.codec.BinaryTypeCodec;
+import org.hswebframework.web.oauth2.server.code.AuthorizationCodeCache;
+import org.hswebframework.web.oauth2.server.impl.RedisAccessToken;
+
+/**
+ * OAuth2令牌的二进制编解码器,通过META-INF/services注册到
+ * {@link org.hswebframework.web.cache.codec.BinaryReactiveCacheCodec},类型ID范围: 200-299
+ *
+ * @since 4.0.15
+ */
+public final class OAuth2BinaryTypeCodecs {
+
+    private OAuth2BinaryTypeCodecs() {
+    }
+
+    public static class RedisAccessTokenCodec implements BinaryTypeCodec<RedisAccessToken> {
+        @Override
+        public int getTypeId() {
+            return 200;
+        }
+
+        @Override
+        public Class<RedisAccessToken> getType() {
+            return RedisAccessToken.class;
+        }
+
+        @Override
+        public void encode(RedisAccessToken value, BinaryCodecOutput output) {
+            output.writeString(value.getClientId());
+            output.writeString(value.getAccessToken());
+            output.writeString(value.getRefreshToken());
+            output.writeVarLong(value.getCreateTime());
+            output.writeValue(value.getAuthentication());
+            output.writeBoolean(value.isSingleton());
+        }
+
+        @Override
+        public RedisAccessToken decode(BinaryCodecInput input) {
+            RedisAccessToken token = new RedisAccessToken();
+            token.setClientId(input.readString());
+            token.setAccessToken(input.readString());
+            token.setRefreshToken(input.readString());
+            token.setCreateTime(input.readVarLong());
+            token.setAuthentication(input.readValue());
+            token.setSingleton(input.readBoolean());
+            return token;
+        }
+    }
+
+    public static class AuthorizationCodeCacheCodec implements BinaryTypeCodec<AuthorizationCodeCache> {
+        @Override
+        public int getTypeId() {
+            return 201;
+        }
+
+        @Override
+        public Class<AuthorizationCodeCache> getType() {
+            return AuthorizationCodeCache.class;
+        }
+
+        @Override
+        public void encode(AuthorizationCodeCache value, BinaryCodecOutput output) {
+            output.writeString(value.getClientId());
+            output.writeString(value.getCode());
+            output.writeValue(value.getAuthentication());
+            output.writeString(value.getScope());
+        }
+
+        @Override
+        public AuthorizationCodeCache decode(BinaryCodecInput input) {
+            AuthorizationCodeCache cache = new AuthorizationCodeCache();
+            cache.setClientId(input.readString());
+            cache.setCode(input.readString());
+            cache.setAuthentication(input.readValue());
+            cache.setScope(input.readString());
+            return cache;
+        }
+    }
+}
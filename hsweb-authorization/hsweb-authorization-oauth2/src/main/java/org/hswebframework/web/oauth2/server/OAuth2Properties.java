@@ -17,4 +17,7 @@ public class OAuth2Properties {
     //refreshToken有效期
     private Duration refreshTokenIn = Duration.ofDays(30);
 
+    //令牌在redis中的编解码器,如: jdk,binary. 为空时使用java序列化
+    private String redisCodec;
+
 }
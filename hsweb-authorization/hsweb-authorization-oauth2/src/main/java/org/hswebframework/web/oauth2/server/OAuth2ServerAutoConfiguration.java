@@ -3,6 +3,7 @@ package org.hswebframework.web.oauth2.server;
 import org.hswebframework.web.authorization.ReactiveAuthenticationHolder;
 import org.hswebframework.web.authorization.ReactiveAuthenticationManager;
 import org.hswebframework.web.authorization.basic.web.ReactiveUserTokenParser;
+import org.hswebframework.web.cache.codec.ReactiveCacheCodecRedisSerializer;
 import org.hswebframework.web.oauth2.server.auth.ReactiveOAuth2AccessTokenParser;
 import org.hswebframework.web.oauth2.server.code.AuthorizationCodeGranter;
 import org.hswebframework.web.oauth2.server.code.DefaultAuthorizationCodeGranter;
@@ -22,6 +23,8 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.StringUtils;
 
 @Configuration(proxyBeanMethods = false)
 @EnableConfigurationProperties(OAuth2Properties.class)
@@ -45,12 +48,19 @@ public class OAuth2ServerAutoConfiguration {
     @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
     static class ReactiveOAuth2ServerAutoConfiguration {
 
+        static RedisSerializer<Object> createRedisSerializer(OAuth2Properties properties) {
+            if (StringUtils.hasText(properties.getRedisCodec())) {
+                return ReactiveCacheCodecRedisSerializer.of(properties.getRedisCodec());
+            }
+            return RedisSerializer.java();
+        }
+
 
         @Bean
         @ConditionalOnMissingBean
         public AccessTokenManager accessTokenManager(ReactiveRedisConnectionFactory redisConnectionFactory,
                                                      OAuth2Properties properties) {
-            RedisAccessTokenManager manager = new RedisAccessTokenManager(redisConnectionFactory);
+            RedisAccessTokenManager manager = new RedisAccessTokenManager(redisConnectionFactory, createRedisSerializer(properties));
             manager.setTokenExpireIn((int) properties.getTokenExpireIn().getSeconds());
             manager.setRefreshExpireIn((int) properties.getRefreshTokenIn().getSeconds());
             return manager;
@@ -66,8 +76,9 @@ public class OAuth2ServerAutoConfiguration {
         @Bean
         @ConditionalOnMissingBean
         public AuthorizationCodeGranter authorizationCodeGranter(AccessTokenManager tokenManager,
-                                                                 ReactiveRedisConnectionFactory redisConnectionFactory) {
-            return new DefaultAuthorizationCodeGranter(tokenManager, redisConnectionFactory);
+                                                                 ReactiveRedisConnectionFactory redisConnectionFactory,
+                                                                 OAuth2Properties properties) {
+            return new DefaultAuthorizationCodeGranter(tokenManager, redisConnectionFactory, createRedisSerializer(properties));
         }
 
         @Bean
@@ -34,14 +34,23 @@ public class RedisAccessTokenManager implements AccessTokenManager {
         this.tokenRedis = tokenRedis;
     }
 
-    @SuppressWarnings("all")
     public RedisAccessTokenManager(ReactiveRedisConnectionFactory connectionFactory) {
+        this(connectionFactory, RedisSerializer.java());
+    }
+
+    /**
+     * @param connectionFactory ReactiveRedisConnectionFactory
+     * @param valueSerializer   值序列化器,可使用更紧凑的序列化方式减少存储空间和解码耗时
+     * @since 4.0.15
+     */
+    @SuppressWarnings("all")
+    public RedisAccessTokenManager(ReactiveRedisConnectionFactory connectionFactory, RedisSerializer<Object> valueSerializer) {
         this(new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext
                 .newSerializationContext()
                 .key((RedisSerializer) RedisSerializer.string())
-                .value(RedisSerializer.java())
+                .value(valueSerializer)
                 .hashKey(RedisSerializer.string())
-                .hashValue(RedisSerializer.java())
+                .hashValue(valueSerializer)
                 .build()
         ));
     }
@@ -0,0 +1,60 @@
+package org.hswebframework.web.oauth2.server;
+
+import org.hswebframework.web.authorization.simple.SimpleAuthentication;
+import org.hswebframework.web.authorization.simple.SimpleUser;
+import org.hswebframework.web.cache.codec.BinaryReactiveCacheCodec;
+import org.hswebframework.web.oauth2.server.code.AuthorizationCodeCache;
+import org.hswebframework.web.oauth2.server.impl.RedisAccessToken;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OAuth2BinaryTypeCodecsTest {
+
+    BinaryReactiveCacheCodec codec = new BinaryReactiveCacheCodec();
+
+    private SimpleAuthentication createAuthentication() {
+        SimpleAuthentication authentication = new SimpleAuthentication();
+        authentication.setUser(SimpleUser.builder().id("test").username("test").build());
+        return authentication;
+    }
+
+    @Test
+    public void testAccessToken() {
+        RedisAccessToken token = new RedisAccessToken("client", "access", "refresh", 1000L, createAuthentication(), true);
+
+        RedisAccessToken decoded = (RedisAccessToken) codec.decode(codec.encode(token));
+
+        assertEquals("client", decoded.getClientId());
+        assertEquals("access", decoded.getAccessToken());
+        assertEquals("refresh", decoded.getRefreshToken());
+        assertEquals(1000L, decoded.getCreateTime());
+        assertTrue(decoded.isSingleton());
+        assertTrue(decoded.getAuthentication() instanceof SimpleAuthentication);
+        assertEquals("test", decoded.getAuthentication().getUser().getId());
+    }
+
+    @Test
+    public void testAccessTokenWithoutRefreshToken() {
+        RedisAccessToken token = new RedisAccessToken("client", "access", null, 0L, null, false);
+
+        RedisAccessToken decoded = (RedisAccessToken) codec.decode(codec.encode(token));
+
+        assertEquals("access", decoded.getAccessToken());
+        assertNull(decoded.getRefreshToken());
+        assertNull(decoded.getAuthentication());
+        assertFalse(decoded.isSingleton());
+    }
+
+    @Test
+    public void testAuthorizationCode() {
+        AuthorizationCodeCache cache = new AuthorizationCodeCache("client", "code", createAuthentication(), "read");
+
+        AuthorizationCodeCache decoded = (AuthorizationCodeCache) codec.decode(codec.encode(cache));
+
+        assertEquals("client", decoded.getClientId());
+        assertEquals("code", decoded.getCode());
+        assertEquals("read", decoded.getScope());
+        assertEquals("test", decoded.getAuthentication().getUser().getUsername());
+    }
+}
@@ -0,0 +1,174 @@
+package org.hswebframework.web.api.crud.entity;
+
+import com.alibaba.fastjson.JSON;
+import org.hswebframework.ezorm.core.param.Sort;
+import org.hswebframework.ezorm.core.param.Term;
+import org.hswebframework.ezorm.core.param.TermType;
+import org.hswebframework.web.bean.FastBeanCopier;
+import org.hswebframework.web.exception.ValidationException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 游标(keyset)分页工具,使用上一页最后一条数据的排序字段值作为条件查询下一页,
+ * 查询耗时不受页码深度影响.
+ * <p>
+ * 排序字段末尾会自动追加主键以保证排序唯一,排序字段的值不能为null,否则将抛出{@link ValidationException}.
+ * 游标为上一页最后一条数据的排序字段值(JSON数组)经过Base64编码后的字符串.
+ *
+ * <pre>{@code
+ * QueryParamEntity param = KeysetCursor.createQuery(query, cursor, "id");
+ * repository.createQuery()
+ *           .setParam(param)
+ *           .fetch()
+ *           .collectList()
+ *           .map(list -> KeysetCursor.createResult(param, query.getPageSize(), list));
+ * }</pre>
+ *
+ * @since 4.0.15
+ */
+public final class KeysetCursor {
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * 根据游标创建查询条件,返回的查询条件会多查询一条数据用于判断是否还有下一页.
+     *
+     * @param query      原始查询条件
+     * @param cursor     游标,为null时查询第一页
+     * @param idProperty 主键属性
+     * @return 新的查询条件
+     */
+    public static QueryParamEntity createQuery(QueryParamEntity query, String cursor, String idProperty) {
+        QueryParamEntity param = query.clone();
+        List<Sort> sorts = new ArrayList<>();
+        boolean containsId = false;
+        if (param.getSorts() != null) {
+            for (Sort sort : param.getSorts()) {
+                sorts.add(sort);
+                containsId |= idProperty.equals(sort.getName());
+            }
+        }
+        if (!containsId) {
+            Sort sort = new Sort();
+            sort.setName(idProperty);
+            sorts.add(sort);
+        }
+        param.setSorts(sorts);
+        param.setPaging(true);
+        param.setPageIndex(0);
+        param.setPageSize(query.getPageSize() + 1);
+
+        if (StringUtils.hasText(cursor)) {
+            List<Object> values = decode(cursor);
+            if (values.size() != sorts.size()) {
+                throw new ValidationException("cursor", "error.illegal_keyset_cursor");
+            }
+            List<Term> terms = new ArrayList<>(2);
+            //原有条件作为一个整体,避免与游标条件的or/and优先级混淆
+            List<Term> origin = param.getTerms();
+            if (origin != null && !origin.isEmpty()) {
+                Term nest = new Term();
+                nest.setTerms(origin);
+                terms.add(nest);
+            }
+            terms.add(createSeekTerm(sorts, values));
+            param.setTerms(terms);
+        }
+        return param;
+    }
+
+    /**
+     * 根据{@link #createQuery(QueryParamEntity, String, String)}的查询结果创建分页结果
+     *
+     * @param param    {@link #createQuery(QueryParamEntity, String, String)}返回的查询条件
+     * @param pageSize 每页数据量
+     * @param fetched  查询结果
+     * @param <E>      结果类型
+     * @return 分页结果
+     */
+    public static <E> KeysetPagerResult<E> createResult(QueryParamEntity param, int pageSize, List<E> fetched) {
+        if (fetched.size() <= pageSize) {
+            return KeysetPagerResult.of(pageSize, fetched, null);
+        }
+        List<E> data = new ArrayList<>(fetched.subList(0, pageSize));
+        return KeysetPagerResult.of(pageSize, data, encode(data.get(data.size() - 1), param.getSorts()));
+    }
+
+    /**
+     * 使用数据的排序字段值创建游标
+     *
+     * @param row   数据
+     * @param sorts 排序
+     * @return 游标
+     */
+    @SuppressWarnings("all")
+    public static String encode(Object row, List<Sort> sorts) {
+        Map<String, Object> properties = row instanceof Map
+                ? (Map<String, Object>) row
+                : FastBeanCopier.copy(row, new HashMap<String, Object>());
+        List<Object> values = new ArrayList<>(sorts.size());
+        for (Sort sort : sorts) {
+            Object value = properties.get(sort.getName());
+            if (value == null) {
+                throw new ValidationException("sorts", "error.null_keyset_sort_value", sort.getName());
+            }
+            values.add(value);
+        }
+        return Base64
+                .getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(JSON.toJSONString(values).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static List<Object> decode(String cursor) {
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            List<Object> values = JSON.parseArray(new String(json, StandardCharsets.UTF_8));
+            if (values == null) {
+                throw new ValidationException("cursor", "error.illegal_keyset_cursor");
+            }
+            return values;
+        } catch (ValidationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new ValidationException("cursor", "error.illegal_keyset_cursor");
+        }
+    }
+
+    /*
+     * 排序: a asc,b desc,id asc
+     * 条件: (a > ?) or (a = ? and b < ?) or (a = ? and b = ? and id > ?)
+     */
+    private static Term createSeekTerm(List<Sort> sorts, List<Object> values) {
+        Term seek = new Term();
+        List<Term> groups = new ArrayList<>(sorts.size());
+        for (int i = 0; i < sorts.size(); i++) {
+            Term group = new Term();
+            group.setType(i == 0 ? Term.Type.and : Term.Type.or);
+            List<Term> conditions = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                conditions.add(createTerm(sorts.get(j).getName(), TermType.eq, values.get(j)));
+            }
+            Sort sort = sorts.get(i);
+            conditions.add(createTerm(sort.getName(),
+                                      "desc".equalsIgnoreCase(sort.getOrder()) ? TermType.lt : TermType.gt,
+                                      values.get(i)));
+            group.setTerms(conditions);
+            groups.add(group);
+        }
+        seek.setTerms(groups);
+        return seek;
+    }
+
+    private static Term createTerm(String column, String termType, Object value) {
+        Term term = new Term();
+        term.setColumn(column);
+        term.setTermType(termType);
+        term.setValue(value);
+        return term;
+    }
+}
@@ -0,0 +1,50 @@
+package org.hswebframework.web.api.crud.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 游标(keyset)分页查询结果,使用{@link #getNext()}查询下一页数据.
+ *
+ * @param <E> 结果类型
+ * @see KeysetCursor
+ * @since 4.0.15
+ */
+@Getter
+@Setter
+public class KeysetPagerResult<E> {
+
+    /**
+     * 创建一个游标分页结果
+     *
+     * @param pageSize 每页数据量
+     * @param list     当前页数据列表
+     * @param next     下一页游标,为null时表示没有下一页
+     * @param <E>      结果类型
+     * @return KeysetPagerResult
+     */
+    public static <E> KeysetPagerResult<E> of(int pageSize, List<E> list, String next) {
+        KeysetPagerResult<E> result = new KeysetPagerResult<>();
+        result.setPageSize(pageSize);
+        result.setData(list);
+        result.setNext(next);
+        result.setHasNext(next != null);
+        return result;
+    }
+
+    @Schema(description = "每页数据量")
+    private int pageSize;
+
+    @Schema(description = "数据列表")
+    private List<E> data;
+
+    @Schema(description = "是否还有下一页")
+    private boolean hasNext;
+
+    @Schema(description = "下一页游标,查询下一页时传入")
+    private String next;
+
+}
@@ -101,6 +101,22 @@ public class PagerResult<E> {
     @Schema(description = "数据列表")
     private List<E> data;
 
+    /**
+     * 是否还有下一页,只在分页模式为{@link PagingMode#hasNext}时有值
+     *
+     * @since 4.0.15
+     */
+    @Schema(description = "是否还有下一页")
+    private Boolean hasNext;
+
+    /**
+     * 数据总量是否为估算值
+     *
+     * @since 4.0.15
+     */
+    @Schema(description = "数据总量是否为估算值")
+    private boolean estimated;
+
     public PagerResult() {
     }
 
@@ -0,0 +1,26 @@
+package org.hswebframework.web.api.crud.entity;
+
+/**
+ * 分页模式,用于在分页查询时避免执行count查询.
+ *
+ * @see QueryParamEntity#getPagingMode()
+ * @since 4.0.15
+ */
+public enum PagingMode {
+
+    /**
+     * 不查询总数,只判断是否还有下一页,通过{@link PagerResult#getHasNext()}获取.
+     * 分页查询时{@link PagerResult#getTotal()}固定为-1,不表示数据总量.
+     */
+    hasNext,
+
+    /**
+     * 按查询条件缓存总数,数据变更或者缓存过期后重新查询总数.
+     */
+    cachedTotal,
+
+    /**
+     * 数据量超过阈值时使用数据库统计信息估算的总数,未超过阈值时同{@link #cachedTotal}.
+     */
+    estimatedTotal
+}
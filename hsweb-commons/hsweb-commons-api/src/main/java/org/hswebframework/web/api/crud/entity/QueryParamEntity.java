@@ -69,6 +69,26 @@ public class QueryParamEntity extends QueryParam {
     @Schema(description = "是否进行并行分页")
     private boolean parallelPager = false;
 
+    /**
+     * 分页模式,为null时执行count查询获取总数
+     *
+     * @since 4.0.15
+     */
+    @Getter
+    @Setter
+    @Schema(description = "分页模式: hasNext(不查询总数),cachedTotal(缓存总数),estimatedTotal(估算总数)")
+    private PagingMode pagingMode;
+
+    /**
+     * 查询超时时间(毫秒),配置了默认超时时间时,以较短的时间为准
+     *
+     * @since 4.0.15
+     */
+    @Getter
+    @Setter
+    @Schema(description = "查询超时时间(毫秒)")
+    private Long timeout;
+
     @Override
     @Hidden
     public boolean isForUpdate() {
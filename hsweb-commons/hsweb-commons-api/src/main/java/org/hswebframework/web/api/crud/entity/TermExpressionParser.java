@@ -11,9 +11,8 @@ import org.hswebframework.web.api.crud.entity.QueryParamEntity;
 
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -26,8 +25,67 @@ import java.util.stream.Stream;
  */
 public class TermExpressionParser {
 
-    @SneakyThrows
+    //缓存的最大表达式数量,超过后清空缓存
+    static final int MAX_CACHE_SIZE = 1024;
+
+    //超过此长度的表达式不缓存
+    static final int MAX_CACHE_EXPRESSION_LENGTH = 512;
+
+    //表达式解析结果的模版,只在缓存内部使用,每次获取时复制为新的对象
+    private static final Map<String, List<Term>> termsCache = new ConcurrentHashMap<>();
+
+    private static final Map<String, List<Sort>> sortsCache = new ConcurrentHashMap<>();
+
+    private static <V> void putCache(Map<String, V> cache, String expression, V value) {
+        if (expression.length() > MAX_CACHE_EXPRESSION_LENGTH) {
+            return;
+        }
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            cache.clear();
+        }
+        cache.put(expression, value);
+    }
+
+    /**
+     * 解析条件表达式,相同表达式的解析结果将被缓存(过长的表达式除外),每次调用返回新的条件对象,修改返回的条件不会影响缓存.
+     *
+     * @param expression 表达式
+     * @return 条件
+     */
     public static List<Term> parse(String expression) {
+        List<Term> template = termsCache.get(expression);
+        if (template == null) {
+            template = doParse(expression);
+            putCache(termsCache, expression, template);
+        }
+        return copyTerms(template);
+    }
+
+    private static List<Term> copyTerms(List<Term> terms) {
+        List<Term> copy = new ArrayList<>(terms.size());
+        for (Term term : terms) {
+            copy.add(copyTerm(term));
+        }
+        return copy;
+    }
+
+    private static Term copyTerm(Term term) {
+        Term copy = new Term();
+        copy.setColumn(term.getColumn());
+        copy.setTermType(term.getTermType());
+        copy.setValue(term.getValue());
+        copy.setType(term.getType());
+        if (term.getOptions() != null) {
+            copy.setOptions(new ArrayList<>(term.getOptions()));
+        }
+        if (term.getTerms() != null) {
+            copy.setTerms(copyTerms(term.getTerms()));
+        }
+        return copy;
+    }
+
+    @SneakyThrows
+    static List<Term> doParse(String expression) {
         try {
             expression = URLDecoder.decode(expression, "utf-8");
         }catch (Throwable ignore){
@@ -37,12 +95,12 @@ public class TermExpressionParser {
 
         NestConditional<?> nest = null;
 
-        // 字符容器
-        char[] buf = new char[128];
+        // 字符容器,容量不足时扩容
+        char[] buf = new char[Math.min(64, expression.length() + 1)];
         // 记录词项的长度, Arrays.copyOf使用
-        byte len = 0;
+        int len = 0;
         // 空格数量?
-        byte spaceLen = 0;
+        int spaceLen = 0;
         // 当前列
         char[] currentColumn = null;
         // 当前列对应的值
@@ -108,6 +166,9 @@ public class TermExpressionParser {
                 }
                 if (quotationMarks != 0) {
                     // 如果当前字符是空格，并且前面迭代时碰到过单/双引号, 不处理并且添加到buf中
+                    if (len == buf.length) {
+                        buf = Arrays.copyOf(buf, len * 2);
+                    }
                     buf[len++] = c;
                     continue;
                 }
@@ -165,7 +226,9 @@ public class TermExpressionParser {
                 }
                 continue;
             }
-
+            if (len == buf.length) {
+                buf = Arrays.copyOf(buf, len * 2);
+            }
             buf[len++] = c;
         }
         if (null != currentColumn) {
@@ -190,6 +253,24 @@ public class TermExpressionParser {
      * @since 4.0.1
      */
     public static List<Sort> parseOrder(String expression) {
+        List<Sort> template = sortsCache.get(expression);
+        if (template == null) {
+            template = doParseOrder(expression);
+            putCache(sortsCache, expression, template);
+        }
+        List<Sort> sorts = new ArrayList<>(template.size());
+        for (Sort sort : template) {
+            Sort copy = new Sort();
+            copy.setName(sort.getName());
+            if ("desc".equalsIgnoreCase(sort.getOrder())) {
+                copy.desc();
+            }
+            sorts.add(copy);
+        }
+        return sorts;
+    }
+
+    static List<Sort> doParseOrder(String expression) {
         return Stream.of(expression.split("[,]"))
                      .map(str -> str.split("[ ]"))
                      .map(arr -> {
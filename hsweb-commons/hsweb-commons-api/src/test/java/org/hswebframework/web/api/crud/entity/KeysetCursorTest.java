@@ -0,0 +1,74 @@
+package org.hswebframework.web.api.crud.entity;
+
+import org.hswebframework.ezorm.core.param.Term;
+import org.hswebframework.ezorm.core.param.TermType;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class KeysetCursorTest {
+
+    @Test
+    public void testFirstPage() {
+        QueryParamEntity query = new QueryParamEntity();
+        query.setPageSize(10);
+        query.setOrderBy("age desc");
+
+        QueryParamEntity param = KeysetCursor.createQuery(query, null, "id");
+
+        assertEquals(11, param.getPageSize());
+        assertEquals(0, param.getPageIndex());
+        assertEquals(2, param.getSorts().size());
+        assertEquals("id", param.getSorts().get(1).getName());
+        assertTrue(param.getTerms().isEmpty());
+    }
+
+    @Test
+    public void testNextPage() {
+        QueryParamEntity query = new QueryParamEntity();
+        query.setPageSize(2);
+        query.setOrderBy("age desc");
+        query.setWhere("name = test or name = test2");
+
+        QueryParamEntity param = KeysetCursor.createQuery(query, null, "id");
+
+        Map<String, Object> row1 = new HashMap<>();
+        row1.put("id", "1");
+        row1.put("age", 20);
+        Map<String, Object> row2 = new HashMap<>();
+        row2.put("id", "2");
+        row2.put("age", 10);
+
+        KeysetPagerResult<Map<String, Object>> result = KeysetCursor
+                .createResult(param, 2, Arrays.asList(row1, row2, new HashMap<>()));
+        assertTrue(result.isHasNext());
+        assertEquals(2, result.getData().size());
+        assertEquals(Arrays.asList(10, "2"), KeysetCursor.decode(result.getNext()));
+
+        QueryParamEntity next = KeysetCursor.createQuery(query, result.getNext(), "id");
+        List<Term> terms = next.getTerms();
+        //原始条件被嵌套
+        assertEquals(2, terms.size());
+        assertEquals(2, terms.get(0).getTerms().size());
+
+        //(age < 10) or (age = 10 and id > 2)
+        List<Term> seek = terms.get(1).getTerms();
+        assertEquals(2, seek.size());
+        assertEquals(TermType.lt, seek.get(0).getTerms().get(0).getTermType());
+        assertEquals(Term.Type.or, seek.get(1).getType());
+        assertEquals(TermType.eq, seek.get(1).getTerms().get(0).getTermType());
+        assertEquals(TermType.gt, seek.get(1).getTerms().get(1).getTermType());
+
+        assertFalse(KeysetCursor.createResult(next, 2, Arrays.asList(row1)).isHasNext());
+    }
+
+    @Test(expected = org.hswebframework.web.exception.ValidationException.class)
+    public void testIllegalCursor() {
+        KeysetCursor.createQuery(new QueryParamEntity(), "illegal", "id");
+    }
+}
@@ -1,5 +1,6 @@
 package org.hswebframework.web.api.crud.entity;
 
+import org.hswebframework.ezorm.core.param.Sort;
 import org.hswebframework.ezorm.core.param.Term;
 import org.hswebframework.ezorm.core.param.TermType;
 import org.junit.Test;
@@ -85,4 +86,51 @@ public class TermExpressionParserTest {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testLongValue() {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            value.append(i % 10);
+        }
+        List<Term> terms = TermExpressionParser.parse("name = '" + value + " 1' and age gt 1");
+
+        assertEquals(terms.get(0).getValue(), value + " 1");
+        assertEquals(terms.get(1).getTermType(), TermType.gt);
+    }
+
+    @Test
+    public void testCached() {
+        String expression = "name = 1 and (age gt 1 or age lt 0)";
+        List<Term> terms = TermExpressionParser.parse(expression);
+        terms.get(0).setValue("2");
+        terms.get(1).getTerms().clear();
+
+        List<Term> terms2 = TermExpressionParser.parse(expression);
+        assertNotSame(terms, terms2);
+        assertEquals(terms2.get(0).getValue(), "1");
+        assertEquals(terms2.get(1).getTerms().size(), 2);
+    }
+
+    @Test
+    public void testLongExpression() {
+        //过长的表达式不缓存,但仍然可以解析
+        StringBuilder value = new StringBuilder();
+        while (value.length() <= TermExpressionParser.MAX_CACHE_EXPRESSION_LENGTH) {
+            value.append("a");
+        }
+        List<Term> terms = TermExpressionParser.parse("name = " + value + " and age gt 1");
+        assertEquals(terms.get(0).getValue(), value.toString());
+        assertEquals(terms.get(1).getTermType(), TermType.gt);
+    }
+
+    @Test
+    public void testOrder() {
+        List<Sort> sorts = TermExpressionParser.parseOrder("id desc,name");
+        assertEquals(sorts.get(0).getName(), "id");
+        assertEquals(sorts.get(0).getOrder(), "desc");
+        assertEquals(sorts.get(1).getName(), "name");
+        sorts.get(0).asc();
+
+        assertEquals(TermExpressionParser.parseOrder("id desc,name").get(0).getOrder(), "desc");
+    }
+}
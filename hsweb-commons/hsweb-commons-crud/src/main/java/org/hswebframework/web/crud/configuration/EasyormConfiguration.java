@@ -28,16 +28,32 @@ import org.hswebframework.web.crud.generator.CurrentTimeGenerator;
 import org.hswebframework.web.crud.generator.DefaultIdGenerator;
 import org.hswebframework.web.crud.generator.MD5Generator;
 import org.hswebframework.web.crud.generator.SnowFlakeStringIdGenerator;
+import org.hswebframework.web.crud.query.QueryTotalEstimator;
+import org.hswebframework.web.crud.query.QueryResultCache;
+import org.hswebframework.web.crud.query.QueryTotals;
+import org.hswebframework.web.crud.query.TableStatisticsTotalEstimator;
+import org.hswebframework.web.crud.sql.statistics.SqlStatistics;
+import org.hswebframework.web.crud.web.SqlStatisticsController;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
 
 import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
@@ -120,6 +136,65 @@ public class EasyormConfiguration {
         return new EntityEventListener(eventPublisher, configure);
     }
 
+    /**
+     * 替代spring默认的{@link TransactionAttributeSource},事务拦截器和事务切面直接注入此bean.
+     * 事务相关的基础bean创建较早,此时配置属性还未绑定,因此直接从Environment中获取{@code easyorm.read-mode}.
+     */
+    @Bean
+    @Primary
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static ReadOnlyTransactionAttributeSource readOnlyTransactionAttributeSource(Environment environment) {
+        EasyormProperties.ReadMode mode = Binder
+                .get(environment)
+                .bind("easyorm.read-mode", EasyormProperties.ReadMode.class)
+                .orElse(EasyormProperties.ReadMode.transactional);
+        return new ReadOnlyTransactionAttributeSource(new AnnotationTransactionAttributeSource(), mode);
+    }
+
+    @Bean
+    public SmartInitializingSingleton queryTotalsInitializer(ObjectProvider<QueryTotalEstimator> estimator,
+                                                            ObjectProvider<ReactiveSqlExecutor> sqlExecutor) {
+        return () -> {
+            EasyormProperties.Pager pager = properties.getPager();
+            QueryTotals.setTtl(pager.getTotalCacheTtl());
+            QueryTotals.setMaxSize(pager.getTotalCacheSize());
+            QueryTotals.setEstimateThreshold(pager.getEstimateThreshold());
+            QueryTotals.setEstimator(estimator.getIfAvailable(() -> {
+                ReactiveSqlExecutor executor = sqlExecutor.getIfAvailable();
+                return executor == null ? null : new TableStatisticsTotalEstimator(executor, properties.getDialect());
+            }));
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton queryResultCacheInitializer() {
+        return () -> {
+            EasyormProperties.QueryCache queryCache = properties.getQueryCache();
+            QueryResultCache.setTtl(queryCache.getTtl());
+            QueryResultCache.setMaxSize(queryCache.getMaxSize());
+            QueryResultCache.setMaxRows(queryCache.getMaxRows());
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "easyorm.statistics", name = "enabled", havingValue = "true")
+    public SqlStatistics sqlStatistics() {
+        EasyormProperties.Statistics statistics = properties.getStatistics();
+        return new SqlStatistics(statistics.getMaxShapes(), statistics.getSlowThreshold());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.web.reactive.DispatcherHandler")
+    @ConditionalOnProperty(prefix = "easyorm.statistics", name = {"enabled", "endpoint.enabled"}, havingValue = "true")
+    static class SqlStatisticsEndpointConfiguration {
+
+        @Bean
+        public SqlStatisticsController sqlStatisticsController(SqlStatistics statistics) {
+            return new SqlStatisticsController(statistics);
+        }
+    }
+
     @Bean
     public ValidateEventListener validateEventListener() {
         return new ValidateEventListener();
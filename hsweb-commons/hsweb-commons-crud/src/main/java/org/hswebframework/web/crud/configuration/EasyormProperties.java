@@ -14,6 +14,7 @@ import org.hswebframework.ezorm.rdb.supports.oracle.OracleSchemaMetadata;
 import org.hswebframework.ezorm.rdb.supports.postgres.PostgresqlSchemaMetadata;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -38,6 +39,70 @@ public class EasyormProperties {
 
     private Class<? extends RDBSchemaMetadata> schemaType;
 
+    /**
+     * 只读查询的事务模式
+     *
+     * @see ReadOnlyTransactionAttributeSource
+     * @since 4.0.15
+     */
+    private ReadMode readMode = ReadMode.transactional;
+
+    /**
+     * 批量执行SQL时,每次提交的参数组数量
+     *
+     * @see org.hswebframework.web.crud.sql.BatchSqlRequest
+     * @since 4.0.15
+     */
+    private int batchSize = 500;
+
+    /**
+     * 查询时每次从数据库拉取的行数,小于等于0时使用驱动的默认值.
+     * 设置后查询大量数据时,驱动按下游的请求分批拉取数据,而不是一次性读取全部结果.
+     * <p>
+     * 部分数据库需要额外的配置才能生效,如mysql jdbc需要在连接参数中设置useCursorFetch=true.
+     *
+     * @since 4.0.15
+     */
+    private int fetchSize = 0;
+
+    /**
+     * 默认的SQL执行超时时间,为null时不超时.
+     * 超时后取消正在执行的语句并释放连接,可通过{@link org.hswebframework.web.api.crud.entity.QueryParamEntity#setTimeout(Long)}为单个查询设置更短的超时时间.
+     *
+     * @since 4.0.15
+     */
+    private Duration queryTimeout;
+
+    /**
+     * 使用JDBC时,执行阻塞操作的调度器配置
+     *
+     * @since 4.0.15
+     */
+    private JdbcScheduler jdbcScheduler = new JdbcScheduler();
+
+    /**
+     * SQL统计配置
+     *
+     * @see org.hswebframework.web.crud.sql.statistics.SqlStatistics
+     * @since 4.0.15
+     */
+    private Statistics statistics = new Statistics();
+
+    /**
+     * 分页查询配置
+     *
+     * @since 4.0.15
+     */
+    private Pager pager = new Pager();
+
+    /**
+     * 查询结果缓存配置
+     *
+     * @see org.hswebframework.web.crud.query.QueryResultCache
+     * @since 4.0.15
+     */
+    private QueryCache queryCache = new QueryCache();
+
     public RDBDatabaseMetadata createDatabaseMetadata() {
         RDBDatabaseMetadata metadata = new RDBDatabaseMetadata(createDialect());
 
@@ -72,6 +137,61 @@ public class EasyormProperties {
         return dialectType.newInstance();
     }
 
+    public enum ReadMode {
+        //使用只读事务执行查询
+        transactional,
+        //存在外部事务时加入外部事务,否则不开启事务,使用自动提交的连接执行查询
+        autoCommit
+    }
+
+    @Data
+    public static class JdbcScheduler {
+        //是否在独立的调度器中执行JDBC操作
+        private boolean enabled = false;
+
+        //线程数量,应与连接池的最大连接数一致
+        private int poolSize = 10;
+
+        //最大等待任务数量,超过时立即拒绝
+        private int queueSize = 1000;
+    }
+
+    @Data
+    public static class Statistics {
+        //是否开启SQL统计
+        private boolean enabled = false;
+
+        //统计的最大SQL形状数量,超过后统一记录为OTHER
+        private int maxShapes = 1000;
+
+        //慢查询阈值,超过此时间的SQL将输出警告日志
+        private Duration slowThreshold = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Pager {
+        //分页模式为cachedTotal时总数的缓存时间
+        private Duration totalCacheTtl = Duration.ofMinutes(1);
+
+        //缓存的最大查询条件数量
+        private int totalCacheSize = 10000;
+
+        //分页模式为estimatedTotal时,估算的总数超过此值才使用估算值
+        private long estimateThreshold = 100000;
+    }
+
+    @Data
+    public static class QueryCache {
+        //查询结果的缓存时间
+        private Duration ttl = Duration.ofMinutes(1);
+
+        //缓存的最大查询数量
+        private int maxSize = 10000;
+
+        //查询结果超过此数量时不缓存
+        private int maxRows = 1000;
+    }
+
     @Getter
     @AllArgsConstructor
     public enum DialectEnum {
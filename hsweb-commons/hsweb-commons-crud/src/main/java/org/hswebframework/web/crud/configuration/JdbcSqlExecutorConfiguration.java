@@ -2,11 +2,15 @@ package org.hswebframework.web.crud.configuration;
 
 import org.hswebframework.ezorm.rdb.executor.SyncSqlExecutor;
 import org.hswebframework.ezorm.rdb.executor.reactive.ReactiveSqlExecutor;
+import org.hswebframework.web.crud.sql.BoundedJdbcScheduler;
 import org.hswebframework.web.crud.sql.DefaultJdbcExecutor;
 import org.hswebframework.web.crud.sql.DefaultJdbcReactiveExecutor;
+import org.hswebframework.web.crud.sql.statistics.SqlStatistics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,8 +29,23 @@ public class JdbcSqlExecutorConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public ReactiveSqlExecutor reactiveSqlExecutor() {
-        return new DefaultJdbcReactiveExecutor();
+    public ReactiveSqlExecutor reactiveSqlExecutor(EasyormProperties properties,
+                                                   ObjectProvider<BoundedJdbcScheduler> scheduler,
+                                                   ObjectProvider<SqlStatistics> statistics) {
+        DefaultJdbcReactiveExecutor executor = new DefaultJdbcReactiveExecutor();
+        executor.setFetchSize(properties.getFetchSize());
+        executor.setQueryTimeout(properties.getQueryTimeout());
+        statistics.ifAvailable(executor::setStatistics);
+        scheduler.ifAvailable(executor::setScheduler);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "easyorm.jdbc-scheduler", name = "enabled", havingValue = "true")
+    public BoundedJdbcScheduler jdbcScheduler(EasyormProperties properties) {
+        EasyormProperties.JdbcScheduler config = properties.getJdbcScheduler();
+        return new BoundedJdbcScheduler("jdbc", config.getPoolSize(), config.getQueueSize());
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import org.hswebframework.ezorm.rdb.executor.SyncSqlExecutor;
 import org.hswebframework.ezorm.rdb.executor.reactive.ReactiveSqlExecutor;
 import org.hswebframework.ezorm.rdb.executor.reactive.ReactiveSyncSqlExecutor;
 import org.hswebframework.web.crud.sql.DefaultR2dbcExecutor;
+import org.hswebframework.web.crud.sql.statistics.SqlStatistics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -18,10 +20,15 @@ import org.springframework.context.annotation.Configuration;
 public class R2dbcSqlExecutorConfiguration {
     @Bean
     @ConditionalOnMissingBean
-    public ReactiveSqlExecutor reactiveSqlExecutor(EasyormProperties properties) {
+    public ReactiveSqlExecutor reactiveSqlExecutor(EasyormProperties properties,
+                                                   ObjectProvider<SqlStatistics> statistics) {
         DefaultR2dbcExecutor executor = new DefaultR2dbcExecutor();
         executor.setBindSymbol(properties.getDialect().getBindSymbol());
         executor.setBindCustomSymbol(!executor.getBindSymbol().equals("?"));
+        executor.setBatchSize(properties.getBatchSize());
+        executor.setFetchSize(properties.getFetchSize());
+        executor.setQueryTimeout(properties.getQueryTimeout());
+        statistics.ifAvailable(executor::setStatistics);
         return executor;
     }
 
@@ -0,0 +1,69 @@
+package org.hswebframework.web.crud.configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hswebframework.web.api.crud.entity.TransactionManagers;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.interceptor.RuleBasedTransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionAttributeSource;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 根据{@link EasyormProperties.ReadMode}调整只读事务的传播行为.
+ * <p>
+ * 模式为{@link EasyormProperties.ReadMode#autoCommit}时,将响应式事务管理器上的只读事务
+ * ({@code @Transactional(readOnly = true)})的传播行为修改为{@link TransactionDefinition#PROPAGATION_SUPPORTS}:
+ * 存在外部事务时加入外部事务,否则不开启事务,直接使用自动提交的连接执行查询,减少BEGIN/COMMIT的开销.
+ * <p>
+ * 作为{@link TransactionAttributeSource}注册到容器中,由事务拦截器直接使用.
+ *
+ * @see EasyormConfiguration#readOnlyTransactionAttributeSource(org.springframework.core.env.Environment)
+ * @since 4.0.15
+ */
+public class ReadOnlyTransactionAttributeSource implements TransactionAttributeSource {
+
+    private final TransactionAttributeSource delegate;
+
+    private final Map<TransactionAttribute, TransactionAttribute> converted = new ConcurrentHashMap<>();
+
+    @Getter
+    @Setter
+    private volatile EasyormProperties.ReadMode mode;
+
+    public ReadOnlyTransactionAttributeSource(TransactionAttributeSource delegate, EasyormProperties.ReadMode mode) {
+        this.delegate = delegate;
+        this.mode = mode;
+    }
+
+    @Override
+    public boolean isCandidateClass(Class<?> targetClass) {
+        return delegate.isCandidateClass(targetClass);
+    }
+
+    @Override
+    public TransactionAttribute getTransactionAttribute(Method method, Class<?> targetClass) {
+        TransactionAttribute attribute = delegate.getTransactionAttribute(method, targetClass);
+        if (mode != EasyormProperties.ReadMode.autoCommit
+                || attribute == null
+                || !attribute.isReadOnly()
+                || attribute.getPropagationBehavior() != TransactionDefinition.PROPAGATION_REQUIRED
+                || !TransactionManagers.reactiveTransactionManager.equals(attribute.getQualifier())) {
+            return attribute;
+        }
+        return converted.computeIfAbsent(attribute, ReadOnlyTransactionAttributeSource::toSupports);
+    }
+
+    private static TransactionAttribute toSupports(TransactionAttribute attribute) {
+        DefaultTransactionAttribute supports = attribute instanceof RuleBasedTransactionAttribute
+                ? new RuleBasedTransactionAttribute((RuleBasedTransactionAttribute) attribute)
+                : new DefaultTransactionAttribute(attribute);
+        supports.setQualifier(attribute.getQualifier());
+        supports.setPropagationBehavior(TransactionDefinition.PROPAGATION_SUPPORTS);
+        return supports;
+    }
+}
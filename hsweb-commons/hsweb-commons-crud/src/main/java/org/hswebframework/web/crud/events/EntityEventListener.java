@@ -62,8 +62,20 @@ public class EntityEventListener implements EventListener {
         Class<Entity> entityType;
 
         if (mapping == null ||
-                !Entity.class.isAssignableFrom(entityType = (Class) mapping.getEntityType()) ||
-                !listenerConfigure.isEnabled(entityType)) {
+                !Entity.class.isAssignableFrom(entityType = (Class) mapping.getEntityType())) {
+            return;
+        }
+        if (type == MappingEventTypes.insert_before
+                || type == MappingEventTypes.save_before
+                || type == MappingEventTypes.update_before
+                || type == MappingEventTypes.delete_before) {
+            Class<Entity> modifiedType = entityType;
+            EntityVersions.increment(modifiedType);
+            //事务结束后再次递增,避免事务提交前读取到旧数据的缓存使用了新的版本号
+            context.get(MappingContextKeys.reactiveResultHolder)
+                   .ifPresent(holder -> holder.after(v -> EntityVersions.incrementAfterCompletion(modifiedType)));
+        }
+        if (!listenerConfigure.isEnabled(entityType)) {
             return;
         }
 
@@ -0,0 +1,110 @@
+package org.hswebframework.web.crud.events;
+
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 记录实体数据的修改版本,实体数据新增,修改,删除时版本号递增,
+ * 可将版本号作为查询结果缓存的一部分,版本号变化后缓存自动失效.
+ * <p>
+ * 版本号只在当前节点内有效,由{@link EntityEventListener}在执行修改操作时更新.
+ * 在事务中执行的修改操作,在事务结束(提交或者回滚)后再次更新版本号,
+ * 事务提交前读取到旧数据的缓存使用的是旧版本号,事务结束后将失效.
+ * 可写事务中的查询可能读取到未提交的数据,不应使用缓存,见{@link #isWritableTransactionActive()}.
+ *
+ * @since 4.0.15
+ */
+public final class EntityVersions {
+
+    private static final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private EntityVersions() {
+    }
+
+    /**
+     * 获取实体的当前版本
+     *
+     * @param entityType 实体类型
+     * @return 版本号
+     */
+    public static long current(Class<?> entityType) {
+        AtomicLong version = versions.get(entityType);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * 实体数据发生变更,递增实体及其父类的版本号.
+     * 实体可能通过EntityFactory映射为子类,因此同时递增父类的版本.
+     *
+     * @param entityType 实体类型
+     */
+    public static void increment(Class<?> entityType) {
+        for (Class<?> type = entityType; type != null && type != Object.class; type = type.getSuperclass()) {
+            versions.computeIfAbsent(type, ignore -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * 在当前事务结束(提交或者回滚)后递增版本号,没有事务时立即递增.
+     *
+     * @param entityType 实体类型
+     * @return void
+     */
+    public static Mono<Void> incrementAfterCompletion(Class<?> entityType) {
+        return Mono.defer(() -> {
+            if (org.springframework.transaction.support.TransactionSynchronizationManager.isSynchronizationActive()) {
+                org.springframework.transaction.support.TransactionSynchronizationManager
+                        .registerSynchronization(new org.springframework.transaction.support.TransactionSynchronization() {
+                            @Override
+                            public void afterCompletion(int status) {
+                                increment(entityType);
+                            }
+                        });
+                return Mono.empty();
+            }
+            return TransactionSynchronizationManager
+                    .forCurrentTransaction()
+                    .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                    .map(manager -> {
+                        manager.registerSynchronization(new TransactionSynchronization() {
+                            @Override
+                            public Mono<Void> afterCompletion(int status) {
+                                return Mono.fromRunnable(() -> increment(entityType));
+                            }
+                        });
+                        return true;
+                    })
+                    .onErrorResume(NoTransactionException.class, err -> Mono.empty())
+                    .switchIfEmpty(Mono.fromSupplier(() -> {
+                        increment(entityType);
+                        return true;
+                    }))
+                    .then();
+        });
+    }
+
+    /**
+     * 判断当前是否在可写事务中,可写事务中可能读取到未提交的数据,此时不应读取或者写入查询缓存.
+     * 只读事务中没有未提交的修改,不影响缓存的使用.
+     *
+     * @return 是否在可写事务中
+     */
+    public static Mono<Boolean> isWritableTransactionActive() {
+        return Mono.defer(() -> {
+            if (org.springframework.transaction.support.TransactionSynchronizationManager.isActualTransactionActive()
+                    && !org.springframework.transaction.support.TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return Mono.just(true);
+            }
+            return TransactionSynchronizationManager
+                    .forCurrentTransaction()
+                    .map(manager -> manager.isActualTransactionActive() && !manager.isCurrentTransactionReadOnly())
+                    .onErrorReturn(NoTransactionException.class, false);
+        });
+    }
+}
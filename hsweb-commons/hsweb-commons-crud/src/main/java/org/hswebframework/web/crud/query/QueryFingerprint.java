@@ -0,0 +1,162 @@
+package org.hswebframework.web.crud.query;
+
+import org.hswebframework.ezorm.core.param.QueryParam;
+import org.hswebframework.ezorm.core.param.Sort;
+import org.hswebframework.ezorm.core.param.Term;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * 根据查询条件生成规范化的字符串,相同的查询条件生成的字符串相同,可用于缓存查询结果.
+ *
+ * @since 4.0.15
+ */
+public final class QueryFingerprint {
+
+    private QueryFingerprint() {
+    }
+
+    /**
+     * 根据条件生成字符串,包含条件的值
+     *
+     * @param terms 条件
+     * @return 字符串
+     */
+    public static String of(List<Term> terms) {
+        StringBuilder builder = new StringBuilder();
+        appendTerms(builder, terms);
+        return builder.toString();
+    }
+
+    /**
+     * 根据完整的查询参数生成字符串,包含条件,排序,包含/排除的列以及分页信息.
+     * 同一层级的条件全部使用and连接时,条件的顺序不影响结果.
+     *
+     * @param param 查询参数
+     * @return 字符串
+     */
+    public static String of(QueryParam param) {
+        StringBuilder builder = new StringBuilder();
+        appendTerms(builder, param.getTerms());
+        builder.append("|sort:");
+        if (param.getSorts() != null) {
+            //排序的顺序影响结果,不进行排序
+            for (Sort sort : param.getSorts()) {
+                appendString(builder, sort.getName());
+                appendString(builder, sort.getOrder());
+            }
+        }
+        appendColumns(builder.append("|includes:"), param.getIncludes());
+        appendColumns(builder.append("|excludes:"), param.getExcludes());
+        if (param.isPaging()) {
+            builder.append("|page:")
+                   .append(param.getPageIndex())
+                   .append(',')
+                   .append(param.getPageSize());
+        }
+        return builder.toString();
+    }
+
+    /*
+     * 列名,条件类型,值等任意内容都使用"长度:内容"的格式拼接,
+     * 内容中包含分隔符时也不会与其他条件的拼接结果相同,如: name = 'x;and tenantId$eq=String:t1'
+     */
+    private static void appendString(StringBuilder builder, String str) {
+        if (str == null) {
+            builder.append('N');
+            return;
+        }
+        builder.append(str.length()).append(':').append(str);
+    }
+
+    private static void appendColumns(StringBuilder builder, Set<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            return;
+        }
+        for (String column : new TreeSet<>(columns)) {
+            appendString(builder, column);
+        }
+    }
+
+    private static void appendTerms(StringBuilder builder, List<Term> terms) {
+        if (terms == null) {
+            return;
+        }
+        //全部使用and连接的条件与顺序无关,排序后再拼接
+        if (terms.size() > 1 && isAllAnd(terms)) {
+            List<String> sorted = new ArrayList<>(terms.size());
+            for (Term term : terms) {
+                StringBuilder termBuilder = new StringBuilder();
+                appendTerm(termBuilder, term);
+                sorted.add(termBuilder.toString());
+            }
+            Collections.sort(sorted);
+            for (String term : sorted) {
+                builder.append(term);
+            }
+            return;
+        }
+        for (Term term : terms) {
+            appendTerm(builder, term);
+        }
+    }
+
+    private static boolean isAllAnd(List<Term> terms) {
+        for (Term term : terms) {
+            if (term.getType() != Term.Type.and) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendTerm(StringBuilder builder, Term term) {
+        builder.append(term.getType()).append(' ');
+        if (term.getColumn() != null) {
+            appendString(builder, term.getColumn());
+            appendString(builder, term.getTermType());
+            List<String> options = term.getOptions();
+            builder.append(options == null ? 0 : options.size()).append('$');
+            if (options != null) {
+                for (String option : options) {
+                    appendString(builder, option);
+                }
+            }
+            builder.append('=');
+            appendValue(builder, term.getValue());
+        }
+        if (term.getTerms() != null && !term.getTerms().isEmpty()) {
+            builder.append('(');
+            appendTerms(builder, term.getTerms());
+            builder.append(')');
+        }
+        builder.append(';');
+    }
+
+    private static void appendValue(StringBuilder builder, Object value) {
+        if (value instanceof Collection) {
+            builder.append('[');
+            for (Object val : ((Collection<?>) value)) {
+                appendValue(builder, val);
+            }
+            builder.append(']');
+        } else if (value != null && value.getClass().isArray()) {
+            builder.append('[');
+            int len = Array.getLength(value);
+            for (int i = 0; i < len; i++) {
+                appendValue(builder, Array.get(value, i));
+            }
+            builder.append(']');
+        } else if (value instanceof Date) {
+            builder.append('D').append(((Date) value).getTime()).append(',');
+        } else if (value == null) {
+            builder.append('N');
+        } else {
+            //包含类型,避免字符串与数字混淆
+            builder.append('V');
+            appendString(builder, value.getClass().getSimpleName());
+            appendString(builder, String.valueOf(value));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.hswebframework.web.crud.query;
+
+import lombok.AllArgsConstructor;
+import org.hswebframework.ezorm.core.param.QueryParam;
+import org.hswebframework.web.crud.events.EntityVersions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 查询结果缓存,缓存按实体类型和查询参数({@link QueryFingerprint})区分,
+ * 实体数据发生变更({@link EntityVersions})或者超过缓存时间后失效,无需手动清除缓存.
+ * <p>
+ * 版本号只在当前节点内有效,并且只有通过仓库执行的修改操作才会更新版本号,
+ * 使用原生SQL或者其他节点修改的数据在缓存时间后才会生效.
+ * 在可写事务中执行的查询不读取也不写入缓存,事务中修改的数据在事务结束后才会使缓存失效.
+ * 配置通过{@code easyorm.query-cache.*}设置.
+ *
+ * @see org.hswebframework.web.crud.service.EnableQueryCacheReactiveCrudService
+ * @since 4.0.15
+ */
+@SuppressWarnings("all")
+public final class QueryResultCache {
+
+    private static final Map<String, CachedResult> cache = new ConcurrentHashMap<>();
+
+    static volatile Duration ttl = Duration.ofMinutes(1);
+
+    static volatile int maxSize = 10000;
+
+    static volatile int maxRows = 1000;
+
+    private QueryResultCache() {
+    }
+
+    public static void setTtl(Duration ttl) {
+        QueryResultCache.ttl = ttl;
+    }
+
+    public static void setMaxSize(int maxSize) {
+        QueryResultCache.maxSize = maxSize;
+    }
+
+    public static void setMaxRows(int maxRows) {
+        QueryResultCache.maxRows = maxRows;
+    }
+
+    /**
+     * 获取缓存的查询结果,缓存不存在或者已失效时执行查询并缓存.
+     * 查询结果超过{@code easyorm.query-cache.max-rows}条,查询被取消或者在可写事务中查询时不缓存.
+     *
+     * @param entityType 实体类型
+     * @param param      查询参数
+     * @param query      查询
+     * @param <T>        结果类型
+     * @return 查询结果
+     */
+    public static <T> Flux<T> query(Class<?> entityType, QueryParam param, Supplier<Flux<T>> query) {
+        if (param.isForUpdate()) {
+            return query.get();
+        }
+        //可写事务中可能读取到未提交的数据,不使用缓存
+        return EntityVersions
+                .isWritableTransactionActive()
+                .flatMapMany(active -> active ? query.get() : query0(entityType, param, query));
+    }
+
+    private static <T> Flux<T> query0(Class<?> entityType, QueryParam param, Supplier<Flux<T>> query) {
+        return Flux.defer(() -> {
+            String key = entityType.getName() + "|query|" + QueryFingerprint.of(param);
+            //在查询之前获取版本号,查询期间数据发生变化时缓存将在下一次查询时失效
+            long version = EntityVersions.current(entityType);
+            long now = System.currentTimeMillis();
+            CachedResult cached = get(key, version, now);
+            if (cached != null) {
+                return Flux.fromIterable((List<T>) cached.value);
+            }
+            int maxRows = QueryResultCache.maxRows;
+            List<T> rows = new ArrayList<>();
+            boolean[] overflow = new boolean[1];
+            return query
+                    .get()
+                    .doOnNext(row -> {
+                        if (overflow[0]) {
+                            return;
+                        }
+                        if (rows.size() >= maxRows) {
+                            overflow[0] = true;
+                            rows.clear();
+                            return;
+                        }
+                        rows.add(row);
+                    })
+                    .doOnComplete(() -> {
+                        if (!overflow[0]) {
+                            put(key, new CachedResult(version, rows, now + ttl.toMillis()));
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 获取缓存的总数,缓存不存在或者已失效时执行count查询并缓存
+     *
+     * @param entityType 实体类型
+     * @param param      查询参数
+     * @param counter    count查询
+     * @return 总数
+     */
+    public static Mono<Integer> count(Class<?> entityType, QueryParam param, Supplier<Mono<Integer>> counter) {
+        return EntityVersions
+                .isWritableTransactionActive()
+                .flatMap(active -> active ? counter.get() : count0(entityType, param, counter));
+    }
+
+    private static Mono<Integer> count0(Class<?> entityType, QueryParam param, Supplier<Mono<Integer>> counter) {
+        return Mono.defer(() -> {
+            //count只与条件有关
+            String key = entityType.getName() + "|count|" + QueryFingerprint.of(param.getTerms());
+            long version = EntityVersions.current(entityType);
+            long now = System.currentTimeMillis();
+            CachedResult cached = get(key, version, now);
+            if (cached != null) {
+                return Mono.just((Integer) cached.value);
+            }
+            return counter
+                    .get()
+                    .doOnNext(total -> put(key, new CachedResult(version, total, now + ttl.toMillis())));
+        });
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public static void clear() {
+        cache.clear();
+    }
+
+    public static int size() {
+        return cache.size();
+    }
+
+    private static CachedResult get(String key, long version, long now) {
+        CachedResult cached = cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.version != version || cached.expireAt <= now) {
+            cache.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    private static void put(String key, CachedResult result) {
+        if (cache.size() >= maxSize) {
+            cache.clear();
+        }
+        cache.put(key, result);
+    }
+
+    @AllArgsConstructor
+    private static class CachedResult {
+        private final long version;
+        private final Object value;
+        private final long expireAt;
+    }
+}
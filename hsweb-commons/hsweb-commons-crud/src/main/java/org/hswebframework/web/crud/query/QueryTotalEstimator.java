@@ -0,0 +1,23 @@
+package org.hswebframework.web.crud.query;
+
+import org.hswebframework.ezorm.core.param.QueryParam;
+import reactor.core.publisher.Mono;
+
+/**
+ * 查询总数估算器,用于分页模式{@link org.hswebframework.web.api.crud.entity.PagingMode#estimatedTotal}
+ *
+ * @see TableStatisticsTotalEstimator
+ * @since 4.0.15
+ */
+public interface QueryTotalEstimator {
+
+    /**
+     * 估算查询总数
+     *
+     * @param entityType 实体类型
+     * @param param      查询条件
+     * @return 估算的总数, 无法估算时返回{@link Mono#empty()}
+     */
+    Mono<Long> estimate(Class<?> entityType, QueryParam param);
+
+}
@@ -0,0 +1,135 @@
+package org.hswebframework.web.crud.query;
+
+import lombok.AllArgsConstructor;
+import org.hswebframework.ezorm.core.param.QueryParam;
+import org.hswebframework.web.crud.events.EntityVersions;
+import org.springframework.core.ResolvableType;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 分页查询总数的缓存与估算,用于分页模式
+ * {@link org.hswebframework.web.api.crud.entity.PagingMode#cachedTotal}和
+ * {@link org.hswebframework.web.api.crud.entity.PagingMode#estimatedTotal}.
+ * <p>
+ * 缓存按实体类型和查询条件区分,实体数据发生变更({@link EntityVersions})或者超过缓存时间后失效,
+ * 在可写事务中执行的count不读取也不写入缓存.
+ * 配置通过{@code easyorm.pager.*}设置.
+ *
+ * @since 4.0.15
+ */
+public final class QueryTotals {
+
+    private static final Map<String, CachedTotal> cache = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, Class<?>> entityTypes = new ConcurrentHashMap<>();
+
+    static volatile Duration ttl = Duration.ofMinutes(1);
+
+    static volatile int maxSize = 10000;
+
+    static volatile long estimateThreshold = 100000;
+
+    static volatile QueryTotalEstimator estimator;
+
+    private QueryTotals() {
+    }
+
+    public static void setTtl(Duration ttl) {
+        QueryTotals.ttl = ttl;
+    }
+
+    public static void setMaxSize(int maxSize) {
+        QueryTotals.maxSize = maxSize;
+    }
+
+    public static void setEstimateThreshold(long estimateThreshold) {
+        QueryTotals.estimateThreshold = estimateThreshold;
+    }
+
+    public static void setEstimator(QueryTotalEstimator estimator) {
+        QueryTotals.estimator = estimator;
+    }
+
+    /**
+     * 获取缓存的总数,缓存不存在或者已失效时执行count查询并缓存
+     *
+     * @param entityType 实体类型
+     * @param param      查询条件
+     * @param counter    count查询
+     * @return 总数
+     */
+    public static Mono<Integer> cached(Class<?> entityType, QueryParam param, Supplier<Mono<Integer>> counter) {
+        //可写事务中可能读取到未提交的数据,不使用缓存
+        return EntityVersions
+                .isWritableTransactionActive()
+                .flatMap(active -> active ? counter.get() : cached0(entityType, param, counter));
+    }
+
+    private static Mono<Integer> cached0(Class<?> entityType, QueryParam param, Supplier<Mono<Integer>> counter) {
+        return Mono.defer(() -> {
+            String key = entityType.getName() + "|" + QueryFingerprint.of(param.getTerms());
+            //在count之前获取版本号,count期间数据发生变化时缓存将在下一次查询时失效
+            long version = EntityVersions.current(entityType);
+            long now = System.currentTimeMillis();
+            CachedTotal cached = cache.get(key);
+            if (cached != null && cached.version == version && cached.expireAt > now) {
+                return Mono.just(cached.total);
+            }
+            return counter
+                    .get()
+                    .doOnNext(total -> {
+                        if (cache.size() >= maxSize) {
+                            cache.clear();
+                        }
+                        cache.put(key, new CachedTotal(version, total, now + ttl.toMillis()));
+                    });
+        });
+    }
+
+    /**
+     * 估算总数,只有估算的总数超过阈值({@code easyorm.pager.estimate-threshold})时才返回
+     *
+     * @param entityType 实体类型
+     * @param param      查询条件
+     * @return 估算的总数, 无法估算或者未超过阈值时返回{@link Mono#empty()}
+     */
+    public static Mono<Integer> estimate(Class<?> entityType, QueryParam param) {
+        QueryTotalEstimator estimator = QueryTotals.estimator;
+        if (estimator == null) {
+            return Mono.empty();
+        }
+        return estimator
+                .estimate(entityType, param)
+                .filter(total -> total >= estimateThreshold)
+                .map(total -> (int) Math.min(Integer.MAX_VALUE, total));
+    }
+
+    /**
+     * 获取服务或者仓库泛型中的实体类型,无法获取时返回服务本身的类型
+     *
+     * @param service     服务
+     * @param genericType 声明了实体泛型的接口
+     * @return 实体类型
+     */
+    public static Class<?> resolveEntityType(Object service, Class<?> genericType) {
+        return entityTypes.computeIfAbsent(service.getClass(), type -> {
+            Class<?> entityType = ResolvableType
+                    .forClass(type)
+                    .as(genericType)
+                    .resolveGeneric(0);
+            return entityType == null ? type : entityType;
+        });
+    }
+
+    @AllArgsConstructor
+    private static class CachedTotal {
+        private final long version;
+        private final int total;
+        private final long expireAt;
+    }
+}
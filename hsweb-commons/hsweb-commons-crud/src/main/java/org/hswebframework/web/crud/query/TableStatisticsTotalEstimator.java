@@ -0,0 +1,68 @@
+package org.hswebframework.web.crud.query;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hswebframework.ezorm.core.param.QueryParam;
+import org.hswebframework.ezorm.rdb.executor.reactive.ReactiveSqlExecutor;
+import org.hswebframework.web.crud.configuration.EasyormProperties;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import javax.persistence.Table;
+
+/**
+ * 使用数据库的表统计信息估算总数,只支持PostgreSQL和MySQL,并且只估算没有查询条件的总数.
+ * <ul>
+ *     <li>PostgreSQL: pg_class.reltuples</li>
+ *     <li>MySQL: information_schema.tables.table_rows</li>
+ * </ul>
+ *
+ * @since 4.0.15
+ */
+@Slf4j
+@AllArgsConstructor
+public class TableStatisticsTotalEstimator implements QueryTotalEstimator {
+
+    private final ReactiveSqlExecutor sqlExecutor;
+
+    private final EasyormProperties.DialectEnum dialect;
+
+    @Override
+    public Mono<Long> estimate(Class<?> entityType, QueryParam param) {
+        if (!CollectionUtils.isEmpty(param.getTerms())) {
+            return Mono.empty();
+        }
+        Table table = AnnotationUtils.findAnnotation(entityType, Table.class);
+        if (table == null || !StringUtils.hasText(table.name())) {
+            return Mono.empty();
+        }
+        String sql;
+        switch (dialect) {
+            case postgres:
+                sql = "select reltuples as total from pg_class where relname = ?";
+                break;
+            case mysql:
+                sql = "select table_rows as total from information_schema.tables where table_schema = database() and table_name = ?";
+                break;
+            default:
+                return Mono.empty();
+        }
+        return sqlExecutor
+                .select(sql, table.name())
+                .next()
+                .flatMap(row -> {
+                    Object total = row.values().stream().findFirst().orElse(null);
+                    //未执行过统计时,PostgreSQL返回-1
+                    if (total instanceof Number && ((Number) total).longValue() >= 0) {
+                        return Mono.just(((Number) total).longValue());
+                    }
+                    return Mono.empty();
+                })
+                .onErrorResume(err -> {
+                    log.warn("estimate total of table [{}] error", table.name(), err);
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,156 @@
+package org.hswebframework.web.crud.service;
+
+import org.hswebframework.ezorm.core.param.Term;
+import org.hswebframework.ezorm.core.param.TermType;
+import org.hswebframework.web.api.crud.entity.GenericEntity;
+
+import java.util.*;
+
+/**
+ * 记录数据变更影响到的主键,用于按ID清除缓存.
+ * <p>
+ * 无法确定影响的主键或者数量超过限制时,{@link #getIds()}返回null,此时应该清空全部缓存.
+ *
+ * @since 4.0.15
+ */
+@SuppressWarnings("all")
+class AffectedIds {
+
+    static final String ID_COLUMN = "id";
+
+    private final int maxSize;
+
+    private final List<Object> entities = new ArrayList<>();
+
+    private boolean overflow;
+
+    AffectedIds(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 记录变更的实体,实体ID可能在写入数据库时才生成,因此在{@link #getIds()}时才获取ID.
+     *
+     * @param entity 实体
+     */
+    synchronized void add(Object entity) {
+        if (overflow) {
+            return;
+        }
+        if (entities.size() >= maxSize) {
+            overflow = true;
+            entities.clear();
+            return;
+        }
+        entities.add(entity);
+    }
+
+    void addAll(Collection<?> entities) {
+        for (Object entity : entities) {
+            add(entity);
+        }
+    }
+
+    /**
+     * @return 影响的主键, null表示无法确定
+     */
+    synchronized Collection<Object> getIds() {
+        if (overflow) {
+            return null;
+        }
+        Set<Object> ids = new LinkedHashSet<>(entities.size());
+        for (Object entity : entities) {
+            Object id = getId(entity);
+            if (id == null) {
+                return null;
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    /**
+     * @param entity 实体
+     * @return 实体的主键, null表示无法确定
+     */
+    static Collection<Object> single(Object entity) {
+        Object id = getId(entity);
+        return id == null ? null : Collections.singletonList(id);
+    }
+
+    static Object getId(Object entity) {
+        if (entity instanceof GenericEntity) {
+            return ((GenericEntity<?>) entity).getId();
+        }
+        return null;
+    }
+
+    /**
+     * 从动态条件中解析主键,只支持顶层使用and连接的id = ? 或者 id in (?)条件.
+     *
+     * @param terms   条件
+     * @param maxSize 最大数量
+     * @return 主键, null表示无法确定
+     */
+    static Collection<Object> resolve(List<Term> terms, int maxSize) {
+        if (terms == null) {
+            return null;
+        }
+        Collection<Object> ids = null;
+        for (int i = 0; i < terms.size(); i++) {
+            Term term = terms.get(i);
+            //存在or条件时影响的数据无法确定
+            if (i > 0 && term.getType() == Term.Type.or) {
+                return null;
+            }
+            if (!ID_COLUMN.equals(term.getColumn())
+                    || (term.getOptions() != null && !term.getOptions().isEmpty())) {
+                continue;
+            }
+            Collection<Object> values = resolveValues(term);
+            if (values == null) {
+                continue;
+            }
+            //多个id条件时合并,多清除的缓存不影响正确性
+            if (ids == null) {
+                ids = values;
+            } else {
+                ids.addAll(values);
+            }
+        }
+        if (ids != null && ids.size() > maxSize) {
+            return null;
+        }
+        return ids;
+    }
+
+    private static Collection<Object> resolveValues(Term term) {
+        String termType = term.getTermType();
+        Object value = term.getValue();
+        if (value == null) {
+            return null;
+        }
+        if (TermType.eq.equalsIgnoreCase(termType)) {
+            if (value instanceof Collection || value.getClass().isArray()) {
+                return null;
+            }
+            return new LinkedHashSet<>(Collections.singleton(value));
+        }
+        if (TermType.in.equalsIgnoreCase(termType)) {
+            Set<Object> values = new LinkedHashSet<>();
+            if (value instanceof Collection) {
+                values.addAll((Collection<?>) value);
+            } else if (value instanceof Object[]) {
+                values.addAll(Arrays.asList((Object[]) value));
+            } else if (value instanceof String) {
+                for (String str : ((String) value).split(",")) {
+                    values.add(str.trim());
+                }
+            } else {
+                values.add(value);
+            }
+            return values;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package org.hswebframework.web.crud.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 分批保存数据时,每一批数据的保存结果
+ *
+ * @see ReactiveCrudService#saveInChunks(org.reactivestreams.Publisher, int, int)
+ * @since 4.0.15
+ */
+@Getter
+@AllArgsConstructor(staticName = "of")
+public class ChunkSaveResult {
+
+    /**
+     * 批次序号,从0开始
+     */
+    private final long index;
+
+    /**
+     * 本批数据量
+     */
+    private final int size;
+
+    /**
+     * 新增数量
+     */
+    private final int added;
+
+    /**
+     * 修改数量
+     */
+    private final int updated;
+
+    /**
+     * 耗时,毫秒
+     */
+    private final long costMillis;
+
+    /**
+     * @return 每秒处理的数据量
+     */
+    public double getThroughput() {
+        return costMillis <= 0 ? size * 1000D : size * 1000D / costMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "chunk[" + index + "] size:" + size + ",added:" + added + ",updated:" + updated
+                + ",cost:" + costMillis + "ms,throughput:" + (long) getThroughput() + "/s";
+    }
+}
@@ -4,21 +4,59 @@ import org.hswebframework.ezorm.rdb.mapping.ReactiveDelete;
 import org.hswebframework.ezorm.rdb.mapping.ReactiveUpdate;
 import org.hswebframework.ezorm.rdb.mapping.defaults.SaveResult;
 import org.hswebframework.web.cache.ReactiveCache;
+import org.hswebframework.web.cache.supports.AbstractReactiveCache;
+import org.hswebframework.web.cache.supports.NullValue;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Collection;
+import java.time.Duration;
+import java.util.*;
 import java.util.function.Function;
 
 public interface EnableCacheReactiveCrudService<E, K> extends ReactiveCrudService<E, K> {
 
     ReactiveCache<E> getCache();
 
+    /**
+     * 缓存不存在的数据的时间,开启后根据ID查询不到数据时也会进行缓存,防止频繁查询不存在的数据.
+     * 新增或保存数据时将清除对应的缓存.
+     *
+     * @return 缓存时间, 为null时不缓存不存在的数据
+     * @since 4.0.15
+     */
+    default Duration getNullValueCacheTime() {
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
     default Mono<E> findById(K id) {
-        return this.getCache()
-                   .mono("id:" + id)
-                   .onCacheMissResume(ReactiveCrudService.super.findById(Mono.just(id)));
+        Duration nullValueCacheTime = getNullValueCacheTime();
+        if (nullValueCacheTime == null) {
+            return this.getCache()
+                       .mono("id:" + id)
+                       .onCacheMissResume(ReactiveCrudService.super.findById(Mono.just(id)));
+        }
+        ReactiveCache<Object> cache = (ReactiveCache) this.getCache();
+        String key = "id:" + id;
+        return cache
+                .mono(key)
+                .onCacheMissResume(ReactiveCrudService.super
+                                           .findById(Mono.just(id))
+                                           .cast(Object.class)
+                                           .switchIfEmpty(Mono.fromSupplier(() -> NullValue.expireAfter(nullValueCacheTime))))
+                .flatMap(value -> {
+                    if (value instanceof NullValue) {
+                        if (((NullValue) value).isExpired()) {
+                            return cache.evict(key).then(Mono.defer(() -> findById(id)));
+                        }
+                        if (cache instanceof AbstractReactiveCache) {
+                            ((AbstractReactiveCache<?>) cache).getStatistics().recordNullHit();
+                        }
+                        return Mono.empty();
+                    }
+                    return Mono.just((E) value);
+                });
     }
 
     @Override
@@ -26,6 +64,113 @@ public interface EnableCacheReactiveCrudService<E, K> extends ReactiveCrudServic
         return publisher.flatMap(this::findById);
     }
 
+    /**
+     * 根据ID批量查询,通过{@link ReactiveCache#getAll(Collection, Function)}优先从缓存中批量获取,
+     * 未命中的ID使用一次IN查询加载后写入缓存,结果按传入ID的顺序返回.
+     * <p>
+     * 开启了{@link #getNullValueCacheTime()}时,查询不到的ID将缓存为{@link NullValue},
+     * 缓存的{@link NullValue}不会包含在结果中,已过期的{@link NullValue}将被清除并重新加载.
+     *
+     * @param idList ID集合
+     * @return 数据
+     * @since 4.0.15
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    default Flux<E> findById(Collection<K> idList) {
+        if (idList == null || idList.isEmpty()) {
+            return Flux.empty();
+        }
+        Map<String, K> keys = new LinkedHashMap<>();
+        for (K id : idList) {
+            keys.put("id:" + id, id);
+        }
+        Duration nullValueCacheTime = getNullValueCacheTime();
+        ReactiveCache<Object> cache = (ReactiveCache) this.getCache();
+        return Flux.defer(() -> {
+            //无法获取ID的数据不缓存,放到结果的最后
+            List<E> unknown = new ArrayList<>();
+            //本次查询加载的key,加载得到的NullValue不记录为命中
+            Set<String> loadedKeys = new HashSet<>();
+            Function<Collection<String>, Mono<Map<String, Object>>> loader = missingKeys -> {
+                List<K> missing = new ArrayList<>(missingKeys.size());
+                for (String key : missingKeys) {
+                    missing.add(keys.get(key));
+                }
+                loadedKeys.addAll(missingKeys);
+                return ReactiveCrudService.super
+                        .findById(missing)
+                        .collectList()
+                        .map(loadedList -> {
+                            Map<String, Object> loaded = new HashMap<>();
+                            for (E entity : loadedList) {
+                                Object id = AffectedIds.getId(entity);
+                                if (id == null) {
+                                    unknown.add(entity);
+                                } else {
+                                    loaded.put("id:" + id, entity);
+                                }
+                            }
+                            if (nullValueCacheTime != null && unknown.isEmpty()) {
+                                for (String key : missingKeys) {
+                                    loaded.putIfAbsent(key, NullValue.expireAfter(nullValueCacheTime));
+                                }
+                            }
+                            return loaded;
+                        });
+            };
+            return cache
+                    .getAll(keys.keySet(), loader)
+                    .flatMap(result -> {
+                        List<String> expired = new ArrayList<>();
+                        for (Map.Entry<String, Object> entry : result.entrySet()) {
+                            if (entry.getValue() instanceof NullValue && ((NullValue) entry.getValue()).isExpired()) {
+                                expired.add(entry.getKey());
+                            }
+                        }
+                        if (expired.isEmpty()) {
+                            return Mono.just(result);
+                        }
+                        //已过期的NullValue清除后重新加载
+                        return cache
+                                .evictAll(expired)
+                                .then(cache.getAll(expired, loader))
+                                .map(reloaded -> {
+                                    Map<String, Object> merged = new LinkedHashMap<>();
+                                    for (String key : keys.keySet()) {
+                                        Object value = reloaded.containsKey(key) ? reloaded.get(key) : result.get(key);
+                                        if (value != null) {
+                                            merged.put(key, value);
+                                        }
+                                    }
+                                    return merged;
+                                });
+                    })
+                    .flatMapIterable(result -> {
+                        List<E> values = new ArrayList<>(result.size() + unknown.size());
+                        for (Map.Entry<String, Object> entry : result.entrySet()) {
+                            Object value = entry.getValue();
+                            if (value instanceof NullValue) {
+                                if (!loadedKeys.contains(entry.getKey()) && cache instanceof AbstractReactiveCache) {
+                                    ((AbstractReactiveCache<?>) cache).getStatistics().recordNullHit();
+                                }
+                                continue;
+                            }
+                            values.add((E) value);
+                        }
+                        values.addAll(unknown);
+                        return values;
+                    });
+        });
+    }
+
+    @Override
+    default Flux<E> findById(Flux<K> publisher) {
+        return publisher
+                .buffer(200)
+                .concatMap(idList -> this.findById((Collection<K>) idList));
+    }
+
     @Override
     default Mono<Integer> updateById(K id, Mono<E> entityPublisher) {
         return ReactiveCrudService.super
@@ -33,39 +178,73 @@ public interface EnableCacheReactiveCrudService<E, K> extends ReactiveCrudServic
                 .doFinally(i -> getCache().evict("id:" + id).subscribe());
     }
 
+    /**
+     * 数据变更时按ID清除缓存的最大数量,影响的数据超过此数量或者无法确定时将清空全部缓存.
+     *
+     * @return 最大数量
+     * @since 4.0.15
+     */
+    default int getMaxEvictKeys() {
+        return 1024;
+    }
+
+    /**
+     * 按ID清除缓存
+     *
+     * @param ids ID,为null或者数量超过{@link #getMaxEvictKeys()}时清空全部缓存
+     * @return void
+     * @since 4.0.15
+     */
+    default Mono<Void> evictCache(Collection<?> ids) {
+        if (ids == null || ids.size() > getMaxEvictKeys()) {
+            return getCache().clear();
+        }
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        List<Object> keys = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            keys.add("id:" + id);
+        }
+        return getCache().evictAll(keys);
+    }
+
     @Override
     default Mono<SaveResult> save(E data) {
         return ReactiveCrudService.super
                 .save(data)
-                .doFinally(i -> getCache().clear().subscribe());
+                .doFinally(i -> evictCache(AffectedIds.single(data)).subscribe());
     }
 
     @Override
     default Mono<SaveResult> save(Publisher<E> entityPublisher) {
+        AffectedIds affected = new AffectedIds(getMaxEvictKeys());
         return ReactiveCrudService.super
-                .save(entityPublisher)
-                .doFinally(i -> getCache().clear().subscribe());
+                .save(Flux.from(entityPublisher).doOnNext(affected::add))
+                .doFinally(i -> evictCache(affected.getIds()).subscribe());
     }
 
     @Override
     default Mono<Integer> insert(E data) {
         return ReactiveCrudService.super
                 .insert(data)
-                .doFinally(i -> getCache().clear().subscribe());
+                .doFinally(i -> evictCache(AffectedIds.single(data)).subscribe());
     }
 
     @Override
     default Mono<Integer> insert(Publisher<E> entityPublisher) {
+        AffectedIds affected = new AffectedIds(getMaxEvictKeys());
         return ReactiveCrudService.super
-                .insert(entityPublisher)
-                .doFinally(i -> getCache().clear().subscribe());
+                .insert(Flux.from(entityPublisher).doOnNext(affected::add))
+                .doFinally(i -> evictCache(affected.getIds()).subscribe());
     }
 
     @Override
     default Mono<Integer> insertBatch(Publisher<? extends Collection<E>> entityPublisher) {
+        AffectedIds affected = new AffectedIds(getMaxEvictKeys());
         return ReactiveCrudService.super
-                .insertBatch(entityPublisher)
-                .doFinally(i -> getCache().clear().subscribe());
+                .insertBatch(Flux.from(entityPublisher).doOnNext(affected::addAll))
+                .doFinally(i -> evictCache(affected.getIds()).subscribe());
     }
 
     @Override
@@ -80,13 +259,13 @@ public interface EnableCacheReactiveCrudService<E, K> extends ReactiveCrudServic
     default ReactiveUpdate<E> createUpdate() {
         return ReactiveCrudService.super
                 .createUpdate()
-                .onExecute((update, s) -> s.doFinally((__) -> getCache().clear().subscribe()));
+                .onExecute((update, s) -> s.doFinally((__) -> evictCache(AffectedIds.resolve(update.toQueryParam().getTerms(), getMaxEvictKeys())).subscribe()));
     }
 
     @Override
     default ReactiveDelete createDelete() {
         return ReactiveCrudService.super
                 .createDelete()
-                .onExecute((update, s) -> s.doFinally((__) -> getCache().clear().subscribe()));
+                .onExecute((delete, s) -> s.doFinally((__) -> evictCache(AffectedIds.resolve(delete.toQueryParam().getTerms(), getMaxEvictKeys())).subscribe()));
     }
 }
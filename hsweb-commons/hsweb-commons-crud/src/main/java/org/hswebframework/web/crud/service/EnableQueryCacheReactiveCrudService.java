@@ -0,0 +1,41 @@
+package org.hswebframework.web.crud.service;
+
+import org.hswebframework.web.api.crud.entity.QueryParamEntity;
+import org.hswebframework.web.api.crud.entity.TransactionManagers;
+import org.hswebframework.web.crud.query.QueryResultCache;
+import org.hswebframework.web.crud.query.QueryTotals;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 开启查询结果缓存的增删改查服务,{@link #query(QueryParamEntity)},{@link #count(QueryParamEntity)}
+ * 以及分页查询{@link #queryPager(QueryParamEntity, java.util.function.Function)}将使用{@link QueryResultCache}缓存查询结果.
+ * <p>
+ * 实体数据通过仓库新增,修改,删除后缓存自动失效.缓存的实体对象会被多次查询共享,请勿修改查询结果.
+ *
+ * @param <E> 实体类型
+ * @param <K> 主键类型
+ * @see QueryResultCache
+ * @since 4.0.15
+ */
+public interface EnableQueryCacheReactiveCrudService<E, K> extends ReactiveCrudService<E, K> {
+
+    @Override
+    @Transactional(readOnly = true, transactionManager = TransactionManagers.reactiveTransactionManager)
+    default Flux<E> query(QueryParamEntity param) {
+        return QueryResultCache
+                .query(QueryTotals.resolveEntityType(this, ReactiveCrudService.class),
+                       param,
+                       () -> ReactiveCrudService.super.query(param));
+    }
+
+    @Override
+    @Transactional(readOnly = true, transactionManager = TransactionManagers.reactiveTransactionManager)
+    default Mono<Integer> count(QueryParamEntity queryParam) {
+        return QueryResultCache
+                .count(QueryTotals.resolveEntityType(this, ReactiveCrudService.class),
+                       queryParam,
+                       () -> ReactiveCrudService.super.count(queryParam));
+    }
+}
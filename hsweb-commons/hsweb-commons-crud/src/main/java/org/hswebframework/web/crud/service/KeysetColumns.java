@@ -0,0 +1,93 @@
+package org.hswebframework.web.crud.service;
+
+import org.hswebframework.ezorm.core.param.Sort;
+import org.hswebframework.ezorm.rdb.mapping.EntityColumnMapping;
+import org.hswebframework.ezorm.rdb.mapping.ReactiveRepository;
+import org.hswebframework.ezorm.rdb.mapping.defaults.DefaultRepository;
+import org.hswebframework.ezorm.rdb.metadata.RDBColumnMetadata;
+import org.hswebframework.web.api.crud.entity.KeysetCursor;
+import org.hswebframework.web.api.crud.entity.QueryParamEntity;
+import org.hswebframework.web.exception.ValidationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 根据实体的表结构创建游标分页查询条件.
+ * <p>
+ * 主键从表结构中获取,排序字段支持属性名和列名,列名将转换为属性名.
+ * 游标分页不支持可能为null的排序字段,不存在或者可能为null的排序字段将抛出{@link ValidationException}.
+ *
+ * @see KeysetCursor
+ * @since 4.0.15
+ */
+final class KeysetColumns {
+
+    private static final String DEFAULT_ID_PROPERTY = "id";
+
+    private KeysetColumns() {
+    }
+
+    static QueryParamEntity createQuery(ReactiveRepository<?, ?> repository, QueryParamEntity query, String cursor) {
+        EntityColumnMapping mapping = repository instanceof DefaultRepository
+                ? ((DefaultRepository<?>) repository).getMapping()
+                : null;
+        if (mapping == null) {
+            return KeysetCursor.createQuery(query, cursor, DEFAULT_ID_PROPERTY);
+        }
+        List<Sort> sorts = new ArrayList<>();
+        List<String> properties = new ArrayList<>();
+        if (query.getSorts() != null) {
+            for (Sort sort : query.getSorts()) {
+                String property = getSortProperty(mapping, sort.getName());
+                if (properties.contains(property)) {
+                    continue;
+                }
+                Sort copy = new Sort();
+                copy.setName(property);
+                copy.setOrder(sort.getOrder());
+                sorts.add(copy);
+                properties.add(property);
+            }
+        }
+        //主键追加到排序的最后,保证排序唯一
+        String idProperty = null;
+        for (RDBColumnMetadata column : mapping.getTable().getColumns()) {
+            if (!column.isPrimaryKey()) {
+                continue;
+            }
+            String property = getProperty(mapping, column);
+            if (idProperty == null) {
+                idProperty = property;
+            }
+            if (!properties.contains(property)) {
+                Sort sort = new Sort();
+                sort.setName(property);
+                sorts.add(sort);
+                properties.add(property);
+            }
+        }
+        QueryParamEntity param = query.clone();
+        param.setSorts(sorts);
+        return KeysetCursor.createQuery(param, cursor, idProperty == null ? DEFAULT_ID_PROPERTY : idProperty);
+    }
+
+    private static String getSortProperty(EntityColumnMapping mapping, String name) {
+        RDBColumnMetadata column = mapping
+                .getColumnByProperty(name)
+                .orElseGet(() -> mapping.getColumnByName(name).orElse(null));
+        if (column == null) {
+            throw new ValidationException("sorts", "error.illegal_keyset_sort", name);
+        }
+        if (!column.isPrimaryKey() && !column.isNotNull()) {
+            throw new ValidationException("sorts", "error.nullable_keyset_sort", name);
+        }
+        return getProperty(mapping, column);
+    }
+
+    private static String getProperty(EntityColumnMapping mapping, RDBColumnMetadata column) {
+        return mapping
+                .getPropertyByColumnName(column.getName())
+                .orElse(column.getAlias());
+    }
+}
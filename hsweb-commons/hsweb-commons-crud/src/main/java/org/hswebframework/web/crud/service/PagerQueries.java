@@ -0,0 +1,129 @@
+package org.hswebframework.web.crud.service;
+
+import org.hswebframework.web.api.crud.entity.PagerResult;
+import org.hswebframework.web.api.crud.entity.QueryParamEntity;
+import org.hswebframework.web.crud.query.QueryResultCache;
+import org.hswebframework.web.crud.query.QueryTotals;
+import org.hswebframework.web.crud.sql.QueryTimeout;
+import org.hswebframework.web.crud.sql.statistics.SqlStatistics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 分页查询使用的查询方法.
+ * <p>
+ * 分页查询直接使用仓库执行查询和count,与{@link ReactiveCrudService#queryPager(QueryParamEntity, Function)}原有的行为保持一致,
+ * 不会经过可被重写的{@link ReactiveCrudService#query(QueryParamEntity)}和{@link ReactiveCrudService#count(QueryParamEntity)}.
+ * 服务实现了{@link EnableQueryCacheReactiveCrudService}时,查询和count将使用{@link QueryResultCache}缓存.
+ *
+ * @since 4.0.15
+ */
+final class PagerQueries {
+
+    //未查询总数时分页结果中的总数
+    static final int UNKNOWN_TOTAL = -1;
+
+    private PagerQueries() {
+    }
+
+    static <E> Flux<E> fetch(ReactiveCrudService<E, ?> service, QueryParamEntity param) {
+        if (service instanceof EnableQueryCacheReactiveCrudService) {
+            return QueryResultCache
+                    .query(QueryTotals.resolveEntityType(service, ReactiveCrudService.class),
+                           param,
+                           () -> fetch0(service, param));
+        }
+        return fetch0(service, param);
+    }
+
+    static Mono<Integer> count(ReactiveCrudService<?, ?> service, QueryParamEntity param) {
+        if (service instanceof EnableQueryCacheReactiveCrudService) {
+            return QueryResultCache
+                    .count(QueryTotals.resolveEntityType(service, ReactiveCrudService.class),
+                           param,
+                           () -> count0(service, param));
+        }
+        return count0(service, param);
+    }
+
+    private static <E> Flux<E> fetch0(ReactiveCrudService<E, ?> service, QueryParamEntity param) {
+        return service
+                .getRepository()
+                .createQuery()
+                .setParam(param)
+                .fetch()
+                .as(flux -> SqlStatistics.withSource(flux, service, "query"))
+                .as(flux -> QueryTimeout.with(flux, QueryTimeout.of(param)));
+    }
+
+    private static Mono<Integer> count0(ReactiveCrudService<?, ?> service, QueryParamEntity param) {
+        return service
+                .getRepository()
+                .createQuery()
+                .setParam(param)
+                .count()
+                .as(mono -> SqlStatistics.withSource(mono, service, "count"))
+                .as(mono -> QueryTimeout.with(mono, QueryTimeout.of(param)));
+    }
+
+    /**
+     * 不查询总数的分页查询,只执行一次查询,多查询一条数据来判断是否有下一页.
+     * <p>
+     * 分页参数只支持页码和每页数量,无法直接指定偏移量,因此会查询一个包含当前页数据和下一页第一条数据的最小分页,
+     * 再截取出需要的数据.第一页时只会多查询一条数据.未查询总数,分页结果的总数为{@link #UNKNOWN_TOTAL}.
+     */
+    static <E, T> Mono<PagerResult<T>> queryHasNext(ReactiveCrudService<E, ?> service,
+                                                    QueryParamEntity query,
+                                                    Function<E, T> mapper) {
+        if (!query.isPaging()) {
+            return fetch(service, query.clone())
+                    .map(mapper)
+                    .collectList()
+                    .map(list -> {
+                        PagerResult<T> result = PagerResult.of(list.size(), list, query);
+                        result.setHasNext(false);
+                        return result;
+                    });
+        }
+        int pageSize = query.getPageSize();
+        int offset = query.getPageIndex() * pageSize;
+        int windowSize = windowSize(offset, pageSize);
+        int skip = offset % windowSize;
+
+        QueryParamEntity window = query.clone();
+        window.setPageSize(windowSize);
+        window.setPageIndex(offset / windowSize);
+        return fetch(service, window)
+                .skip(skip)
+                .take(pageSize + 1)
+                .collectList()
+                .map(list -> {
+                    boolean hasNext = list.size() > pageSize;
+                    List<E> data = hasNext ? list.subList(0, pageSize) : list;
+                    PagerResult<T> result = PagerResult.of(UNKNOWN_TOTAL, convert(data, mapper), query);
+                    result.setHasNext(hasNext);
+                    return result;
+                });
+    }
+
+    //最小的分页大小,使偏移量为offset的pageSize+1条数据在同一页中
+    static int windowSize(int offset, int pageSize) {
+        int size = pageSize + 1;
+        while (offset % size + pageSize + 1 > size) {
+            size++;
+        }
+        return size;
+    }
+
+    private static <E, T> List<T> convert(List<E> list, Function<E, T> mapper) {
+        List<T> result = new ArrayList<>(list.size());
+        for (E e : list) {
+            result.add(mapper.apply(e));
+        }
+        return result;
+    }
+}
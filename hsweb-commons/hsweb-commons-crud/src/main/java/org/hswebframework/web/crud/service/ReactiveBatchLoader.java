@@ -0,0 +1,177 @@
+package org.hswebframework.web.crud.service;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 批量加载器,将一个时间窗口内对单个key的加载合并为一次批量加载,类似DataLoader.
+ * <pre>{@code
+ * ReactiveBatchLoader<String, MyEntity> loader = service
+ *      .createBatchLoader(MyEntity::getId, Duration.ofMillis(5), 200);
+ *
+ * Mono<MyEntity> entity = loader.load(id);
+ * }</pre>
+ * <p>
+ * 同一批次中相同的key只会加载一次,并共享加载结果.批量加载在调度器中执行,
+ * 因此不会传递调用方的事务和上下文信息.
+ *
+ * @param <K> key类型
+ * @param <V> 值类型
+ * @since 4.0.15
+ */
+@Slf4j
+public class ReactiveBatchLoader<K, V> {
+
+    private final Function<Collection<K>, Flux<V>> loader;
+
+    private final Function<V, K> keyMapper;
+
+    private final Duration window;
+
+    private final int maxBatchSize;
+
+    private final Scheduler scheduler;
+
+    //等待加载的key
+    private Map<K, MonoProcessor<V>> pending = new LinkedHashMap<>();
+
+    private Disposable flushTask;
+
+    //执行批量加载的次数
+    private final LongAdder batchCount = new LongAdder();
+
+    //加载的key数量
+    private final LongAdder keyCount = new LongAdder();
+
+    /**
+     * 批量加载器
+     *
+     * @param loader       批量加载逻辑
+     * @param keyMapper    从加载结果中获取key
+     * @param window       合并加载的时间窗口
+     * @param maxBatchSize 批量加载的最大key数量,达到此数量时立即加载
+     */
+    public ReactiveBatchLoader(Function<Collection<K>, Flux<V>> loader,
+                               Function<V, K> keyMapper,
+                               Duration window,
+                               int maxBatchSize) {
+        this(loader, keyMapper, window, maxBatchSize, Schedulers.parallel());
+    }
+
+    public ReactiveBatchLoader(Function<Collection<K>, Flux<V>> loader,
+                               Function<V, K> keyMapper,
+                               Duration window,
+                               int maxBatchSize,
+                               Scheduler scheduler) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than 0");
+        }
+        this.loader = loader;
+        this.keyMapper = keyMapper;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getKeyCount() {
+        return keyCount.sum();
+    }
+
+    /**
+     * 加载数据,加载结果中不存在对应的key时返回{@link Mono#empty()}
+     *
+     * @param key key
+     * @return 值
+     */
+    public Mono<V> load(K key) {
+        return Mono.defer(() -> {
+            MonoProcessor<V> processor;
+            Map<K, MonoProcessor<V>> batch = null;
+            synchronized (this) {
+                processor = pending.get(key);
+                if (processor == null) {
+                    processor = MonoProcessor.create();
+                    pending.put(key, processor);
+                    if (pending.size() >= maxBatchSize) {
+                        batch = takePending();
+                    } else if (flushTask == null) {
+                        flushTask = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+            if (batch != null) {
+                execute(batch);
+            }
+            return processor;
+        });
+    }
+
+    private Map<K, MonoProcessor<V>> takePending() {
+        Map<K, MonoProcessor<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        if (flushTask != null) {
+            flushTask.dispose();
+            flushTask = null;
+        }
+        return batch;
+    }
+
+    private void flush() {
+        Map<K, MonoProcessor<V>> batch;
+        synchronized (this) {
+            flushTask = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        execute(batch);
+    }
+
+    private void execute(Map<K, MonoProcessor<V>> batch) {
+        batchCount.increment();
+        keyCount.add(batch.size());
+        Flux<V> result;
+        try {
+            result = loader.apply(new ArrayList<>(batch.keySet()));
+        } catch (Throwable error) {
+            result = Flux.error(error);
+        }
+        result.subscribe(
+                value -> {
+                    MonoProcessor<V> processor = batch.remove(keyMapper.apply(value));
+                    if (processor != null) {
+                        processor.onNext(value);
+                    }
+                },
+                error -> {
+                    log.warn("batch load {} keys error", batch.size(), error);
+                    for (MonoProcessor<V> processor : batch.values()) {
+                        processor.onError(error);
+                    }
+                },
+                () -> {
+                    for (MonoProcessor<V> processor : batch.values()) {
+                        processor.onComplete();
+                    }
+                });
+    }
+}
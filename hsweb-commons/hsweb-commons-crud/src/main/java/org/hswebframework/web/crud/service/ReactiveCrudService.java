@@ -5,16 +5,27 @@ import org.hswebframework.ezorm.rdb.mapping.ReactiveQuery;
 import org.hswebframework.ezorm.rdb.mapping.ReactiveRepository;
 import org.hswebframework.ezorm.rdb.mapping.ReactiveUpdate;
 import org.hswebframework.ezorm.rdb.mapping.defaults.SaveResult;
+import org.hswebframework.web.api.crud.entity.KeysetCursor;
+import org.hswebframework.web.api.crud.entity.KeysetPagerResult;
 import org.hswebframework.web.api.crud.entity.PagerResult;
+import org.hswebframework.web.api.crud.entity.PagingMode;
 import org.hswebframework.web.api.crud.entity.QueryParamEntity;
 import org.hswebframework.web.api.crud.entity.TransactionManagers;
+import org.hswebframework.web.crud.query.QueryTotals;
+import org.hswebframework.web.crud.sql.QueryTimeout;
+import org.hswebframework.web.crud.sql.statistics.SqlStatistics;
 import org.reactivestreams.Publisher;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -100,6 +111,22 @@ public interface ReactiveCrudService<E, K> {
                 .findById(publisher);
     }
 
+    /**
+     * 创建根据ID批量查询的加载器,在时间窗口内将多次根据ID查询合并为一次{@link #findById(Collection)}查询.
+     * <p>
+     * 每次调用都将创建新的加载器,应该将加载器作为成员变量复用.
+     *
+     * @param idMapper     获取实体ID
+     * @param window       合并查询的时间窗口
+     * @param maxBatchSize 单次查询的最大ID数量
+     * @return 批量加载器
+     * @see ReactiveBatchLoader
+     * @since 4.0.15
+     */
+    default ReactiveBatchLoader<K, E> createBatchLoader(Function<E, K> idMapper, Duration window, int maxBatchSize) {
+        return new ReactiveBatchLoader<>(this::findById, idMapper, window, maxBatchSize);
+    }
+
     @Transactional(readOnly = true, transactionManager = TransactionManagers.reactiveTransactionManager)
     default Mono<E> findById(Mono<K> publisher) {
         return getRepository()
@@ -112,6 +139,107 @@ public interface ReactiveCrudService<E, K> {
                 .findById(publisher);
     }
 
+    /**
+     * 分批保存数据,将数据按chunkSize分批,并发执行保存,用于导入大量数据.
+     * <p>
+     * 最多同时缓存chunkSize*concurrency条数据,数据库方言支持时使用原生upsert语句(如: ON CONFLICT,ON DUPLICATE KEY UPDATE).
+     * 此方法不会为每一批数据开启事务,如果已经在事务中,所有批次将加入当前事务,
+     * 需要每一批数据在独立的事务中保存时使用{@link #saveInChunks(Publisher, int, int, TransactionalOperator)}.
+     *
+     * @param entityPublisher 数据流
+     * @param chunkSize       每批数据量
+     * @param concurrency     并发数
+     * @return 每一批数据的保存结果
+     * @since 4.0.15
+     */
+    default Flux<ChunkSaveResult> saveInChunks(Publisher<E> entityPublisher, int chunkSize, int concurrency) {
+        return saveInChunks(entityPublisher, chunkSize, concurrency, null);
+    }
+
+    /**
+     * 分批保存数据,每一批数据使用transactionalOperator在独立的事务中保存.
+     * 任意一批保存失败时将终止后续保存,失败的批次回滚,已经保存成功的批次不会回滚.
+     *
+     * @param entityPublisher       数据流
+     * @param chunkSize             每批数据量
+     * @param concurrency           并发数
+     * @param transactionalOperator 事务,为null时不开启事务
+     * @return 每一批数据的保存结果
+     * @see #saveInChunks(Publisher, int, int)
+     * @since 4.0.15
+     */
+    default Flux<ChunkSaveResult> saveInChunks(Publisher<E> entityPublisher,
+                                               int chunkSize,
+                                               int concurrency,
+                                               TransactionalOperator transactionalOperator) {
+        return Flux
+                .from(entityPublisher)
+                .buffer(chunkSize)
+                .index()
+                .flatMap(chunk -> {
+                    long startTime = System.currentTimeMillis();
+                    Mono<SaveResult> save = this.save(Flux.fromIterable(chunk.getT2()));
+                    if (transactionalOperator != null) {
+                        save = transactionalOperator.transactional(save);
+                    }
+                    return save
+                            .map(result -> ChunkSaveResult.of(chunk.getT1(),
+                                                              chunk.getT2().size(),
+                                                              result.getAdded(),
+                                                              result.getUpdated(),
+                                                              System.currentTimeMillis() - startTime));
+                }, concurrency);
+    }
+
+    /**
+     * 分批新增数据,将数据按chunkSize分批,并发执行批量新增.
+     * 此方法不会为每一批数据开启事务,需要独立的事务时使用{@link #insertInChunks(Publisher, int, int, TransactionalOperator)}.
+     *
+     * @param entityPublisher 数据流
+     * @param chunkSize       每批数据量
+     * @param concurrency     并发数
+     * @return 每一批数据的新增结果
+     * @see #saveInChunks(Publisher, int, int)
+     * @since 4.0.15
+     */
+    default Flux<ChunkSaveResult> insertInChunks(Publisher<E> entityPublisher, int chunkSize, int concurrency) {
+        return insertInChunks(entityPublisher, chunkSize, concurrency, null);
+    }
+
+    /**
+     * 分批新增数据,每一批数据使用transactionalOperator在独立的事务中新增.
+     *
+     * @param entityPublisher       数据流
+     * @param chunkSize             每批数据量
+     * @param concurrency           并发数
+     * @param transactionalOperator 事务,为null时不开启事务
+     * @return 每一批数据的新增结果
+     * @see #saveInChunks(Publisher, int, int, TransactionalOperator)
+     * @since 4.0.15
+     */
+    default Flux<ChunkSaveResult> insertInChunks(Publisher<E> entityPublisher,
+                                                 int chunkSize,
+                                                 int concurrency,
+                                                 TransactionalOperator transactionalOperator) {
+        return Flux
+                .from(entityPublisher)
+                .buffer(chunkSize)
+                .index()
+                .flatMap(chunk -> {
+                    long startTime = System.currentTimeMillis();
+                    Mono<Integer> insert = this.insertBatch(Mono.just(chunk.getT2()));
+                    if (transactionalOperator != null) {
+                        insert = transactionalOperator.transactional(insert);
+                    }
+                    return insert
+                            .map(added -> ChunkSaveResult.of(chunk.getT1(),
+                                                             chunk.getT2().size(),
+                                                             added,
+                                                             0,
+                                                             System.currentTimeMillis() - startTime));
+                }, concurrency);
+    }
+
     @Transactional(transactionManager = TransactionManagers.reactiveTransactionManager)
     default Mono<SaveResult> save(Publisher<E> entityPublisher) {
         return getRepository()
@@ -184,7 +312,9 @@ public interface ReactiveCrudService<E, K> {
         return getRepository()
                 .createQuery()
                 .setParam(param)
-                .fetch();
+                .fetch()
+                .as(flux -> SqlStatistics.withSource(flux, this, "query"))
+                .as(flux -> QueryTimeout.with(flux, QueryTimeout.of(param)));
     }
 
     @Transactional(readOnly = true, transactionManager = TransactionManagers.reactiveTransactionManager)
@@ -197,27 +327,51 @@ public interface ReactiveCrudService<E, K> {
         //如果查询参数指定了总数,表示不需要再进行count操作.
         //建议前端在使用分页查询时,切换下一页时,将第一次查询到total结果传入查询参数,可以提升查询性能.
         if (query.getTotal() != null) {
-            return getRepository()
-                    .createQuery()
-                    .setParam(query.rePaging(query.getTotal()))
-                    .fetch()
+            return PagerQueries
+                    .fetch(this, query.rePaging(query.getTotal()))
                     .map(mapper)
                     .collectList()
                     .map(list -> PagerResult.of(query.getTotal(), list, query));
         }
+        PagingMode pagingMode = query.getPagingMode();
+        //不查询总数,只判断是否有下一页
+        if (pagingMode == PagingMode.hasNext) {
+            return PagerQueries.queryHasNext(this, query, mapper);
+        }
+        if (pagingMode == PagingMode.cachedTotal || pagingMode == PagingMode.estimatedTotal) {
+            Class<?> entityType = QueryTotals.resolveEntityType(this, ReactiveCrudService.class);
+            Mono<Integer> cachedTotal = QueryTotals
+                    .cached(entityType, query, () -> PagerQueries.count(this, query.clone()));
+            Mono<Tuple2<Integer, Boolean>> total = pagingMode == PagingMode.estimatedTotal
+                    ? QueryTotals
+                    .estimate(entityType, query)
+                    .map(estimated -> Tuples.of(estimated, true))
+                    .switchIfEmpty(cachedTotal.map(count -> Tuples.of(count, false)))
+                    : cachedTotal.map(count -> Tuples.of(count, false));
+            return total
+                    .flatMap(tp2 -> {
+                        int count = tp2.getT1();
+                        Mono<List<T>> data = count == 0
+                                ? Mono.just(new ArrayList<>())
+                                : PagerQueries.fetch(this, query.clone().rePaging(count)).map(mapper).collectList();
+                        return data.map(list -> {
+                            PagerResult<T> result = PagerResult.of(count, list, query);
+                            result.setEstimated(tp2.getT2());
+                            return result;
+                        });
+                    });
+        }
         //并行分页,更快,所在页码无数据时,会返回空list.
         if (query.isParallelPager()) {
             return Mono
                     .zip(
-                            createQuery().setParam(query.clone()).count(),
-                            createQuery().setParam(query.clone()).fetch().map(mapper).collectList(),
+                            PagerQueries.count(this, query.clone()),
+                            PagerQueries.fetch(this, query.clone()).map(mapper).collectList(),
                             (total, data) -> PagerResult.of(total, data, query)
                     );
         }
-        return getRepository()
-                .createQuery()
-                .setParam(query.clone())
-                .count()
+        return PagerQueries
+                .count(this, query.clone())
                 .flatMap(total -> {
                     if (total == 0) {
                         return Mono.just(PagerResult.of(0, new ArrayList<>(), query));
@@ -242,12 +396,34 @@ public interface ReactiveCrudService<E, K> {
         return queryPager(queryParamMono, Function.identity());
     }
 
+    /**
+     * 游标(keyset)分页查询,使用上一页返回的{@link KeysetPagerResult#getNext()}作为游标查询下一页,
+     * 查询耗时不受页码深度影响.排序字段末尾将自动追加表结构中的主键,排序字段不能为可能为空的列.
+     *
+     * @param query  查询条件,分页只使用pageSize
+     * @param cursor 游标,为null时查询第一页
+     * @return 分页结果
+     * @see KeysetCursor
+     * @since 4.0.15
+     */
+    @Transactional(readOnly = true, transactionManager = TransactionManagers.reactiveTransactionManager)
+    default Mono<KeysetPagerResult<E>> queryKeyset(QueryParamEntity query, String cursor) {
+        return Mono.defer(() -> {
+            QueryParamEntity param = KeysetColumns.createQuery(getRepository(), query, cursor);
+            return query(param)
+                    .collectList()
+                    .map(list -> KeysetCursor.createResult(param, query.getPageSize(), list));
+        });
+    }
+
     @Transactional(readOnly = true, transactionManager = TransactionManagers.reactiveTransactionManager)
     default Mono<Integer> count(QueryParamEntity queryParam) {
         return getRepository()
                 .createQuery()
                 .setParam(queryParam)
-                .count();
+                .count()
+                .as(mono -> SqlStatistics.withSource(mono, this, "count"))
+                .as(mono -> QueryTimeout.with(mono, QueryTimeout.of(queryParam)));
     }
 
     @Transactional(readOnly = true, transactionManager = TransactionManagers.reactiveTransactionManager)
@@ -0,0 +1,77 @@
+package org.hswebframework.web.crud.sql;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 批量SQL请求,同一条SQL绑定多组参数,执行时通过一个预编译的Statement批量提交.
+ * <pre>{@code
+ * BatchSqlRequest request = BatchSqlRequest
+ *      .of("update s_user set status = ? where id = ?")
+ *      .addParameters(1, "id1")
+ *      .addParameters(0, "id2");
+ *
+ * executor.updateBatch(request);
+ * }</pre>
+ *
+ * @see DefaultR2dbcExecutor#updateBatch(BatchSqlRequest)
+ * @since 4.0.15
+ */
+@Getter
+public class BatchSqlRequest {
+
+    //使用?作为参数占位符的SQL
+    private final String sql;
+
+    private final List<Object[]> parameters = new ArrayList<>();
+
+    private BatchSqlRequest(String sql) {
+        this.sql = sql;
+    }
+
+    public static BatchSqlRequest of(String sql) {
+        return new BatchSqlRequest(sql);
+    }
+
+    public static BatchSqlRequest of(String sql, List<Object[]> parameters) {
+        BatchSqlRequest request = new BatchSqlRequest(sql);
+        request.parameters.addAll(parameters);
+        return request;
+    }
+
+    public BatchSqlRequest addParameters(Object... parameters) {
+        this.parameters.add(parameters);
+        return this;
+    }
+
+    public List<Object[]> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
+    public boolean isEmpty() {
+        return parameters.isEmpty();
+    }
+
+    /**
+     * 按指定数量拆分为多组参数
+     *
+     * @param batchSize 每组数量
+     * @return 拆分后的参数
+     */
+    public List<List<Object[]>> partition(int batchSize) {
+        int size = Math.max(1, batchSize);
+        List<List<Object[]>> partitions = new ArrayList<>(parameters.size() / size + 1);
+        for (int i = 0; i < parameters.size(); i += size) {
+            partitions.add(parameters.subList(i, Math.min(parameters.size(), i + size)));
+        }
+        return partitions;
+    }
+
+    @Override
+    public String toString() {
+        return sql + " (" + parameters.size() + " parameter sets)";
+    }
+}
@@ -0,0 +1,178 @@
+package org.hswebframework.web.crud.sql;
+
+import lombok.Getter;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 执行阻塞JDBC操作的有界调度器,线程数量应与连接池大小一致.
+ * <p>
+ * 等待执行的任务数量超过{@code queueSize}时立即拒绝,订阅者将收到{@link RejectedExecutionException},
+ * 避免请求在数据库繁忙时无限堆积.
+ *
+ * @see DefaultJdbcReactiveExecutor#setScheduler(BoundedJdbcScheduler)
+ * @since 4.0.15
+ */
+public class BoundedJdbcScheduler implements Disposable {
+
+    @Getter
+    private final String name;
+
+    private final Executor executor;
+
+    @Getter
+    private final Scheduler scheduler;
+
+    /**
+     * @param name      名称
+     * @param poolSize  线程数量
+     * @param queueSize 最大等待任务数量
+     */
+    public BoundedJdbcScheduler(String name, int poolSize, int queueSize) {
+        if (poolSize <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("illegal poolSize [" + poolSize + "] or queueSize [" + queueSize + "]");
+        }
+        this.name = name;
+        this.executor = new Executor(name, poolSize, queueSize);
+        this.scheduler = Schedulers.fromExecutorService(executor, name);
+    }
+
+    /**
+     * @return 正在执行的任务数量
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * @return 等待执行的任务数量
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return 被拒绝的任务数量
+     */
+    public long getRejectedCount() {
+        return executor.rejected.sum();
+    }
+
+    /**
+     * @return 已开始执行的任务数量
+     */
+    public long getStartedCount() {
+        return executor.started.sum();
+    }
+
+    /**
+     * @return 任务的平均等待时间(毫秒)
+     */
+    public double getAverageWaitMillis() {
+        long started = executor.started.sum();
+        return started == 0 ? 0 : executor.waitNanos.sum() / 1000_000D / started;
+    }
+
+    /**
+     * @return 任务的最大等待时间(毫秒)
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(executor.maxWaitNanos.get());
+    }
+
+    @Override
+    public void dispose() {
+        scheduler.dispose();
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public String toString() {
+        return name + "(active=" + getActiveCount() + ", queued=" + getQueuedCount() + ", rejected=" + getRejectedCount() + ")";
+    }
+
+    static class Executor extends ThreadPoolExecutor {
+
+        private final LongAdder started = new LongAdder();
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final LongAdder waitNanos = new LongAdder();
+
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        Executor(String name, int poolSize, int queueSize) {
+            super(poolSize, poolSize,
+                  60, TimeUnit.SECONDS,
+                  new ArrayBlockingQueue<>(queueSize),
+                  new NamedThreadFactory(name));
+            setRejectedExecutionHandler((task, executor) -> {
+                rejected.increment();
+                throw new RejectedExecutionException("jdbc scheduler [" + name + "] queue is full");
+            });
+            allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+            return new TimedTask<>(Executors.callable(runnable, value));
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+            return new TimedTask<>(callable);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            super.execute(command instanceof TimedTask ? command : new TimedTask<>(Executors.callable(command)));
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            super.beforeExecute(t, r);
+            if (r instanceof TimedTask) {
+                long wait = System.nanoTime() - ((TimedTask<?>) r).createTime;
+                started.increment();
+                waitNanos.add(wait);
+                maxWaitNanos.accumulateAndGet(wait, Math::max);
+            }
+        }
+    }
+
+    static class TimedTask<T> extends FutureTask<T> {
+        private final long createTime = System.nanoTime();
+
+        TimedTask(Callable<T> callable) {
+            super(callable);
+        }
+    }
+
+    static class NamedThreadFactory implements ThreadFactory {
+        private final String name;
+
+        private final AtomicInteger index = new AtomicInteger();
+
+        NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
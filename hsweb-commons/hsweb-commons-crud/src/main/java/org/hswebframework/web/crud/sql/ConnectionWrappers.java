@@ -0,0 +1,149 @@
+package org.hswebframework.web.crud.sql;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Statement;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 包装数据库连接,对连接创建的语句进行设置:
+ * <ul>
+ *     <li>fetchSize: 让驱动分批从数据库中拉取数据,结合下游的请求数量(request(n))控制内存中的数据量</li>
+ *     <li>queryTimeout: JDBC语句的执行超时时间</li>
+ *     <li>{@link RunningStatements}: 记录执行中的JDBC语句,取消订阅时取消正在执行的语句</li>
+ * </ul>
+ * 通过动态代理实现,只拦截创建语句的方法,不影响连接的其他行为.
+ *
+ * @since 4.0.15
+ */
+class ConnectionWrappers {
+
+    private ConnectionWrappers() {
+    }
+
+    /**
+     * 包装R2DBC连接,对查询语句设置{@link Statement#fetchSize(int)}
+     *
+     * @param connection 连接
+     * @param fetchSize  fetchSize,小于等于0时不包装
+     * @return 包装后的连接
+     */
+    static Connection r2dbc(Connection connection, int fetchSize) {
+        if (fetchSize <= 0) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement
+                            && "createStatement".equals(method.getName())
+                            && isQuery((String) args[0])) {
+                        return ((Statement) result).fetchSize(fetchSize);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * 包装JDBC连接,对查询语句设置{@link PreparedStatement#setFetchSize(int)},
+     * 对所有语句设置{@link java.sql.Statement#setQueryTimeout(int)}.
+     *
+     * @param connection   连接
+     * @param fetchSize    fetchSize,小于等于0时不设置
+     * @param timeoutSecond 超时时间(秒),小于等于0时不设置
+     * @param running      记录执行中的语句,为null时不记录
+     * @return 包装后的连接
+     */
+    static java.sql.Connection jdbc(java.sql.Connection connection,
+                                    int fetchSize,
+                                    int timeoutSecond,
+                                    RunningStatements running) {
+        if (fetchSize <= 0 && timeoutSecond <= 0 && running == null) {
+            return connection;
+        }
+        return (java.sql.Connection) Proxy.newProxyInstance(
+                java.sql.Connection.class.getClassLoader(),
+                new Class[]{java.sql.Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof java.sql.Statement
+                            && (method.getName().startsWith("prepare") || "createStatement".equals(method.getName()))) {
+                        java.sql.Statement statement = ((java.sql.Statement) result);
+                        if (fetchSize > 0
+                                && statement instanceof PreparedStatement
+                                && isQuery((String) args[0])) {
+                            statement.setFetchSize(fetchSize);
+                        }
+                        if (timeoutSecond > 0) {
+                            statement.setQueryTimeout(timeoutSecond);
+                        }
+                        if (running != null) {
+                            running.add(statement);
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    static boolean isQuery(String sql) {
+        if (sql == null) {
+            return false;
+        }
+        String trimmed = sql.trim();
+        return trimmed.regionMatches(true, 0, "select", 0, 6)
+                || trimmed.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 一次订阅中创建的JDBC语句,取消订阅时通过{@link java.sql.Statement#cancel()}取消正在执行的语句
+     */
+    @Slf4j
+    static class RunningStatements {
+        private final List<java.sql.Statement> statements = new ArrayList<>();
+
+        private boolean cancelled;
+
+        synchronized void add(java.sql.Statement statement) throws SQLException {
+            if (cancelled) {
+                statement.cancel();
+                return;
+            }
+            statements.add(statement);
+        }
+
+        void cancel() {
+            List<java.sql.Statement> statements;
+            synchronized (this) {
+                cancelled = true;
+                statements = new ArrayList<>(this.statements);
+                this.statements.clear();
+            }
+            for (java.sql.Statement statement : statements) {
+                try {
+                    if (!statement.isClosed()) {
+                        statement.cancel();
+                    }
+                } catch (Throwable error) {
+                    log.debug("cancel statement error", error);
+                }
+            }
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package org.hswebframework.web.crud.sql;
 
+import lombok.AllArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.hswebframework.ezorm.rdb.executor.SqlRequest;
 import org.hswebframework.ezorm.rdb.executor.jdbc.JdbcReactiveSqlExecutor;
 import org.hswebframework.ezorm.rdb.executor.wrapper.ResultWrapper;
 import org.hswebframework.web.api.crud.entity.TransactionManagers;
+import org.hswebframework.web.crud.sql.statistics.SqlStatistics;
 import org.hswebframework.web.datasource.DataSourceHolder;
 import org.reactivestreams.Publisher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
@@ -17,24 +21,46 @@ import reactor.util.function.Tuples;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.time.Duration;
 
 @Slf4j
 public class DefaultJdbcReactiveExecutor extends JdbcReactiveSqlExecutor {
     @Autowired
     private DataSource dataSource;
 
+    //查询时每次从数据库拉取的行数,小于等于0时使用驱动的默认值
+    @Setter
+    private int fetchSize = 0;
+
+    //执行阻塞JDBC操作的调度器,为null时在订阅者线程中执行
+    @Setter
+    private BoundedJdbcScheduler scheduler;
+
+    //默认的查询超时时间,为null时不超时
+    @Setter
+    private Duration queryTimeout;
+
+    //SQL统计,为null时不统计
+    @Setter
+    private SqlStatistics statistics;
+
     protected String getDatasourceId() {
         return DataSourceHolder.switcher().datasource().current().orElse("default");
     }
 
-    private Tuple2<DataSource, Connection> getDataSourceAndConnection() {
+    private CurrentDataSource getCurrentDataSource() {
         DataSource dataSource = DataSourceHolder.isDynamicDataSourceReady() ?
                 DataSourceHolder.currentDataSource().getNative() :
                 this.dataSource;
+        return new CurrentDataSource(getDatasourceId(), dataSource);
+    }
+
+    private Tuple2<DataSource, Connection> getDataSourceAndConnection(CurrentDataSource current) {
+        DataSource dataSource = current.dataSource;
         Connection connection = DataSourceUtils.getConnection(dataSource);
         boolean isConnectionTransactional = DataSourceUtils.isConnectionTransactional(connection, dataSource);
         if (log.isDebugEnabled()) {
-            log.debug("DataSource ({}) JDBC Connection [{}] will {}be managed by Spring", getDatasourceId(), connection, (isConnectionTransactional ? "" : "not "));
+            log.debug("DataSource ({}) JDBC Connection [{}] will {}be managed by Spring", current.id, connection, (isConnectionTransactional ? "" : "not "));
         }
         return Tuples.of(dataSource, connection);
     }
@@ -42,13 +68,93 @@ public class DefaultJdbcReactiveExecutor extends JdbcReactiveSqlExecutor {
     @Override
     public Mono<Connection> getConnection() {
         return Mono
-                .using(
-                        this::getDataSourceAndConnection
-                        ,
-                        tp2 -> Mono.just(tp2.getT2()),
-                        tp2 -> DataSourceUtils.releaseConnection(tp2.getT2(), tp2.getT1()),
-                        false
-                );
+                .subscriberContext()
+                .flatMap(ctx -> Mono
+                        .using(
+                                //在调度器中执行时,使用切换线程前获取的数据源
+                                () -> getDataSourceAndConnection(
+                                        ctx.<CurrentDataSource>getOrEmpty(CurrentDataSource.class)
+                                           .orElseGet(this::getCurrentDataSource))
+                                ,
+                                tp2 -> Mono.just(ConnectionWrappers.jdbc(
+                                        tp2.getT2(),
+                                        fetchSize,
+                                        QueryTimeout.resolveSeconds(ctx, queryTimeout),
+                                        ctx.<ConnectionWrappers.RunningStatements>getOrEmpty(ConnectionWrappers.RunningStatements.class)
+                                           .orElse(null))),
+                                tp2 -> DataSourceUtils.releaseConnection(tp2.getT2(), tp2.getT1()),
+                                false
+                        ));
+    }
+
+    /**
+     * 在{@link #setScheduler(BoundedJdbcScheduler)}中获取连接,执行SQL以及读取结果.
+     * <p>
+     * 当前线程已绑定了Spring JDBC事务时,连接与线程绑定,此时不切换线程,直接在当前线程中执行.
+     * 动态数据源通过线程变量切换,因此在切换线程前获取当前使用的数据源.
+     */
+    protected <T> Flux<T> offload(Flux<T> source) {
+        if (scheduler == null) {
+            return source;
+        }
+        return Flux.defer(() -> {
+            if (isThreadBoundTransaction()) {
+                return source;
+            }
+            CurrentDataSource current = getCurrentDataSource();
+            return source
+                    .subscribeOn(scheduler.getScheduler())
+                    .subscriberContext(ctx -> ctx.put(CurrentDataSource.class, current));
+        });
+    }
+
+    protected <T> Mono<T> offload(Mono<T> source) {
+        if (scheduler == null) {
+            return source;
+        }
+        return Mono.defer(() -> {
+            if (isThreadBoundTransaction()) {
+                return source;
+            }
+            CurrentDataSource current = getCurrentDataSource();
+            return source
+                    .subscribeOn(scheduler.getScheduler())
+                    .subscriberContext(ctx -> ctx.put(CurrentDataSource.class, current));
+        });
+    }
+
+    private boolean isThreadBoundTransaction() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * 取消订阅(包括查询超时)时,通过{@link java.sql.Statement#cancel()}取消正在执行的语句
+     */
+    protected <T> Flux<T> cancelable(Flux<T> source) {
+        return Flux.defer(() -> {
+            ConnectionWrappers.RunningStatements running = new ConnectionWrappers.RunningStatements();
+            return source
+                    .doOnCancel(running::cancel)
+                    .subscriberContext(ctx -> ctx.put(ConnectionWrappers.RunningStatements.class, running));
+        });
+    }
+
+    protected <T> Mono<T> cancelable(Mono<T> source) {
+        return Mono.defer(() -> {
+            ConnectionWrappers.RunningStatements running = new ConnectionWrappers.RunningStatements();
+            return source
+                    .doOnCancel(running::cancel)
+                    .subscriberContext(ctx -> ctx.put(ConnectionWrappers.RunningStatements.class, running));
+        });
+    }
+
+    @Override
+    public <E> Flux<E> select(Publisher<SqlRequest> request, ResultWrapper<E, ?> wrapper) {
+        Flux<E> result = statistics == null
+                ? super.select(request, wrapper)
+                : statistics.select(request, req -> super.select(req, wrapper));
+        return QueryTimeout.timeout(offload(cancelable(result)), queryTimeout);
     }
 
     @Override
@@ -60,7 +166,10 @@ public class DefaultJdbcReactiveExecutor extends JdbcReactiveSqlExecutor {
     @Override
     @Transactional(transactionManager = TransactionManagers.reactiveTransactionManager,rollbackFor = Throwable.class)
     public Mono<Integer> update(Publisher<SqlRequest> request) {
-        return super.update(request);
+        Mono<Integer> result = statistics == null
+                ? super.update(request)
+                : statistics.update(request, super::update);
+        return QueryTimeout.timeout(offload(cancelable(result)), queryTimeout);
     }
 
     @Override
@@ -78,7 +187,7 @@ public class DefaultJdbcReactiveExecutor extends JdbcReactiveSqlExecutor {
     @Override
     @Transactional(transactionManager = TransactionManagers.reactiveTransactionManager,rollbackFor = Throwable.class)
     public Mono<Void> execute(Publisher<SqlRequest> request) {
-        return super.execute(request);
+        return offload(super.execute(request));
     }
 
     @Override
@@ -86,4 +195,10 @@ public class DefaultJdbcReactiveExecutor extends JdbcReactiveSqlExecutor {
     public Mono<Void> execute(SqlRequest request) {
         return super.execute(request);
     }
+
+    @AllArgsConstructor
+    private static class CurrentDataSource {
+        private final String id;
+        private final DataSource dataSource;
+    }
 }
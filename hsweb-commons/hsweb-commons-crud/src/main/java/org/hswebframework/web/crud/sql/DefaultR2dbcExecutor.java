@@ -2,12 +2,16 @@ package org.hswebframework.web.crud.sql;
 
 import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
 import io.r2dbc.spi.Statement;
 import lombok.Setter;
+import org.hswebframework.ezorm.rdb.executor.NullValue;
 import org.hswebframework.ezorm.rdb.executor.SqlRequest;
+import org.hswebframework.ezorm.rdb.executor.SqlRequests;
 import org.hswebframework.ezorm.rdb.executor.reactive.r2dbc.R2dbcReactiveSqlExecutor;
 import org.hswebframework.ezorm.rdb.executor.wrapper.ResultWrapper;
 import org.hswebframework.web.api.crud.entity.TransactionManagers;
+import org.hswebframework.web.crud.sql.statistics.SqlStatistics;
 import org.hswebframework.web.datasource.DataSourceHolder;
 import org.hswebframework.web.datasource.R2dbcDataSource;
 import org.reactivestreams.Publisher;
@@ -19,9 +23,11 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.SignalType;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 public class DefaultR2dbcExecutor extends R2dbcReactiveSqlExecutor {
@@ -35,6 +41,22 @@ public class DefaultR2dbcExecutor extends R2dbcReactiveSqlExecutor {
     @Setter
     private String bindSymbol = "$";
 
+    //批量执行时每个Statement绑定的参数组数量
+    @Setter
+    private int batchSize = 500;
+
+    //查询时每次从数据库拉取的行数,小于等于0时使用驱动的默认值
+    @Setter
+    private int fetchSize = 0;
+
+    //默认的查询超时时间,为null时不超时
+    @Setter
+    private Duration queryTimeout;
+
+    //SQL统计,为null时不统计
+    @Setter
+    private SqlStatistics statistics;
+
     @Override
     public String getBindSymbol() {
         return bindSymbol;
@@ -75,13 +97,18 @@ public class DefaultR2dbcExecutor extends R2dbcReactiveSqlExecutor {
 
     @Override
     protected Mono<Connection> getConnection() {
+        Mono<Connection> connection;
         if (DataSourceHolder.isDynamicDataSourceReady()) {
-            return DataSourceHolder.currentR2dbc()
+            connection = DataSourceHolder.currentR2dbc()
                     .flatMap(R2dbcDataSource::getNative)
                     .flatMap(ConnectionFactoryUtils::getConnection);
         } else {
-            return ConnectionFactoryUtils.getConnection(defaultFactory);
+            connection = ConnectionFactoryUtils.getConnection(defaultFactory);
+        }
+        if (fetchSize > 0) {
+            return connection.map(conn -> ConnectionWrappers.r2dbc(conn, fetchSize));
         }
+        return connection;
     }
 
     @Override
@@ -104,7 +131,10 @@ public class DefaultR2dbcExecutor extends R2dbcReactiveSqlExecutor {
     @Override
     @Transactional(transactionManager = TransactionManagers.reactiveTransactionManager)
     public Mono<Integer> update(Publisher<SqlRequest> request) {
-        return super.update(request);
+        Mono<Integer> result = statistics == null
+                ? super.update(request)
+                : statistics.update(request, super::update);
+        return QueryTimeout.timeout(result, queryTimeout);
     }
 
     @Override
@@ -113,6 +143,53 @@ public class DefaultR2dbcExecutor extends R2dbcReactiveSqlExecutor {
         return super.update(request);
     }
 
+    /**
+     * 批量执行SQL,多组参数通过{@link Statement#add()}绑定到同一个Statement中,
+     * 每{@link #setBatchSize(int)}组参数提交一次,返回所有参数组影响的行数之和.
+     *
+     * @param request 批量SQL请求
+     * @return 影响的行数
+     * @since 4.0.15
+     */
+    @Transactional(transactionManager = TransactionManagers.reactiveTransactionManager)
+    public Mono<Integer> updateBatch(BatchSqlRequest request) {
+        if (request.isEmpty()) {
+            return Mono.just(0);
+        }
+        //参数占位符只与SQL有关,使用第一组参数转换即可
+        String sql = convertRequest(SqlRequests.of(request.getSql(), request.getParameters().get(0))).getSql();
+        return QueryTimeout.timeout(
+                getConnection()
+                        .flatMapMany(connection -> Flux
+                                .fromIterable(request.partition(batchSize))
+                                .concatMap(batch -> executeBatch(connection, sql, batch)))
+                        .reduce(0, Integer::sum),
+                queryTimeout);
+    }
+
+    protected Flux<Integer> executeBatch(Connection connection, String sql, List<Object[]> batch) {
+        Statement statement = connection.createStatement(sql);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            Object[] parameters = batch.get(i);
+            for (int index = 0; index < parameters.length; index++) {
+                Object value = parameters[index];
+                if (value == null) {
+                    bindNull(statement, index, String.class);
+                } else if (value instanceof NullValue) {
+                    bindNull(statement, index, ((NullValue) value).getDataType().getJavaType());
+                } else {
+                    bind(statement, index, value);
+                }
+            }
+        }
+        return Flux
+                .from(statement.execute())
+                .flatMap(Result::getRowsUpdated);
+    }
+
     @Override
     @Transactional(transactionManager = TransactionManagers.reactiveTransactionManager)
     public Mono<Integer> update(String sql, Object... args) {
@@ -122,7 +199,10 @@ public class DefaultR2dbcExecutor extends R2dbcReactiveSqlExecutor {
     @Override
     @Transactional(readOnly = true, transactionManager = TransactionManagers.reactiveTransactionManager)
     public <E> Flux<E> select(Publisher<SqlRequest> request, ResultWrapper<E, ?> wrapper) {
-        return super.select(request, wrapper);
+        Flux<E> result = statistics == null
+                ? super.select(request, wrapper)
+                : statistics.select(request, req -> super.select(req, wrapper));
+        return QueryTimeout.timeout(result, queryTimeout);
     }
 
     @Override
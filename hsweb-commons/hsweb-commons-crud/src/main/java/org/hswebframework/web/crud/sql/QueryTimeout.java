@@ -0,0 +1,123 @@
+package org.hswebframework.web.crud.sql;
+
+import org.hswebframework.web.api.crud.entity.QueryParamEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 查询超时时间,通过Reactor Context传递给SQL执行器.
+ * <pre>{@code
+ * service
+ *    .createQuery()
+ *    .fetch()
+ *    .as(flux -> QueryTimeout.with(flux, Duration.ofSeconds(5)));
+ * }</pre>
+ * 超时或者取消订阅时,执行器将取消正在执行的语句并释放连接.
+ * 同时配置了默认超时时间({@code easyorm.query-timeout})时,以较短的时间为准.
+ *
+ * @since 4.0.15
+ */
+public final class QueryTimeout {
+
+    private static final Object KEY = QueryTimeout.class;
+
+    private QueryTimeout() {
+    }
+
+    /**
+     * 获取查询参数中指定的超时时间
+     *
+     * @param param 查询参数
+     * @return 超时时间, null表示未指定
+     * @see QueryParamEntity#getTimeout()
+     */
+    public static Duration of(QueryParamEntity param) {
+        Long timeout = param == null ? null : param.getTimeout();
+        return timeout == null || timeout <= 0 ? null : Duration.ofMillis(timeout);
+    }
+
+    public static <T> Flux<T> with(Flux<T> source, Duration timeout) {
+        if (timeout == null) {
+            return source;
+        }
+        return source.subscriberContext(ctx -> ctx.put(KEY, timeout));
+    }
+
+    public static <T> Mono<T> with(Mono<T> source, Duration timeout) {
+        if (timeout == null) {
+            return source;
+        }
+        return source.subscriberContext(ctx -> ctx.put(KEY, timeout));
+    }
+
+    /**
+     * 获取超时时间
+     *
+     * @param ctx            上下文
+     * @param defaultTimeout 默认超时时间
+     * @return 超时时间, null表示不超时
+     */
+    public static Duration resolve(Context ctx, Duration defaultTimeout) {
+        Duration timeout = ctx.<Duration>getOrEmpty(KEY).orElse(null);
+        if (timeout == null) {
+            return isValid(defaultTimeout) ? defaultTimeout : null;
+        }
+        if (isValid(defaultTimeout) && defaultTimeout.compareTo(timeout) < 0) {
+            return defaultTimeout;
+        }
+        return isValid(timeout) ? timeout : null;
+    }
+
+    private static boolean isValid(Duration timeout) {
+        return timeout != null && !timeout.isZero() && !timeout.isNegative();
+    }
+
+    /**
+     * 为查询设置超时,在超时时间内没有返回第一条数据(或者完成)时取消订阅并返回{@link TimeoutException}.
+     * <p>
+     * 只限制第一个信号,之后读取数据的耗时不计入超时,避免背压导致的等待(如向较慢的客户端导出数据)中断查询.
+     * 读取数据期间的语句超时由JDBC驱动({@link java.sql.Statement#setQueryTimeout(int)})控制.
+     *
+     * @param source         查询
+     * @param defaultTimeout 默认超时时间
+     * @return 查询
+     */
+    static <T> Flux<T> timeout(Flux<T> source, Duration defaultTimeout) {
+        return Mono
+                .subscriberContext()
+                .flatMapMany(ctx -> {
+                    Duration timeout = resolve(ctx, defaultTimeout);
+                    if (timeout == null) {
+                        return source;
+                    }
+                    return source.timeout(
+                            Mono.delay(timeout),
+                            ignore -> Mono.never(),
+                            Flux.defer(() -> Flux.error(new TimeoutException("query timeout after " + timeout.toMillis() + "ms"))));
+                });
+    }
+
+    static <T> Mono<T> timeout(Mono<T> source, Duration defaultTimeout) {
+        return timeout(source.flux(), defaultTimeout).singleOrEmpty();
+    }
+
+    /**
+     * 获取超时时间(秒),用于JDBC的{@link java.sql.Statement#setQueryTimeout(int)}
+     *
+     * @param ctx            上下文
+     * @param defaultTimeout 默认超时时间
+     * @return 超时时间(秒), 0表示不超时
+     */
+    static int resolveSeconds(Context ctx, Duration defaultTimeout) {
+        Duration timeout = resolve(ctx, defaultTimeout);
+        if (timeout == null) {
+            return 0;
+        }
+        //向上取整,至少1秒
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, (timeout.toMillis() + 999) / 1000));
+    }
+}
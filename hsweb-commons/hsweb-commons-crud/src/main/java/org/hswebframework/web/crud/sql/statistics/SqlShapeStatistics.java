@@ -0,0 +1,113 @@
+package org.hswebframework.web.crud.sql.statistics;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个SQL形状的统计信息,所有统计均基于{@link LongAdder},记录时不加锁也不产生额外的对象.
+ * <p>
+ * 耗时直方图按2的幂(微秒)划分区间,第i个区间为[2^(i-1),2^i)微秒,用于估算百分位耗时.
+ *
+ * @since 4.0.15
+ */
+public class SqlShapeStatistics {
+
+    static final int BUCKETS = 32;
+
+    @Getter
+    private final String shape;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    public SqlShapeStatistics(String shape) {
+        this.shape = shape;
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * 记录一次执行
+     *
+     * @param nanos   耗时(纳秒)
+     * @param rows    返回或影响的行数
+     * @param success 是否成功
+     */
+    public void record(long nanos, long rows, boolean success) {
+        count.increment();
+        if (!success) {
+            errors.increment();
+        }
+        this.rows.add(rows);
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+        histogram[bucket(nanos)].increment();
+    }
+
+    static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxTime(TimeUnit unit) {
+        return unit.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 估算百分位耗时,返回所在区间的上限
+     *
+     * @param percentile 百分位,如0.99
+     * @return 耗时(微秒)
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * percentile);
+        long current = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            current += counts[i];
+            if (current >= threshold) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+}
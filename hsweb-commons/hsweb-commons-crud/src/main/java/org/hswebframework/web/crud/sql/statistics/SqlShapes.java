@@ -0,0 +1,131 @@
+package org.hswebframework.web.crud.sql.statistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 将SQL转换为不包含参数的形状(shape),用于按形状汇总统计信息:
+ * <ul>
+ *     <li>连续的空白字符合并为一个空格</li>
+ *     <li>字符串和数字常量替换为?</li>
+ *     <li>in (?,?,?) 合并为 in (?), values (?),(?) 合并为 values (?)</li>
+ * </ul>
+ *
+ * @since 4.0.15
+ */
+public final class SqlShapes {
+
+    private static final Pattern MULTI_ROWS = Pattern.compile("\\(\\?\\)(\\s?,\\s?\\(\\?\\))+");
+
+    //缓存的最大SQL数量,超过后不再缓存
+    static final int MAX_CACHE_SIZE = 10000;
+
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private SqlShapes() {
+    }
+
+    /**
+     * 获取SQL的形状
+     *
+     * @param sql SQL
+     * @return 形状
+     */
+    public static String of(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String shape = cache.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        shape = normalize(sql);
+        if (cache.size() < MAX_CACHE_SIZE) {
+            cache.put(sql, shape);
+        }
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder builder = new StringBuilder(sql.length());
+        int len = sql.length();
+        int i = 0;
+        while (i < len) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < len && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                continue;
+            }
+            if (c == '\'') {
+                //字符串常量,''为转义的单引号
+                i++;
+                while (i < len) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < len && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                appendParameter(builder);
+                continue;
+            }
+            if (Character.isDigit(c) && !isIdentifierPart(builder)) {
+                while (i < len && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                appendParameter(builder);
+                continue;
+            }
+            if (c == '?') {
+                i++;
+                appendParameter(builder);
+                continue;
+            }
+            builder.append(c);
+            i++;
+        }
+        int end = builder.length();
+        while (end > 0 && builder.charAt(end - 1) == ' ') {
+            end--;
+        }
+        builder.setLength(end);
+        return MULTI_ROWS.matcher(builder).replaceAll("(?)");
+    }
+
+    private static boolean isIdentifierPart(StringBuilder builder) {
+        if (builder.length() == 0) {
+            return false;
+        }
+        char last = builder.charAt(builder.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$' || last == '"' || last == '`';
+    }
+
+    //连续的参数(?,?,?)合并为一个
+    private static void appendParameter(StringBuilder builder) {
+        int idx = builder.length() - 1;
+        while (idx >= 0 && builder.charAt(idx) == ' ') {
+            idx--;
+        }
+        if (idx >= 0 && builder.charAt(idx) == ',') {
+            int prev = idx - 1;
+            while (prev >= 0 && builder.charAt(prev) == ' ') {
+                prev--;
+            }
+            if (prev >= 0 && builder.charAt(prev) == '?') {
+                builder.setLength(prev + 1);
+                return;
+            }
+        }
+        builder.append('?');
+    }
+}
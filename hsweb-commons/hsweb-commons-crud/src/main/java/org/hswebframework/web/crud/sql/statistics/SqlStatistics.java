@@ -0,0 +1,226 @@
+package org.hswebframework.web.crud.sql.statistics;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hswebframework.ezorm.rdb.executor.SqlRequest;
+import org.reactivestreams.Publisher;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * SQL统计,按SQL形状({@link SqlShapes})汇总执行次数,耗时,行数等信息,并记录慢查询日志.
+ * <p>
+ * 形状数量超过{@code maxShapes}后,新的形状统一记录到{@link #OTHER_SHAPE}中,保证内存占用有上限.
+ * 可以通过{@link #withSource(Flux, Object, String)}设置执行SQL的服务方法,在慢查询日志中输出.
+ *
+ * @since 4.0.15
+ */
+@Slf4j
+public class SqlStatistics {
+
+    public static final String OTHER_SHAPE = "OTHER";
+
+    private static final Object SOURCE_KEY = SqlStatistics.class;
+
+    private static final Map<Class<?>, String> sourceNames = new ConcurrentHashMap<>();
+
+    //是否记录执行SQL的服务方法,存在SqlStatistics实例时开启
+    private static volatile boolean sourceEnabled;
+
+    private final Map<String, SqlShapeStatistics> shapes = new ConcurrentHashMap<>();
+
+    private volatile SqlShapeStatistics other = new SqlShapeStatistics(OTHER_SHAPE);
+
+    @Getter
+    private final int maxShapes;
+
+    private final long slowThresholdNanos;
+
+    /**
+     * @param maxShapes     最大形状数量
+     * @param slowThreshold 慢查询阈值,为null时不记录慢查询日志
+     */
+    public SqlStatistics(int maxShapes, Duration slowThreshold) {
+        this.maxShapes = maxShapes;
+        this.slowThresholdNanos = slowThreshold == null ? Long.MAX_VALUE : slowThreshold.toNanos();
+        sourceEnabled = true;
+    }
+
+    /**
+     * 设置执行SQL的服务方法
+     *
+     * @param source  查询
+     * @param service 服务
+     * @param method  方法名
+     * @return 设置了服务方法的Flux
+     */
+    public static <T> Flux<T> withSource(Flux<T> source, Object service, String method) {
+        if (!sourceEnabled) {
+            return source;
+        }
+        return source.subscriberContext(ctx -> ctx.hasKey(SOURCE_KEY) ? ctx : ctx.put(SOURCE_KEY, sourceName(service, method)));
+    }
+
+    public static <T> Mono<T> withSource(Mono<T> source, Object service, String method) {
+        if (!sourceEnabled) {
+            return source;
+        }
+        return source.subscriberContext(ctx -> ctx.hasKey(SOURCE_KEY) ? ctx : ctx.put(SOURCE_KEY, sourceName(service, method)));
+    }
+
+    private static String sourceName(Object service, String method) {
+        String name = sourceNames.computeIfAbsent(service.getClass(), type -> ClassUtils.getUserClass(type).getSimpleName());
+        return name + "#" + method;
+    }
+
+    private SqlShapeStatistics getShape(String sql) {
+        String shape = SqlShapes.of(sql);
+        SqlShapeStatistics statistics = shapes.get(shape);
+        if (statistics != null) {
+            return statistics;
+        }
+        if (shapes.size() >= maxShapes) {
+            return other;
+        }
+        return shapes.computeIfAbsent(shape, SqlShapeStatistics::new);
+    }
+
+    /**
+     * 记录一次SQL执行
+     *
+     * @param sql     SQL
+     * @param nanos   耗时(纳秒)
+     * @param rows    返回或影响的行数
+     * @param success 是否成功
+     * @param source  执行SQL的服务方法,可以为null
+     */
+    public void record(String sql, long nanos, long rows, boolean success, String source) {
+        getShape(sql).record(nanos, rows, success);
+        if (nanos >= slowThresholdNanos) {
+            log.warn("slow sql {}ms, rows: {}, success: {}, source: {}\n{}",
+                     TimeUnit.NANOSECONDS.toMillis(nanos),
+                     rows,
+                     success,
+                     source == null ? "unknown" : source,
+                     sql);
+        }
+    }
+
+    /**
+     * 统计查询语句
+     *
+     * @param request  SQL请求
+     * @param executor 执行查询
+     * @return 查询结果
+     */
+    public <E> Flux<E> select(Publisher<SqlRequest> request, Function<Publisher<SqlRequest>, Flux<E>> executor) {
+        return Flux.defer(() -> {
+            Recorder recorder = new Recorder();
+            return executor
+                    .apply(Flux.from(request).doOnNext(recorder::request))
+                    .doOnEach(signal -> {
+                        if (signal.isOnNext()) {
+                            recorder.rows++;
+                        } else if (signal.isOnComplete() || signal.isOnError()) {
+                            recorder.finish(signal);
+                        }
+                    })
+                    .doOnCancel(() -> recorder.finish(null));
+        });
+    }
+
+    /**
+     * 统计更新语句
+     *
+     * @param request  SQL请求
+     * @param executor 执行更新
+     * @return 影响的行数
+     */
+    public Mono<Integer> update(Publisher<SqlRequest> request, Function<Publisher<SqlRequest>, Mono<Integer>> executor) {
+        return Mono.defer(() -> {
+            Recorder recorder = new Recorder();
+            return executor
+                    .apply(Flux.from(request).doOnNext(recorder::request))
+                    .doOnEach(signal -> {
+                        if (signal.isOnNext()) {
+                            Integer rows = signal.get();
+                            recorder.rows = rows == null ? 0 : rows;
+                        } else if (signal.isOnComplete() || signal.isOnError()) {
+                            recorder.finish(signal);
+                        }
+                    })
+                    .doOnCancel(() -> recorder.finish(null));
+        });
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @param top        数量
+     * @param comparator 排序
+     * @return 统计信息
+     */
+    public List<SqlStatisticsSnapshot> getTop(int top, Comparator<SqlStatisticsSnapshot> comparator) {
+        List<SqlStatisticsSnapshot> snapshots = new ArrayList<>(shapes.size() + 1);
+        for (SqlShapeStatistics statistics : shapes.values()) {
+            snapshots.add(SqlStatisticsSnapshot.of(statistics));
+        }
+        SqlShapeStatistics other = this.other;
+        if (other.getCount() > 0) {
+            snapshots.add(SqlStatisticsSnapshot.of(other));
+        }
+        return snapshots
+                .stream()
+                .sorted(comparator)
+                .limit(Math.max(0, top))
+                .collect(Collectors.toList());
+    }
+
+    public int getShapeCount() {
+        return shapes.size();
+    }
+
+    public void reset() {
+        shapes.clear();
+        other = new SqlShapeStatistics(OTHER_SHAPE);
+    }
+
+    private class Recorder {
+        private final long startTime = System.nanoTime();
+
+        private String sql;
+
+        private long rows;
+
+        private boolean finished;
+
+        void request(SqlRequest request) {
+            if (sql == null) {
+                sql = request.getSql();
+            }
+        }
+
+        synchronized void finish(Signal<?> signal) {
+            if (finished || sql == null) {
+                return;
+            }
+            finished = true;
+            Context ctx = signal == null ? Context.empty() : signal.getContext();
+            record(sql,
+                   System.nanoTime() - startTime,
+                   rows,
+                   signal == null || !signal.isOnError(),
+                   ctx.<String>getOrEmpty(SOURCE_KEY).orElse(null));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.hswebframework.web.crud.sql.statistics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL形状的统计信息快照
+ *
+ * @since 4.0.15
+ */
+@Getter
+@Setter
+public class SqlStatisticsSnapshot {
+
+    public static final Comparator<SqlStatisticsSnapshot> TOTAL_TIME = Comparator
+            .comparingDouble(SqlStatisticsSnapshot::getTotalTime).reversed();
+
+    public static final Comparator<SqlStatisticsSnapshot> MAX_TIME = Comparator
+            .comparingDouble(SqlStatisticsSnapshot::getMaxTime).reversed();
+
+    public static final Comparator<SqlStatisticsSnapshot> COUNT = Comparator
+            .comparingLong(SqlStatisticsSnapshot::getCount).reversed();
+
+    public static final Comparator<SqlStatisticsSnapshot> ROWS = Comparator
+            .comparingLong(SqlStatisticsSnapshot::getRows).reversed();
+
+    private String shape;
+
+    private long count;
+
+    private long errors;
+
+    private long rows;
+
+    //总耗时(毫秒)
+    private double totalTime;
+
+    //平均耗时(毫秒)
+    private double averageTime;
+
+    //最大耗时(毫秒)
+    private double maxTime;
+
+    //百分位耗时(毫秒),根据直方图估算
+    private double p50;
+
+    private double p90;
+
+    private double p99;
+
+    public static SqlStatisticsSnapshot of(SqlShapeStatistics statistics) {
+        SqlStatisticsSnapshot snapshot = new SqlStatisticsSnapshot();
+        snapshot.shape = statistics.getShape();
+        snapshot.count = statistics.getCount();
+        snapshot.errors = statistics.getErrorCount();
+        snapshot.rows = statistics.getRows();
+        snapshot.totalTime = statistics.getTotalTime(TimeUnit.MICROSECONDS) / 1000D;
+        snapshot.averageTime = snapshot.count == 0 ? 0 : snapshot.totalTime / snapshot.count;
+        snapshot.maxTime = statistics.getMaxTime(TimeUnit.MICROSECONDS) / 1000D;
+        snapshot.p50 = statistics.getPercentileMicros(0.5) / 1000D;
+        snapshot.p90 = statistics.getPercentileMicros(0.9) / 1000D;
+        snapshot.p99 = statistics.getPercentileMicros(0.99) / 1000D;
+        return snapshot;
+    }
+
+    /**
+     * 根据名称获取排序方式
+     *
+     * @param sort 排序: totalTime,maxTime,count,rows
+     * @return 排序方式, 默认按总耗时排序
+     */
+    public static Comparator<SqlStatisticsSnapshot> comparator(String sort) {
+        if ("maxTime".equalsIgnoreCase(sort)) {
+            return MAX_TIME;
+        }
+        if ("count".equalsIgnoreCase(sort)) {
+            return COUNT;
+        }
+        if ("rows".equalsIgnoreCase(sort)) {
+            return ROWS;
+        }
+        return TOTAL_TIME;
+    }
+}
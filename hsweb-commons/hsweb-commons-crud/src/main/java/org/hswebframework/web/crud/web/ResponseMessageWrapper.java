@@ -2,6 +2,7 @@ package org.hswebframework.web.crud.web;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hswebframework.web.crud.web.reactive.StreamingExporter;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.http.MediaType;
@@ -79,7 +80,9 @@ public class ResponseMessageWrapper extends ResponseBodyResultHandler {
         for (String produce : mapping.produces()) {
             MimeType mimeType = MimeType.valueOf(produce);
             if (MediaType.TEXT_EVENT_STREAM.includes(mimeType) ||
-                    MediaType.APPLICATION_STREAM_JSON.includes(mimeType)) {
+                    MediaType.APPLICATION_STREAM_JSON.includes(mimeType) ||
+                    StreamingExporter.APPLICATION_NDJSON.includes(mimeType) ||
+                    StreamingExporter.TEXT_CSV.includes(mimeType)) {
                 return false;
             }
         }
@@ -0,0 +1,49 @@
+package org.hswebframework.web.crud.web;
+
+import lombok.AllArgsConstructor;
+import org.hswebframework.web.authorization.annotation.QueryAction;
+import org.hswebframework.web.authorization.annotation.Resource;
+import org.hswebframework.web.authorization.annotation.SaveAction;
+import org.hswebframework.web.crud.sql.statistics.SqlStatistics;
+import org.hswebframework.web.crud.sql.statistics.SqlStatisticsSnapshot;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * SQL统计接口,需要配置easyorm.statistics.enabled=true和easyorm.statistics.endpoint.enabled=true开启.
+ * <p>
+ * 统计信息包含SQL原文,查询需要{@code sql-statistics}资源的查询权限,重置需要保存权限.
+ * 只通过{@link org.hswebframework.web.crud.configuration.EasyormConfiguration}注册,不参与组件扫描.
+ *
+ * @since 4.0.15
+ */
+@RequestMapping("${easyorm.statistics.endpoint.path:/sql/statistics}")
+@Resource(id = "sql-statistics", name = "SQL统计", group = "system")
+@AllArgsConstructor
+public class SqlStatisticsController {
+
+    private final SqlStatistics statistics;
+
+    /**
+     * 获取统计信息
+     *
+     * @param top  数量
+     * @param sort 排序: totalTime(默认),maxTime,count,rows
+     * @return 统计信息
+     */
+    @GetMapping
+    @ResponseBody
+    @QueryAction
+    public Flux<SqlStatisticsSnapshot> getTop(@RequestParam(defaultValue = "20") int top,
+                                              @RequestParam(defaultValue = "totalTime") String sort) {
+        return Flux.defer(() -> Flux.fromIterable(statistics.getTop(top, SqlStatisticsSnapshot.comparator(sort))));
+    }
+
+    @DeleteMapping
+    @ResponseBody
+    @SaveAction
+    public Mono<Void> reset() {
+        return Mono.fromRunnable(statistics::reset);
+    }
+}
@@ -2,6 +2,7 @@ package org.hswebframework.web.crud.web.reactive;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import org.hswebframework.web.api.crud.entity.KeysetPagerResult;
 import org.hswebframework.web.api.crud.entity.PagerResult;
 import org.hswebframework.web.api.crud.entity.QueryNoPagingOperation;
 import org.hswebframework.web.api.crud.entity.QueryOperation;
@@ -10,10 +11,13 @@ import org.hswebframework.web.authorization.annotation.Authorize;
 import org.hswebframework.web.authorization.annotation.QueryAction;
 import org.hswebframework.web.crud.service.ReactiveCrudService;
 import org.hswebframework.web.exception.NotFoundException;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -138,6 +142,79 @@ public interface ReactiveServiceQueryController<E, K> {
         return query.flatMap(q -> queryPager(q));
     }
 
+    /**
+     * GET方式游标分页查询,使用返回结果中的next作为游标查询下一页.
+     *
+     * <pre>
+     *    GET /_query/keyset?pageSize=20&where=name is 张三&orderBy=createTime desc&cursor=
+     * </pre>
+     *
+     * @param query  查询条件
+     * @param cursor 游标,为空时查询第一页
+     * @return 分页查询结果
+     * @see KeysetPagerResult
+     */
+    @GetMapping("/_query/keyset")
+    @QueryAction
+    @QueryNoPagingOperation(summary = "Use GET for keyset (cursor) paging queries")
+    default Mono<KeysetPagerResult<E>> queryKeyset(@Parameter(hidden = true) QueryParamEntity query,
+                                                   @RequestParam(required = false) String cursor) {
+        return getService().queryKeyset(query, cursor);
+    }
+
+    /**
+     * POST方式游标分页查询,使用返回结果中的next作为游标查询下一页.
+     *
+     * <pre>
+     *     POST /_query/keyset?cursor=
+     *
+     *     {
+     *         "pageSize":20,
+     *         "where":"name like 张%",
+     *         "orderBy":"createTime desc"
+     *     }
+     * </pre>
+     *
+     * @param query  查询条件
+     * @param cursor 游标,为空时查询第一页
+     * @return 分页查询结果
+     * @see KeysetPagerResult
+     */
+    @PostMapping("/_query/keyset")
+    @QueryAction
+    @Operation(summary = "Use POST for keyset (cursor) paging queries")
+    default Mono<KeysetPagerResult<E>> queryKeyset(@RequestBody Mono<QueryParamEntity> query,
+                                                   @RequestParam(required = false) String cursor) {
+        return query.flatMap(q -> queryKeyset(q, cursor));
+    }
+
+    /**
+     * 流式导出数据,不分页,数据从数据库中逐批读取并写出,导出大量数据时内存占用保持不变.
+     *
+     * <pre>
+     *    GET /_export?format=csv&where=name is 张三&orderBy=id desc
+     * </pre>
+     *
+     * @param query  查询条件
+     * @param format 导出格式: ndjson(默认) 或者 csv
+     * @return 导出数据
+     * @see StreamingExporter
+     */
+    @GetMapping(value = "/_export", produces = {"application/x-ndjson", "text/csv"})
+    @QueryAction
+    @QueryNoPagingOperation(summary = "Streaming export using GET (ndjson or csv)")
+    default Flux<DataBuffer> export(@Parameter(hidden = true) QueryParamEntity query,
+                                    @RequestParam(defaultValue = "ndjson") String format,
+                                    @Parameter(hidden = true) ServerWebExchange exchange) {
+        return StreamingExporter
+                .export(exchange,
+                        format,
+                        getService()
+                                .createQuery()
+                                .setParam(query.clone().noPaging())
+                                .fetch());
+    }
+
     /**
      * POST方式动态查询数量.
      *
@@ -0,0 +1,171 @@
+package org.hswebframework.web.crud.web.reactive;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 流式导出数据,将数据逐批转换为{@link DataBuffer}写出,导出任意数量的数据时内存占用保持不变.
+ * <ul>
+ *     <li>ndjson: 每行一条JSON数据</li>
+ *     <li>csv: 第一行为表头,表头为第一条数据的属性.以{@code = + - @}等字符开头的文本会在前面加上{@code '},防止被表格软件当作公式执行</li>
+ * </ul>
+ * 数据使用Spring容器中的{@link ObjectMapper}转换,与接口返回的JSON格式一致.
+ *
+ * @since 4.0.15
+ */
+public final class StreamingExporter {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    //每次从数据库拉取的数据量
+    static final int FETCH_SIZE = 256;
+
+    //合并为一个DataBuffer写出的数据量
+    static final int CHUNK_SIZE = 64;
+
+    //UTF-8 BOM,让Excel正确识别中文
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
+    private StreamingExporter() {
+    }
+
+    /**
+     * 导出数据,并设置响应的Content-Type
+     *
+     * @param exchange ServerWebExchange
+     * @param format   格式: ndjson 或者 csv
+     * @param data     数据
+     * @return 导出的数据
+     */
+    public static Flux<DataBuffer> export(ServerWebExchange exchange, String format, Flux<?> data) {
+        ObjectMapper mapper = getObjectMapper(exchange);
+        DataBufferFactory factory = exchange.getResponse().bufferFactory();
+        if ("csv".equalsIgnoreCase(format)) {
+            exchange.getResponse().getHeaders().setContentType(new MediaType(TEXT_CSV, StandardCharsets.UTF_8));
+            exchange.getResponse().getHeaders().set("Content-Disposition", "attachment; filename=export.csv");
+            return csv(data, mapper, factory);
+        }
+        exchange.getResponse().getHeaders().setContentType(APPLICATION_NDJSON);
+        return ndjson(data, mapper, factory);
+    }
+
+    public static Flux<DataBuffer> ndjson(Flux<?> data, ObjectMapper mapper, DataBufferFactory factory) {
+        return data
+                .limitRate(FETCH_SIZE)
+                .buffer(CHUNK_SIZE)
+                .map(rows -> {
+                    ByteArrayOutputStream out = new ByteArrayOutputStream(rows.size() * 128);
+                    for (Object row : rows) {
+                        writeJson(out, mapper, row);
+                        out.write('\n');
+                    }
+                    return factory.wrap(out.toByteArray());
+                });
+    }
+
+    @SuppressWarnings("all")
+    public static Flux<DataBuffer> csv(Flux<?> data, ObjectMapper mapper, DataBufferFactory factory) {
+        //包含值为null的属性,保证每行的列一致
+        ObjectMapper csvMapper = mapper.copy().setSerializationInclusion(JsonInclude.Include.ALWAYS);
+        //表头在每次订阅时创建,重复订阅时每次都会输出表头
+        return Flux.defer(() -> {
+            List<String>[] header = new List[1];
+            return data
+                    .limitRate(FETCH_SIZE)
+                    .map(row -> row instanceof Map ? (Map<String, Object>) row : csvMapper.convertValue(row, Map.class))
+                    .buffer(CHUNK_SIZE)
+                    .map(rows -> {
+                        StringBuilder builder = new StringBuilder(rows.size() * 128);
+                        if (header[0] == null) {
+                            header[0] = new ArrayList<>(rows.get(0).keySet());
+                            appendCsvLine(builder, mapper, header[0]);
+                        }
+                        for (Map<String, Object> row : rows) {
+                            List<Object> values = new ArrayList<>(header[0].size());
+                            for (String column : header[0]) {
+                                values.add(row.get(column));
+                            }
+                            appendCsvLine(builder, mapper, values);
+                        }
+                        return builder.toString().getBytes(StandardCharsets.UTF_8);
+                    })
+                    .startWith(UTF8_BOM)
+                    .map(factory::wrap);
+        });
+    }
+
+    private static void appendCsvLine(StringBuilder builder, ObjectMapper mapper, List<?> values) {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            appendCsvValue(builder, mapper, values.get(i));
+        }
+        builder.append("\r\n");
+    }
+
+    @SneakyThrows
+    private static void appendCsvValue(StringBuilder builder, ObjectMapper mapper, Object value) {
+        if (value == null) {
+            return;
+        }
+        String str = value instanceof Map || value instanceof Collection
+                ? mapper.writeValueAsString(value)
+                : String.valueOf(value);
+        //数字等非文本类型的值不会被当作公式,如: -1
+        if (!(value instanceof Number) && isFormula(str)) {
+            str = "'" + str;
+        }
+        if (str.indexOf(',') < 0 && str.indexOf('"') < 0 && str.indexOf('\n') < 0 && str.indexOf('\r') < 0) {
+            builder.append(str);
+            return;
+        }
+        builder.append('"').append(str.replace("\"", "\"\"")).append('"');
+    }
+
+    //以这些字符开头的单元格会被Excel等表格软件当作公式执行
+    static boolean isFormula(String str) {
+        if (str.isEmpty()) {
+            return false;
+        }
+        switch (str.charAt(0)) {
+            case '=':
+            case '+':
+            case '-':
+            case '@':
+            case '\t':
+            case '\r':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @SneakyThrows
+    private static void writeJson(ByteArrayOutputStream out, ObjectMapper mapper, Object row) {
+        out.write(mapper.writeValueAsBytes(row));
+    }
+
+    private static ObjectMapper getObjectMapper(ServerWebExchange exchange) {
+        ApplicationContext context = exchange.getApplicationContext();
+        if (context == null) {
+            return DEFAULT_MAPPER;
+        }
+        return context.getBeanProvider(ObjectMapper.class).getIfAvailable(() -> DEFAULT_MAPPER);
+    }
+}
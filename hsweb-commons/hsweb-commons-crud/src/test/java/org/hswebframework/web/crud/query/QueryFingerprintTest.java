@@ -0,0 +1,56 @@
+package org.hswebframework.web.crud.query;
+
+import org.hswebframework.web.api.crud.entity.QueryParamEntity;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class QueryFingerprintTest {
+
+    @Test
+    public void testTermOrder() {
+        QueryParamEntity query = QueryParamEntity
+                .newQuery()
+                .where("name", "test")
+                .gte("age", 10)
+                .getParam();
+        QueryParamEntity sameQuery = QueryParamEntity
+                .newQuery()
+                .gte("age", 10)
+                .where("name", "test")
+                .getParam();
+        assertEquals(QueryFingerprint.of(query), QueryFingerprint.of(sameQuery));
+    }
+
+    @Test
+    public void testValueContainsDelimiter() {
+        QueryParamEntity query = QueryParamEntity
+                .newQuery()
+                .is("name", "x;and tenantId$eq=String:t1")
+                .getParam();
+        QueryParamEntity other = QueryParamEntity
+                .newQuery()
+                .is("name", "x")
+                .and()
+                .is("tenantId", "t1")
+                .getParam();
+        assertNotEquals(QueryFingerprint.of(query), QueryFingerprint.of(other));
+        assertNotEquals(QueryFingerprint.of(query.getTerms()), QueryFingerprint.of(other.getTerms()));
+    }
+
+    @Test
+    public void testValueType() {
+        assertNotEquals(QueryFingerprint.of(QueryParamEntity.of("age", 1)),
+                        QueryFingerprint.of(QueryParamEntity.of("age", "1")));
+        assertNotEquals(QueryFingerprint.of(QueryParamEntity.newQuery().in("name", Arrays.asList("a,b", "c")).getParam()),
+                        QueryFingerprint.of(QueryParamEntity.newQuery().in("name", Arrays.asList("a", "b,c")).getParam()));
+    }
+
+    @Test
+    public void testColumnContainsDelimiter() {
+        assertNotEquals(QueryFingerprint.of(QueryParamEntity.newQuery().includes("a,b").getParam()),
+                        QueryFingerprint.of(QueryParamEntity.newQuery().includes("a", "b").getParam()));
+    }
+}
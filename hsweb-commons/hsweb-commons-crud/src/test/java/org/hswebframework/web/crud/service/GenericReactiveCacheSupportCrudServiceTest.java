@@ -1,17 +1,33 @@
 package org.hswebframework.web.crud.service;
 
+import org.hswebframework.web.api.crud.entity.KeysetPagerResult;
+import org.hswebframework.web.api.crud.entity.PagerResult;
+import org.hswebframework.web.api.crud.entity.PagingMode;
+import org.hswebframework.web.api.crud.entity.QueryParamEntity;
+import org.hswebframework.web.cache.ReactiveCache;
 import org.hswebframework.web.cache.ReactiveCacheManager;
+import org.hswebframework.web.cache.metrics.CacheStatistics;
+import org.hswebframework.web.cache.supports.AbstractReactiveCache;
+import org.hswebframework.web.cache.supports.NullValue;
 import org.hswebframework.web.crud.TestApplication;
 import org.hswebframework.web.crud.entity.TestEntity;
+import org.hswebframework.web.crud.query.QueryFingerprint;
+import org.hswebframework.web.crud.query.QueryResultCache;
+import org.hswebframework.web.exception.ValidationException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.Arrays;
+
 import static org.junit.Assert.*;
 
 @SpringBootTest(classes = TestApplication.class, args = "--hsweb.cache.type=guava")
@@ -22,6 +38,12 @@ public class GenericReactiveCacheSupportCrudServiceTest {
     @Autowired
     private TestCacheEntityService entityService;
 
+    @Autowired
+    private TestQueryCacheEntityService queryCacheEntityService;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
     @Test
     public void test() {
 
@@ -61,4 +83,413 @@ public class GenericReactiveCacheSupportCrudServiceTest {
                 .verify();
     }
 
-}
\ No newline at end of file
+    @Test
+    @SuppressWarnings("all")
+    public void testNullValueCache() {
+        String id = "null-value-test";
+
+        entityService.findById(id)
+                     .as(StepVerifier::create)
+                     .verifyComplete();
+
+        ((ReactiveCache<Object>) (ReactiveCache) entityService.getCache())
+                .getMono("id:" + id)
+                .as(StepVerifier::create)
+                .expectNextMatches(NullValue.class::isInstance)
+                .verifyComplete();
+
+        TestEntity entity = TestEntity.of("test3", 10);
+        entity.setId(id);
+        entityService.insert(Mono.just(entity))
+                     .as(StepVerifier::create)
+                     .expectNext(1)
+                     .verifyComplete();
+
+        entityService.findById(id)
+                     .map(TestEntity::getId)
+                     .as(StepVerifier::create)
+                     .expectNext(id)
+                     .verifyComplete();
+    }
+
+    @Test
+    public void testEvictById() {
+        TestEntity first = TestEntity.of("evict1", 1);
+        TestEntity second = TestEntity.of("evict2", 2);
+
+        entityService.insert(Flux.just(first, second))
+                     .as(StepVerifier::create)
+                     .expectNext(2)
+                     .verifyComplete();
+
+        Flux.just(first.getId(), second.getId())
+            .concatMap(entityService::findById)
+            .as(StepVerifier::create)
+            .expectNextCount(2)
+            .verifyComplete();
+
+        entityService.createUpdate()
+                     .set("age", 10)
+                     .where("id", first.getId())
+                     .execute()
+                     .as(StepVerifier::create)
+                     .expectNext(1)
+                     .verifyComplete();
+
+        //只清除被修改的数据
+        entityService.getCache()
+                     .getMono("id:".concat(first.getId()))
+                     .as(StepVerifier::create)
+                     .verifyComplete();
+
+        entityService.getCache()
+                     .getMono("id:".concat(second.getId()))
+                     .map(TestEntity::getId)
+                     .as(StepVerifier::create)
+                     .expectNext(second.getId())
+                     .verifyComplete();
+    }
+
+    @Test
+    public void testFindByIdList() {
+        TestEntity first = TestEntity.of("list1", 1);
+        TestEntity second = TestEntity.of("list2", 2);
+        TestEntity third = TestEntity.of("list3", 3);
+
+        entityService.insert(Flux.just(first, second, third))
+                     .as(StepVerifier::create)
+                     .expectNext(3)
+                     .verifyComplete();
+
+        //缓存其中一条数据
+        entityService.findById(second.getId())
+                     .as(StepVerifier::create)
+                     .expectNextCount(1)
+                     .verifyComplete();
+
+        entityService.findById(Arrays.asList(third.getId(), second.getId(), "not-exists", first.getId()))
+                     .map(TestEntity::getId)
+                     .as(StepVerifier::create)
+                     .expectNext(third.getId(), second.getId(), first.getId())
+                     .verifyComplete();
+
+        entityService.getCache()
+                     .getMono("id:".concat(third.getId()))
+                     .map(TestEntity::getId)
+                     .as(StepVerifier::create)
+                     .expectNext(third.getId())
+                     .verifyComplete();
+
+        //不存在的数据已缓存为NullValue,记录为空值命中
+        CacheStatistics statistics = ((AbstractReactiveCache<?>) entityService.getCache()).getStatistics();
+        long nullHits = statistics.getNullHitCount();
+        entityService.findById(Arrays.asList(first.getId(), "not-exists"))
+                     .map(TestEntity::getId)
+                     .as(StepVerifier::create)
+                     .expectNext(first.getId())
+                     .verifyComplete();
+        assertEquals(nullHits + 1, statistics.getNullHitCount());
+    }
+
+    @Test
+    @SuppressWarnings("all")
+    public void testFindByIdListExpiredNullValue() {
+        TestEntity entity = TestEntity.of("list-expired", 1);
+        entityService.insert(entity)
+                     .as(StepVerifier::create)
+                     .expectNext(1)
+                     .verifyComplete();
+
+        //已过期的NullValue将重新加载
+        ((ReactiveCache<Object>) (ReactiveCache) entityService.getCache())
+                .put("id:" + entity.getId(), Mono.just(NullValue.expireAfter(Duration.ofMillis(1))))
+                .then(Mono.delay(Duration.ofMillis(10)))
+                .block();
+
+        entityService.findById(Arrays.asList(entity.getId()))
+                     .map(TestEntity::getId)
+                     .as(StepVerifier::create)
+                     .expectNext(entity.getId())
+                     .verifyComplete();
+    }
+
+    @Test
+    public void testPagingMode() {
+        entityService.insert(Flux.range(0, 5).map(i -> TestEntity.of("paging-mode", i)))
+                     .as(StepVerifier::create)
+                     .expectNext(5)
+                     .verifyComplete();
+
+        QueryParamEntity query = QueryParamEntity.of("name", "paging-mode");
+        query.setPageSize(2);
+        query.setPagingMode(PagingMode.hasNext);
+
+        entityService.queryPager(query)
+                     .as(StepVerifier::create)
+                     .expectNextMatches(result -> result.getData().size() == 2
+                             && Boolean.TRUE.equals(result.getHasNext())
+                             && result.getTotal() == -1)
+                     .verifyComplete();
+
+        query.setPageIndex(1);
+        entityService.queryPager(query)
+                     .as(StepVerifier::create)
+                     .expectNextMatches(result -> result.getData().size() == 2
+                             && Boolean.TRUE.equals(result.getHasNext())
+                             && result.getTotal() == -1)
+                     .verifyComplete();
+
+        query.setPageIndex(2);
+        entityService.queryPager(query)
+                     .as(StepVerifier::create)
+                     .expectNextMatches(result -> result.getData().size() == 1
+                             && Boolean.FALSE.equals(result.getHasNext())
+                             && result.getTotal() == -1)
+                     .verifyComplete();
+
+        QueryParamEntity cached = QueryParamEntity.of("name", "paging-mode");
+        cached.setPagingMode(PagingMode.cachedTotal);
+        entityService.queryPager(cached)
+                     .map(PagerResult::getTotal)
+                     .as(StepVerifier::create)
+                     .expectNext(5)
+                     .verifyComplete();
+
+        //数据变更后缓存失效
+        entityService.insert(TestEntity.of("paging-mode", 6))
+                     .as(StepVerifier::create)
+                     .expectNext(1)
+                     .verifyComplete();
+
+        entityService.queryPager(cached)
+                     .map(PagerResult::getTotal)
+                     .as(StepVerifier::create)
+                     .expectNext(6)
+                     .verifyComplete();
+    }
+
+    @Test
+    public void testCachedTotalRollback() {
+        QueryParamEntity cached = QueryParamEntity.of("name", "cached-total-tx");
+        cached.setPagingMode(PagingMode.cachedTotal);
+
+        //事务中的count不使用缓存,事务回滚后不会读取到回滚的数据
+        entityService.insert(TestEntity.of("cached-total-tx", 1))
+                     .then(entityService.queryPager(cached))
+                     .map(PagerResult::getTotal)
+                     .doOnNext(total -> assertEquals(1, total.intValue()))
+                     .then(Mono.error(new IllegalStateException("rollback")))
+                     .as(transactionalOperator::transactional)
+                     .as(StepVerifier::create)
+                     .expectError(IllegalStateException.class)
+                     .verify();
+
+        entityService.queryPager(cached)
+                     .map(PagerResult::getTotal)
+                     .as(StepVerifier::create)
+                     .expectNext(0)
+                     .verifyComplete();
+    }
+
+    @Test
+    public void testHasNextWindowSize() {
+        //第一页只多查询一条数据
+        assertEquals(11, PagerQueries.windowSize(0, 10));
+        for (int pageSize = 1; pageSize <= 50; pageSize++) {
+            for (int pageIndex = 0; pageIndex < 200; pageIndex++) {
+                int offset = pageIndex * pageSize;
+                int size = PagerQueries.windowSize(offset, pageSize);
+                int windowOffset = offset / size * size;
+                assertTrue(windowOffset <= offset);
+                assertTrue(windowOffset + size >= offset + pageSize + 1);
+            }
+        }
+    }
+
+    @Test
+    public void testQueryKeyset() {
+        entityService.insert(Flux.range(0, 3).map(i -> TestEntity.of("keyset", i)))
+                     .as(StepVerifier::create)
+                     .expectNext(3)
+                     .verifyComplete();
+
+        QueryParamEntity query = QueryParamEntity.of("name", "keyset");
+        query.setPageSize(2);
+
+        KeysetPagerResult<TestEntity> first = entityService.queryKeyset(query, null).block();
+        assertNotNull(first);
+        assertEquals(2, first.getData().size());
+        assertTrue(first.isHasNext());
+
+        entityService.queryKeyset(query, first.getNext())
+                     .as(StepVerifier::create)
+                     .expectNextMatches(result -> result.getData().size() == 1
+                             && !result.isHasNext()
+                             && result.getData().stream().noneMatch(first.getData()::contains))
+                     .verifyComplete();
+
+        //可能为空的列不能作为游标分页的排序字段
+        QueryParamEntity nullableSort = query.clone();
+        nullableSort.orderBy("age").asc();
+        entityService.queryKeyset(nullableSort, null)
+                     .as(StepVerifier::create)
+                     .expectError(ValidationException.class)
+                     .verify();
+    }
+
+    @Test
+    public void testSaveInChunks() {
+        entityService.saveInChunks(Flux.range(0, 25).map(i -> TestEntity.of("chunk", i)), 10, 2)
+                     .map(ChunkSaveResult::getSize)
+                     .reduce(Integer::sum)
+                     .as(StepVerifier::create)
+                     .expectNext(25)
+                     .verifyComplete();
+
+        entityService.createQuery()
+                     .where("name", "chunk")
+                     .count()
+                     .as(StepVerifier::create)
+                     .expectNext(25)
+                     .verifyComplete();
+
+        //每一批数据在独立的事务中新增
+        entityService.insertInChunks(Flux.range(0, 25).map(i -> TestEntity.of("chunk-tx", i)), 10, 2, transactionalOperator)
+                     .map(ChunkSaveResult::getAdded)
+                     .reduce(Integer::sum)
+                     .as(StepVerifier::create)
+                     .expectNext(25)
+                     .verifyComplete();
+
+        entityService.createQuery()
+                     .where("name", "chunk-tx")
+                     .count()
+                     .as(StepVerifier::create)
+                     .expectNext(25)
+                     .verifyComplete();
+    }
+
+    @Test
+    public void testQueryResultCache() {
+        queryCacheEntityService
+                .insert(Flux.range(0, 3).map(i -> TestEntity.of("query-cache", i)))
+                .as(StepVerifier::create)
+                .expectNext(3)
+                .verifyComplete();
+
+        QueryParamEntity query = QueryParamEntity
+                .newQuery()
+                .where("name", "query-cache")
+                .gte("age", 0)
+                .getParam();
+        //条件顺序不同的查询使用相同的缓存
+        QueryParamEntity sameQuery = QueryParamEntity
+                .newQuery()
+                .gte("age", 0)
+                .where("name", "query-cache")
+                .getParam();
+        assertEquals(QueryFingerprint.of(query), QueryFingerprint.of(sameQuery));
+
+        queryCacheEntityService
+                .query(query)
+                .as(StepVerifier::create)
+                .expectNextCount(3)
+                .verifyComplete();
+        int size = QueryResultCache.size();
+
+        queryCacheEntityService
+                .query(sameQuery)
+                .as(StepVerifier::create)
+                .expectNextCount(3)
+                .verifyComplete();
+        assertEquals(size, QueryResultCache.size());
+
+        //数据变更后缓存失效
+        queryCacheEntityService
+                .insert(TestEntity.of("query-cache", 4))
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+
+        queryCacheEntityService
+                .query(sameQuery)
+                .as(StepVerifier::create)
+                .expectNextCount(4)
+                .verifyComplete();
+
+        queryCacheEntityService
+                .count(query)
+                .as(StepVerifier::create)
+                .expectNext(4)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testQueryPagerResultCache() {
+        queryCacheEntityService
+                .insert(Flux.range(0, 3).map(i -> TestEntity.of("query-cache-pager", i)))
+                .as(StepVerifier::create)
+                .expectNext(3)
+                .verifyComplete();
+
+        QueryParamEntity query = QueryParamEntity.of("name", "query-cache-pager");
+        query.setPageSize(2);
+        int before = QueryResultCache.size();
+
+        queryCacheEntityService
+                .queryPager(query)
+                .as(StepVerifier::create)
+                .expectNextMatches(result -> result.getTotal() == 3 && result.getData().size() == 2)
+                .verifyComplete();
+        int size = QueryResultCache.size();
+        assertEquals(before + 2, size);
+
+        //count和分页数据都使用缓存
+        queryCacheEntityService
+                .queryPager(query)
+                .as(StepVerifier::create)
+                .expectNextMatches(result -> result.getTotal() == 3 && result.getData().size() == 2)
+                .verifyComplete();
+        assertEquals(size, QueryResultCache.size());
+
+        queryCacheEntityService
+                .insert(TestEntity.of("query-cache-pager", 4))
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+
+        queryCacheEntityService
+                .queryPager(query)
+                .as(StepVerifier::create)
+                .expectNextMatches(result -> result.getTotal() == 4)
+                .verifyComplete();
+    }
+
+    @Test
+    public void testQueryResultCacheRollback() {
+        QueryParamEntity query = QueryParamEntity.of("name", "query-cache-tx");
+
+        //事务中的查询不使用缓存,事务回滚后不会读取到回滚的数据
+        queryCacheEntityService
+                .insert(TestEntity.of("query-cache-tx", 1))
+                .thenMany(queryCacheEntityService.query(query))
+                .count()
+                .doOnNext(count -> assertEquals(1, count.intValue()))
+                .then(Mono.error(new IllegalStateException("rollback")))
+                .as(transactionalOperator::transactional)
+                .as(StepVerifier::create)
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        queryCacheEntityService
+                .query(query)
+                .as(StepVerifier::create)
+                .verifyComplete();
+
+        queryCacheEntityService
+                .count(query)
+                .as(StepVerifier::create)
+                .expectNext(0)
+                .verifyComplete();
+    }
+}
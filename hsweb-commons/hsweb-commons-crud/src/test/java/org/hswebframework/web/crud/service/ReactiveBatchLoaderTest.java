@@ -0,0 +1,74 @@
+package org.hswebframework.web.crud.service;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReactiveBatchLoaderTest {
+
+    @Test
+    public void testBatch() {
+        List<Collection<Integer>> batches = new ArrayList<>();
+        ReactiveBatchLoader<Integer, String> loader = new ReactiveBatchLoader<>(
+                keys -> {
+                    batches.add(keys);
+                    return Flux.fromIterable(keys)
+                               .filter(key -> key != 3)
+                               .map(String::valueOf);
+                },
+                Integer::valueOf,
+                Duration.ofMillis(50),
+                100);
+
+        Flux.just(1, 2, 2, 3, 4)
+            .flatMap(key -> loader.load(key).defaultIfEmpty("empty"))
+            .collectList()
+            .as(StepVerifier::create)
+            .expectNextMatches(list -> list.size() == 5
+                    && list.contains("empty")
+                    && list.stream().filter("2"::equals).count() == 2)
+            .verifyComplete();
+
+        assertEquals(1, batches.size());
+        assertEquals(4, batches.get(0).size());
+    }
+
+    @Test
+    public void testMaxBatchSize() {
+        ReactiveBatchLoader<Integer, Integer> loader = new ReactiveBatchLoader<>(
+                Flux::fromIterable,
+                Integer::valueOf,
+                Duration.ofSeconds(10),
+                2);
+
+        Flux.range(0, 10)
+            .flatMap(loader::load)
+            .as(StepVerifier::create)
+            .expectNextCount(10)
+            .verifyComplete();
+
+        assertEquals(5, loader.getBatchCount());
+        assertEquals(10, loader.getKeyCount());
+    }
+
+    @Test
+    public void testError() {
+        ReactiveBatchLoader<Integer, Integer> loader = new ReactiveBatchLoader<>(
+                keys -> Flux.error(new IllegalStateException()),
+                Integer::valueOf,
+                Duration.ofMillis(10),
+                10);
+
+        loader.load(1)
+              .as(StepVerifier::create)
+              .expectError(IllegalStateException.class)
+              .verify();
+    }
+}
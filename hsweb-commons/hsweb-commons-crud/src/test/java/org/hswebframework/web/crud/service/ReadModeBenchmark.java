@@ -0,0 +1,79 @@
+package org.hswebframework.web.crud.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hswebframework.web.crud.TestApplication;
+import org.hswebframework.web.crud.configuration.EasyormProperties;
+import org.hswebframework.web.crud.configuration.ReadOnlyTransactionAttributeSource;
+import org.hswebframework.web.crud.entity.TestEntity;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对比{@link EasyormProperties.ReadMode}在H2上每次查询的耗时,只在benchmark profile中执行:
+ * <pre>
+ * mvn test -P benchmark -pl hsweb-commons/hsweb-commons-crud
+ * </pre>
+ */
+@Slf4j
+@SpringBootTest(classes = TestApplication.class, args = {
+        "--easyorm.read-mode=autoCommit",
+        "--logging.level.org.hswebframework=warn",
+        "--logging.level.org.springframework=warn"
+})
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class ReadModeBenchmark {
+
+    static final int WARMUP = 2000;
+
+    static final int ITERATIONS = 10000;
+
+    static final int ROUNDS = 3;
+
+    @Autowired
+    private TestEntityService entityService;
+
+    @Autowired
+    private ReadOnlyTransactionAttributeSource attributeSource;
+
+    @Test
+    public void benchmark() {
+        TestEntity entity = TestEntity.of("read-mode-benchmark", 1);
+        entityService.insert(entity).block();
+        String id = entity.getId();
+
+        try {
+            run(EasyormProperties.ReadMode.transactional, id, WARMUP);
+            run(EasyormProperties.ReadMode.autoCommit, id, WARMUP);
+
+            long transactional = Long.MAX_VALUE;
+            long autoCommit = Long.MAX_VALUE;
+            //交替执行,取每种模式的最好成绩
+            for (int i = 0; i < ROUNDS; i++) {
+                transactional = Math.min(transactional, run(EasyormProperties.ReadMode.transactional, id, ITERATIONS));
+                autoCommit = Math.min(autoCommit, run(EasyormProperties.ReadMode.autoCommit, id, ITERATIONS));
+            }
+            log.warn("read mode benchmark ({} queries): transactional {} ns/query, autoCommit {} ns/query, saved {} ns/query",
+                     ITERATIONS, transactional, autoCommit, transactional - autoCommit);
+            assertTrue(transactional > 0 && autoCommit > 0);
+        } finally {
+            attributeSource.setMode(EasyormProperties.ReadMode.autoCommit);
+        }
+    }
+
+    //返回平均每次查询的耗时(纳秒)
+    private long run(EasyormProperties.ReadMode mode, String id, int iterations) {
+        attributeSource.setMode(mode);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            assertNotNull(entityService.findById(id).block());
+        }
+        return (System.nanoTime() - start) / iterations;
+    }
+}
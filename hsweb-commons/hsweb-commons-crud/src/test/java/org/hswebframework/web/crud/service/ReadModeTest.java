@@ -0,0 +1,71 @@
+package org.hswebframework.web.crud.service;
+
+import org.hswebframework.web.crud.TestApplication;
+import org.hswebframework.web.crud.configuration.EasyormProperties;
+import org.hswebframework.web.crud.configuration.ReadOnlyTransactionAttributeSource;
+import org.hswebframework.web.crud.entity.TestEntity;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.*;
+
+@SpringBootTest(classes = TestApplication.class, args = "--easyorm.read-mode=autoCommit")
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class ReadModeTest {
+
+    @Autowired
+    private TestEntityService entityService;
+
+    @Autowired
+    private TransactionInterceptor transactionInterceptor;
+
+    @Autowired
+    private ReactiveTransactionManager transactionManager;
+
+    @Test
+    public void testAttributeSource() throws Exception {
+        assertTrue(transactionInterceptor.getTransactionAttributeSource() instanceof ReadOnlyTransactionAttributeSource);
+        ReadOnlyTransactionAttributeSource source =
+                (ReadOnlyTransactionAttributeSource) transactionInterceptor.getTransactionAttributeSource();
+        assertEquals(EasyormProperties.ReadMode.autoCommit, source.getMode());
+
+        TransactionAttribute read = source
+                .getTransactionAttribute(ReactiveCrudService.class.getMethod("findById", Object.class), TestEntityService.class);
+        assertNotNull(read);
+        assertTrue(read.isReadOnly());
+        assertEquals(TransactionDefinition.PROPAGATION_SUPPORTS, read.getPropagationBehavior());
+
+        TransactionAttribute write = source
+                .getTransactionAttribute(ReactiveCrudService.class.getMethod("insert", Object.class), TestEntityService.class);
+        assertNotNull(write);
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRED, write.getPropagationBehavior());
+    }
+
+    @Test
+    public void testJoinOuterTransaction() {
+        TestEntity entity = TestEntity.of("read-mode", 20);
+
+        //外部事务中插入的数据,在事务提交前可以通过findById查询到
+        entityService
+                .insert(Mono.just(entity))
+                .then(Mono.defer(() -> entityService
+                        .findById(entity.getId())
+                        .map(found -> found.getId().equals(entity.getId()))))
+                .as(TransactionalOperator.create(transactionManager)::transactional)
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+    }
+}
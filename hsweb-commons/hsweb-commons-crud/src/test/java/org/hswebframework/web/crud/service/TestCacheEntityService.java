@@ -3,7 +3,13 @@ package org.hswebframework.web.crud.service;
 import org.hswebframework.web.crud.entity.TestEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
 public class TestCacheEntityService extends GenericReactiveCacheSupportCrudService<TestEntity,String> {
 
+    @Override
+    public Duration getNullValueCacheTime() {
+        return Duration.ofMinutes(1);
+    }
 }
@@ -0,0 +1,10 @@
+package org.hswebframework.web.crud.service;
+
+import org.hswebframework.web.crud.entity.TestEntity;
+import org.springframework.stereotype.Service;
+
+@Service
+public class TestQueryCacheEntityService extends GenericReactiveCrudService<TestEntity, String>
+        implements EnableQueryCacheReactiveCrudService<TestEntity, String> {
+
+}
@@ -0,0 +1,61 @@
+package org.hswebframework.web.crud.sql;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BoundedJdbcSchedulerTest {
+
+    @Test
+    public void testReject() throws Exception {
+        BoundedJdbcScheduler scheduler = new BoundedJdbcScheduler("jdbc-test", 1, 1);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+
+            Mono<String> running = Mono
+                    .fromCallable(() -> {
+                        started.countDown();
+                        release.await();
+                        return Thread.currentThread().getName();
+                    })
+                    .subscribeOn(scheduler.getScheduler())
+                    .cache();
+            running.subscribe();
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            //第二个任务进入队列
+            Mono<Integer> queued = Mono.fromCallable(() -> 2)
+                                       .subscribeOn(scheduler.getScheduler())
+                                       .cache();
+            queued.subscribe();
+            assertEquals(1, scheduler.getActiveCount());
+            assertEquals(1, scheduler.getQueuedCount());
+
+            //队列已满,立即拒绝
+            try {
+                Mono.fromCallable(() -> 3)
+                    .subscribeOn(scheduler.getScheduler())
+                    .block(Duration.ofSeconds(5));
+                fail("should be rejected");
+            } catch (RejectedExecutionException ignore) {
+            }
+            assertEquals(1, scheduler.getRejectedCount());
+
+            release.countDown();
+            assertTrue(running.block(Duration.ofSeconds(5)).startsWith("jdbc-test"));
+            assertEquals(Integer.valueOf(2), queued.block(Duration.ofSeconds(5)));
+            assertEquals(2, scheduler.getStartedCount());
+            assertTrue(scheduler.getMaxWaitMillis() >= 0);
+        } finally {
+            scheduler.dispose();
+        }
+        assertTrue(scheduler.isDisposed());
+    }
+}
@@ -0,0 +1,68 @@
+package org.hswebframework.web.crud.sql;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConnectionWrappersTest {
+
+    @Test
+    public void testIsQuery() {
+        assertTrue(ConnectionWrappers.isQuery("select * from s_test"));
+        assertTrue(ConnectionWrappers.isQuery("  SELECT 1"));
+        assertTrue(ConnectionWrappers.isQuery("with t as (select 1) select * from t"));
+        assertFalse(ConnectionWrappers.isQuery("update s_test set age = 1"));
+        assertFalse(ConnectionWrappers.isQuery(null));
+    }
+
+    @Test
+    public void testJdbc() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:connection_wrappers_test")) {
+            assertSame(connection, ConnectionWrappers.jdbc(connection, 0, 0, null));
+
+            Connection wrapped = ConnectionWrappers.jdbc(connection, 10, 5, null);
+            try (PreparedStatement statement = wrapped.prepareStatement("select 1")) {
+                assertEquals(10, statement.getFetchSize());
+                assertEquals(5, statement.getQueryTimeout());
+            }
+            try (PreparedStatement statement = wrapped.prepareStatement("create table connection_wrappers_test(id int)")) {
+                assertNotEquals(10, statement.getFetchSize());
+                assertEquals(5, statement.getQueryTimeout());
+            }
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AtomicInteger cancelled = new AtomicInteger();
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if ("cancel".equals(method.getName())) {
+                        cancelled.incrementAndGet();
+                    }
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+        Connection connection = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class[]{Connection.class},
+                (proxy, method, args) -> "prepareStatement".equals(method.getName()) ? statement : null);
+
+        ConnectionWrappers.RunningStatements running = new ConnectionWrappers.RunningStatements();
+        Connection wrapped = ConnectionWrappers.jdbc(connection, 0, 0, running);
+        wrapped.prepareStatement("select 1");
+        running.cancel();
+        assertEquals(1, cancelled.get());
+
+        //取消后创建的语句立即取消
+        wrapped.prepareStatement("select 2");
+        assertEquals(2, cancelled.get());
+    }
+}
@@ -0,0 +1,94 @@
+package org.hswebframework.web.crud.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.hswebframework.ezorm.rdb.executor.SqlRequests;
+import org.hswebframework.ezorm.rdb.executor.wrapper.ResultWrappers;
+import org.hswebframework.web.datasource.DataSourceHolder;
+import org.hswebframework.web.datasource.DatabaseType;
+import org.hswebframework.web.datasource.DynamicDataSource;
+import org.hswebframework.web.datasource.DynamicDataSourceService;
+import org.hswebframework.web.datasource.R2dbcDataSource;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DefaultJdbcReactiveExecutorTest {
+
+    @Test
+    public void testOffloadWithSwitchedDataSource() throws Exception {
+        DataSource defaultDataSource = createDataSource("jdbc_executor_default");
+        DataSource switched = createDataSource("jdbc_executor_switched");
+        try (Connection connection = switched.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table t_switched(id int)");
+        }
+
+        DefaultJdbcReactiveExecutor executor = new DefaultJdbcReactiveExecutor();
+        ReflectionTestUtils.setField(executor, "dataSource", defaultDataSource);
+        BoundedJdbcScheduler scheduler = new BoundedJdbcScheduler("jdbc-executor-test", 1, 10);
+        executor.setScheduler(scheduler);
+
+        ReflectionTestUtils.setField(DataSourceHolder.class, "dynamicDataSourceService", new DynamicDataSourceService() {
+            @Override
+            public org.hswebframework.web.datasource.JdbcDataSource getDataSource(String dataSourceId) {
+                return createDynamicDataSource(dataSourceId, switched);
+            }
+
+            @Override
+            public Mono<R2dbcDataSource> getR2dbcDataSource(String dataSourceId) {
+                return Mono.empty();
+            }
+
+            @Override
+            public DynamicDataSource getDefaultDataSource() {
+                return createDynamicDataSource("default", defaultDataSource);
+            }
+        });
+        DataSourceHolder.switcher().datasource().use("switched");
+        try {
+            //在调度器线程中执行时仍然使用切换后的数据源
+            Map<String, Object> result = executor
+                    .select(Mono.just(SqlRequests.of("select count(1) total from t_switched")), ResultWrappers.map())
+                    .blockLast(Duration.ofSeconds(10));
+            assertNotNull(result);
+            assertEquals(1, scheduler.getStartedCount());
+        } finally {
+            DataSourceHolder.switcher().datasource().reset();
+            ReflectionTestUtils.setField(DataSourceHolder.class, "dynamicDataSourceService", null);
+            scheduler.dispose();
+        }
+    }
+
+    private static DataSource createDataSource(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static org.hswebframework.web.datasource.JdbcDataSource createDynamicDataSource(String id, DataSource dataSource) {
+        return new org.hswebframework.web.datasource.JdbcDataSource() {
+            @Override
+            public DataSource getNative() {
+                return dataSource;
+            }
+
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public DatabaseType getType() {
+                return DatabaseType.h2;
+            }
+        };
+    }
+}
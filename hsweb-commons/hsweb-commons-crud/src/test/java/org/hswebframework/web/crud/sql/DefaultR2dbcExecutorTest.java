@@ -0,0 +1,105 @@
+package org.hswebframework.web.crud.sql;
+
+import org.hswebframework.ezorm.rdb.executor.reactive.ReactiveSqlExecutor;
+import org.hswebframework.web.crud.TestApplication;
+import org.hswebframework.web.crud.service.TestEntityService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import reactor.test.StepVerifier;
+
+import static org.junit.Assert.*;
+
+@SpringBootTest(classes = TestApplication.class)
+@RunWith(SpringRunner.class)
+public class DefaultR2dbcExecutorTest {
+
+    @Autowired
+    private ReactiveSqlExecutor sqlExecutor;
+
+    @Autowired
+    private TestEntityService entityService;
+
+    @Test
+    public void testUpdateBatch() {
+        assertTrue(sqlExecutor instanceof DefaultR2dbcExecutor);
+        DefaultR2dbcExecutor executor = ((DefaultR2dbcExecutor) sqlExecutor);
+        executor.setBatchSize(2);
+        try {
+            BatchSqlRequest insert = BatchSqlRequest.of("insert into s_test(id,name,age) values(?,?,?)");
+            for (int i = 0; i < 5; i++) {
+                insert.addParameters("batch-" + i, "batch", i == 4 ? null : i);
+            }
+            executor.updateBatch(insert)
+                    .as(StepVerifier::create)
+                    .expectNext(5)
+                    .verifyComplete();
+
+            executor.updateBatch(BatchSqlRequest
+                                         .of("update s_test set age = ? where id = ?")
+                                         .addParameters(10, "batch-0")
+                                         .addParameters(11, "batch-1")
+                                         .addParameters(12, "not-exists"))
+                    .as(StepVerifier::create)
+                    .expectNext(2)
+                    .verifyComplete();
+
+            entityService
+                    .createQuery()
+                    .where("name", "batch")
+                    .gte("age", 10)
+                    .count()
+                    .as(StepVerifier::create)
+                    .expectNext(2)
+                    .verifyComplete();
+        } finally {
+            executor.setBatchSize(500);
+        }
+    }
+
+    @Test
+    public void testFetchSize() {
+        DefaultR2dbcExecutor executor = ((DefaultR2dbcExecutor) sqlExecutor);
+        BatchSqlRequest insert = BatchSqlRequest.of("insert into s_test(id,name,age) values(?,?,?)");
+        for (int i = 0; i < 10; i++) {
+            insert.addParameters("fetch-" + i, "fetch", i);
+        }
+        executor.updateBatch(insert).block();
+
+        executor.setFetchSize(2);
+        try {
+            entityService
+                    .createQuery()
+                    .where("name", "fetch")
+                    .fetch()
+                    .take(3)
+                    .as(StepVerifier::create)
+                    .expectNextCount(3)
+                    .verifyComplete();
+
+            entityService
+                    .createQuery()
+                    .where("name", "fetch")
+                    .fetch()
+                    .as(StepVerifier::create)
+                    .expectNextCount(10)
+                    .verifyComplete();
+        } finally {
+            executor.setFetchSize(0);
+        }
+    }
+
+    @Test
+    public void testPartition() {
+        BatchSqlRequest request = BatchSqlRequest.of("select 1");
+        for (int i = 0; i < 5; i++) {
+            request.addParameters(i);
+        }
+        assertEquals(3, request.partition(2).size());
+        assertEquals(1, request.partition(2).get(2).size());
+        assertEquals(1, request.partition(0).get(0).size());
+        assertTrue(BatchSqlRequest.of("select 1").partition(2).isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package org.hswebframework.web.crud.sql;
+
+import org.hswebframework.web.api.crud.entity.QueryParamEntity;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class QueryTimeoutTest {
+
+    @Test
+    public void testResolve() {
+        Context empty = Context.empty();
+        assertNull(QueryTimeout.resolve(empty, null));
+        assertEquals(Duration.ofSeconds(10), QueryTimeout.resolve(empty, Duration.ofSeconds(10)));
+
+        Context ctx = QueryTimeout.with(Mono.subscriberContext(), Duration.ofSeconds(5)).block();
+        assertNotNull(ctx);
+        //以较短的时间为准
+        assertEquals(Duration.ofSeconds(5), QueryTimeout.resolve(ctx, Duration.ofSeconds(10)));
+        assertEquals(Duration.ofSeconds(1), QueryTimeout.resolve(ctx, Duration.ofSeconds(1)));
+        assertEquals(5, QueryTimeout.resolveSeconds(ctx, null));
+        assertEquals(0, QueryTimeout.resolveSeconds(empty, null));
+
+        QueryParamEntity param = new QueryParamEntity();
+        assertNull(QueryTimeout.of(param));
+        param.setTimeout(1500L);
+        assertEquals(Duration.ofMillis(1500), QueryTimeout.of(param));
+    }
+
+    @Test
+    public void testTimeout() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        try {
+            QueryTimeout
+                    .timeout(Flux.never().doOnCancel(() -> cancelled.set(true)), null)
+                    .as(flux -> QueryTimeout.with(flux, Duration.ofMillis(50)))
+                    .blockLast(Duration.ofSeconds(5));
+            fail("should timeout");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(cancelled.get());
+
+        assertEquals(Integer.valueOf(3), QueryTimeout
+                .timeout(Flux.just(1, 2, 3), Duration.ofSeconds(1))
+                .blockLast());
+    }
+
+    @Test
+    public void testSlowSubscriber() {
+        //只限制第一条数据的等待时间,消费较慢时不会超时
+        QueryTimeout
+                .timeout(Flux.range(0, 5), null)
+                .as(flux -> QueryTimeout.with(flux, Duration.ofMillis(50)))
+                .concatMap(i -> Mono.delay(Duration.ofMillis(100)).thenReturn(i), 1)
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2, 3, 4)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,75 @@
+package org.hswebframework.web.crud.sql.statistics;
+
+import org.hswebframework.ezorm.rdb.executor.SqlRequests;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SqlStatisticsTest {
+
+    @Test
+    public void testShape() {
+        assertEquals("select * from s_user where id in (?) and name = ? and age > ? and t1.c2=?",
+                     SqlShapes.normalize("select * from s_user where id in (?, ?,?) and  name = 'a''b' and age > 10 and t1.c2=?"));
+        assertEquals("insert into t(a,b) values (?)",
+                     SqlShapes.normalize("insert into t(a,b) values (?,?),(?,?), (?,?)"));
+        assertEquals("select * from t limit ? offset ?",
+                     SqlShapes.normalize("select * from t limit 10 offset 20"));
+        assertEquals(SqlShapes.of("select * from t where id in (?,?)"), SqlShapes.of("select * from t where id in (?)"));
+    }
+
+    @Test
+    public void testRecord() {
+        SqlStatistics statistics = new SqlStatistics(2, Duration.ofSeconds(10));
+
+        statistics
+                .select(Mono.just(SqlRequests.of("select * from t where id in (?,?)", 1, 2)),
+                        request -> Flux.from(request).thenMany(Flux.range(0, 5)))
+                .blockLast();
+        statistics
+                .select(Mono.just(SqlRequests.of("select * from t where id in (?)", 1)),
+                        request -> Flux.from(request).thenMany(Flux.range(0, 5)))
+                .take(1)
+                .blockLast();
+        statistics
+                .update(Mono.just(SqlRequests.of("update t set a = ?", 1)),
+                        request -> Flux.from(request).then(Mono.just(3)))
+                .block();
+        //超过最大形状数量,记录为OTHER
+        statistics
+                .update(Mono.just(SqlRequests.of("delete from t")),
+                        request -> Flux.from(request).then(Mono.just(1)))
+                .block();
+
+        assertEquals(2, statistics.getShapeCount());
+        List<SqlStatisticsSnapshot> top = statistics.getTop(10, SqlStatisticsSnapshot.COUNT);
+        assertEquals(3, top.size());
+        assertEquals("select * from t where id in (?)", top.get(0).getShape());
+        assertEquals(2, top.get(0).getCount());
+        assertEquals(6, top.get(0).getRows());
+        assertTrue(top.stream().anyMatch(snapshot -> SqlStatistics.OTHER_SHAPE.equals(snapshot.getShape())));
+
+        assertEquals(1, statistics.getTop(1, SqlStatisticsSnapshot.ROWS).size());
+
+        statistics.reset();
+        assertTrue(statistics.getTop(10, SqlStatisticsSnapshot.COUNT).isEmpty());
+    }
+
+    @Test
+    public void testPercentile() {
+        SqlShapeStatistics statistics = new SqlShapeStatistics("test");
+        for (int i = 0; i < 99; i++) {
+            statistics.record(500_000, 1, true);
+        }
+        statistics.record(100_000_000, 1, false);
+        assertEquals(512, statistics.getPercentileMicros(0.5));
+        assertEquals(131072, statistics.getPercentileMicros(1));
+        assertEquals(100, statistics.getMaxTime(java.util.concurrent.TimeUnit.MILLISECONDS));
+        assertEquals(1, statistics.getErrorCount());
+    }
+}
@@ -0,0 +1,118 @@
+package org.hswebframework.web.crud.web.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hswebframework.web.crud.TestApplication;
+import org.hswebframework.web.crud.entity.TestEntity;
+import org.hswebframework.web.crud.service.TestEntityService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+@SpringBootTest(classes = TestApplication.class, properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@RunWith(SpringRunner.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class StreamingExporterTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private TestEntityService service;
+
+    @Before
+    public void init() {
+        service.createDelete()
+               .in("age", 1001, -1001)
+               .execute()
+               .then(service.insert(Flux.just(TestEntity.of("export", 1001), TestEntity.of("=1+1", -1001))))
+               .as(StepVerifier::create)
+               .expectNext(2)
+               .verifyComplete();
+    }
+
+    @Test
+    public void testNdjson() {
+        String body = client
+                .get()
+                .uri(builder -> builder
+                        .path("/test/_export")
+                        .queryParam("where", "age in 1001,-1001")
+                        .queryParam("orderBy", "age asc")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(StreamingExporter.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        //没有被包装为ResponseMessage
+        assertTrue(lines[0].startsWith("{"));
+        assertTrue(lines[0].contains("\"name\":\"=1+1\""));
+        assertTrue(lines[1].contains("\"name\":\"export\""));
+        assertFalse(body.contains("\"result\""));
+    }
+
+    @Test
+    public void testCsv() {
+        String body = client
+                .get()
+                .uri(builder -> builder
+                        .path("/test/_export")
+                        .queryParam("format", "csv")
+                        .queryParam("where", "age in 1001,-1001")
+                        .queryParam("orderBy", "age asc")
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(StreamingExporter.TEXT_CSV)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        String[] lines = body.split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("\ufeff"));
+        assertTrue(lines[0].contains("name"));
+        //文本公式被转义,数字不转义
+        assertTrue(lines[1].contains("'=1+1"));
+        assertTrue(lines[1].contains("-1001"));
+        assertFalse(lines[1].contains("'-1001"));
+        assertTrue(lines[2].contains("export"));
+    }
+
+    @Test
+    public void testCsvHeaderPerSubscription() {
+        Flux<String> csv = StreamingExporter
+                .csv(Flux.just(Collections.singletonMap("name", "-test")), new ObjectMapper(), new DefaultDataBufferFactory())
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .reduce(String::concat)
+                .flux();
+        Mono<String> twice = csv.concatWith(csv).reduce(String::concat);
+
+        StepVerifier
+                .create(twice)
+                .expectNext("\ufeffname\r\n'-test\r\n\ufeffname\r\n'-test\r\n")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,21 @@
+package org.hswebframework.web.crud.web.reactive;
+
+import org.hswebframework.web.crud.entity.TestEntity;
+import org.hswebframework.web.crud.service.ReactiveCrudService;
+import org.hswebframework.web.crud.service.TestEntityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/test")
+public class TestEntityController implements ReactiveServiceQueryController<TestEntity, String> {
+
+    @Autowired
+    private TestEntityService service;
+
+    @Override
+    public ReactiveCrudService<TestEntity, String> getService() {
+        return service;
+    }
+}
@@ -6,7 +6,7 @@ import reactor.cache.CacheMono;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Collection;
+import java.util.*;
 import java.util.function.Function;
 
 public interface ReactiveCache<E> {
@@ -25,6 +25,92 @@ public interface ReactiveCache<E> {
 
     Mono<Void> clear();
 
+    /**
+     * 批量获取已存在的缓存,结果只包含命中的key
+     *
+     * @param keys key集合
+     * @param <K>  key类型
+     * @return key与缓存值的映射
+     * @since 4.0.15
+     */
+    default <K> Mono<Map<K, E>> getAllPresent(Collection<K> keys) {
+        return Flux
+                .fromIterable(new LinkedHashSet<>(keys))
+                .concatMap(key -> this
+                        .getMono(key)
+                        .map(value -> new AbstractMap.SimpleEntry<>(key, value)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new);
+    }
+
+    /**
+     * 批量写入缓存,写入的值可通过{@link ReactiveCache#getMono(Object)}获取
+     *
+     * @param values key与缓存值的映射
+     * @return void
+     * @since 4.0.15
+     */
+    default Mono<Void> putAll(Map<?, ? extends E> values) {
+        return Flux
+                .fromIterable(values.entrySet())
+                .flatMap(entry -> put(entry.getKey(), Mono.just(entry.getValue())))
+                .then();
+    }
+
+    /**
+     * 批量获取缓存,未命中的key只会调用一次加载器进行加载,并将加载结果批量写入缓存.
+     * 返回结果按传入的key的顺序排列,加载器未返回的key不会包含在结果中.
+     *
+     * <pre>
+     * cache.getAll(idList, missingIdList -> repository
+     *                 .findById(missingIdList)
+     *                 .collectMap(Entity::getId))
+     * </pre>
+     *
+     * @param keys          key集合
+     * @param missingLoader 未命中key的加载器
+     * @param <K>           key类型
+     * @return key与缓存值的映射
+     * @since 4.0.15
+     */
+    default <K> Mono<Map<K, E>> getAll(Collection<K> keys,
+                                       Function<Collection<K>, Mono<Map<K, E>>> missingLoader) {
+        if (keys.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return this
+                .getAllPresent(keys)
+                .flatMap(present -> {
+                    Set<K> missing = new LinkedHashSet<>();
+                    for (K key : keys) {
+                        if (!present.containsKey(key)) {
+                            missing.add(key);
+                        }
+                    }
+                    if (missing.isEmpty()) {
+                        return Mono.just(present);
+                    }
+                    return missingLoader
+                            .apply(missing)
+                            .defaultIfEmpty(Collections.emptyMap())
+                            .flatMap(loaded -> {
+                                Map<K, E> result = new LinkedHashMap<>();
+                                for (K key : keys) {
+                                    E value = present.get(key);
+                                    if (value == null) {
+                                        value = loaded.get(key);
+                                    }
+                                    if (value != null) {
+                                        result.put(key, value);
+                                    }
+                                }
+                                if (loaded.isEmpty()) {
+                                    return Mono.just(result);
+                                }
+                                return putAll(loaded).thenReturn(result);
+                            });
+                });
+    }
+
     default CacheFlux.FluxCacheBuilderMapMiss<E> flux(Object key) {
         return otherSupplier -> Flux
                 .defer(() -> this
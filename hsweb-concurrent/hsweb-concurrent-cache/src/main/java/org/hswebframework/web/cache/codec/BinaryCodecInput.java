@@ -0,0 +1,90 @@
+package org.hswebframework.web.cache.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制编码输入
+ *
+ * @see BinaryReactiveCacheCodec
+ * @since 4.0.15
+ */
+public class BinaryCodecInput {
+
+    private final BinaryReactiveCacheCodec codec;
+
+    private final byte[] data;
+
+    private int position;
+
+    BinaryCodecInput(BinaryReactiveCacheCodec codec, byte[] data, int position) {
+        this.codec = codec;
+        this.data = data;
+        this.position = position;
+    }
+
+    public int readByte() {
+        if (position >= data.length) {
+            throw new IllegalStateException("unexpected end of data");
+        }
+        return data[position++] & 0xFF;
+    }
+
+    public byte[] readBytes() {
+        int length = readVarInt();
+        byte[] bytes = new byte[length];
+        System.arraycopy(data, position, bytes, 0, length);
+        position += length;
+        return bytes;
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("malformed var int");
+    }
+
+    public long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IllegalStateException("malformed var long");
+    }
+
+    public long readFixedLong() {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    public String readString() {
+        int length = readVarInt();
+        if (length == 0) {
+            return null;
+        }
+        length -= 1;
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public <T> T readValue() {
+        return codec.readValue(this);
+    }
+}
@@ -0,0 +1,96 @@
+package org.hswebframework.web.cache.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 二进制编码输出
+ *
+ * @see BinaryReactiveCacheCodec
+ * @since 4.0.15
+ */
+public class BinaryCodecOutput {
+
+    private final BinaryReactiveCacheCodec codec;
+
+    private final ByteArrayOutputStream buffer;
+
+    BinaryCodecOutput(BinaryReactiveCacheCodec codec, int initialSize) {
+        this.codec = codec;
+        this.buffer = new ByteArrayOutputStream(initialSize);
+    }
+
+    public void writeByte(int value) {
+        buffer.write(value);
+    }
+
+    public void writeBytes(byte[] value) {
+        writeVarInt(value.length);
+        buffer.write(value, 0, value.length);
+    }
+
+    public void writeBoolean(boolean value) {
+        buffer.write(value ? 1 : 0);
+    }
+
+    /**
+     * 使用变长格式写入非负整数,小于128的值只占用1个字节
+     *
+     * @param value 值
+     */
+    public void writeVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer.write(value);
+    }
+
+    /**
+     * 使用变长格式写入long,负数使用zigzag编码
+     *
+     * @param value 值
+     */
+    public void writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        buffer.write((int) zigzag);
+    }
+
+    public void writeFixedLong(long value) {
+        for (int i = 56; i >= 0; i -= 8) {
+            buffer.write((int) (value >>> i));
+        }
+    }
+
+    /**
+     * 写入可为null的字符串
+     *
+     * @param value 值
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 写入任意值,包含类型信息
+     *
+     * @param value 值
+     */
+    public void writeValue(Object value) {
+        codec.writeValue(value, this);
+    }
+
+    byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,286 @@
+package org.hswebframework.web.cache.codec;
+
+import org.hswebframework.web.cache.supports.CacheInvalidationMessage;
+import org.hswebframework.web.cache.supports.NullValue;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 紧凑的二进制编解码器.常用类型以及通过{@link BinaryTypeCodec}注册的类型使用紧凑格式编码,
+ * 其他类型使用java序列化.
+ * <p>
+ * 编码格式: [版本号(1字节)][类型标记(1字节)][数据].版本号用于滚动升级,
+ * 解码时如果数据为java序列化格式(以0xACED开头),将使用java序列化进行解码,
+ * 以兼容之前使用{@link JdkReactiveCacheCodec}写入的数据.
+ *
+ * @since 4.0.15
+ */
+@SuppressWarnings("all")
+public class BinaryReactiveCacheCodec implements ReactiveCacheCodec {
+
+    public static final String ID = "binary";
+
+    static final byte VERSION = 1;
+
+    static final int TAG_NULL = 0,
+            TAG_STRING = 1,
+            TAG_INT = 2,
+            TAG_LONG = 3,
+            TAG_TRUE = 4,
+            TAG_FALSE = 5,
+            TAG_DOUBLE = 6,
+            TAG_FLOAT = 7,
+            TAG_LIST = 8,
+            TAG_SET = 9,
+            TAG_MAP = 10,
+            TAG_BYTES = 11,
+            TAG_ENUM = 12,
+            TAG_NULL_VALUE = 13,
+            TAG_TYPED = 14,
+            TAG_JDK = 15,
+            TAG_EXPIRING_NULL_VALUE = 16;
+
+    private final Map<Class<?>, BinaryTypeCodec<?>> codecByType = new ConcurrentHashMap<>();
+
+    private final Map<Integer, BinaryTypeCodec<?>> codecById = new ConcurrentHashMap<>();
+
+    private final Map<String, Class<?>> enumTypes = new ConcurrentHashMap<>();
+
+    private final JdkReactiveCacheCodec jdkCodec = new JdkReactiveCacheCodec();
+
+    public BinaryReactiveCacheCodec() {
+        this(BinaryReactiveCacheCodec.class.getClassLoader());
+    }
+
+    public BinaryReactiveCacheCodec(ClassLoader classLoader) {
+        register(new CacheInvalidationMessageCodec());
+        for (BinaryTypeCodec<?> codec : ServiceLoader.load(BinaryTypeCodec.class, classLoader)) {
+            register(codec);
+        }
+    }
+
+    public void register(BinaryTypeCodec<?> codec) {
+        if (codec.getTypeId() <= 0) {
+            throw new IllegalArgumentException("type id must be greater than 0:" + codec.getType());
+        }
+        BinaryTypeCodec<?> old = codecById.putIfAbsent(codec.getTypeId(), codec);
+        if (old != null && old.getType() != codec.getType()) {
+            throw new IllegalStateException("duplicate type id " + codec.getTypeId() + " for " + old.getType() + " and " + codec.getType());
+        }
+        codecByType.put(codec.getType(), codec);
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        BinaryCodecOutput output = new BinaryCodecOutput(this, 64);
+        output.writeByte(VERSION);
+        writeValue(value, output);
+        return output.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (JdkReactiveCacheCodec.isJdkSerialized(data)) {
+            return jdkCodec.decode(data);
+        }
+        if (data[0] != VERSION) {
+            throw new IllegalStateException("unsupported binary codec version:" + data[0]);
+        }
+        return readValue(new BinaryCodecInput(this, data, 1));
+    }
+
+    void writeValue(Object value, BinaryCodecOutput output) {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+            return;
+        }
+        BinaryTypeCodec codec = codecByType.get(value.getClass());
+        if (codec != null) {
+            output.writeByte(TAG_TYPED);
+            output.writeVarInt(codec.getTypeId());
+            codec.encode(value, output);
+            return;
+        }
+        if (value instanceof String) {
+            output.writeByte(TAG_STRING);
+            output.writeString((String) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(TAG_INT);
+            output.writeVarLong((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeVarLong((Long) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(((Boolean) value) ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Double) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeFixedLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Float) {
+            output.writeByte(TAG_FLOAT);
+            output.writeVarInt(Float.floatToIntBits((Float) value));
+        } else if (value instanceof byte[]) {
+            output.writeByte(TAG_BYTES);
+            output.writeBytes((byte[]) value);
+        } else if (value instanceof Enum) {
+            output.writeByte(TAG_ENUM);
+            output.writeString(((Enum<?>) value).getDeclaringClass().getName());
+            output.writeString(((Enum<?>) value).name());
+        } else if (value instanceof NullValue) {
+            long expireAt = ((NullValue) value).getExpireAt();
+            if (expireAt > 0) {
+                output.writeByte(TAG_EXPIRING_NULL_VALUE);
+                output.writeVarLong(expireAt);
+            } else {
+                output.writeByte(TAG_NULL_VALUE);
+            }
+        } else if (isPlainCollection(value, List.class, ArrayList.class, LinkedList.class)) {
+            output.writeByte(TAG_LIST);
+            writeCollection((Collection<?>) value, output);
+        } else if (isPlainCollection(value, Set.class, HashSet.class, LinkedHashSet.class)) {
+            output.writeByte(TAG_SET);
+            writeCollection((Collection<?>) value, output);
+        } else if (isPlainCollection(value, Map.class, HashMap.class, LinkedHashMap.class)) {
+            output.writeByte(TAG_MAP);
+            Map<?, ?> map = ((Map<?, ?>) value);
+            output.writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey(), output);
+                writeValue(entry.getValue(), output);
+            }
+        } else {
+            output.writeByte(TAG_JDK);
+            output.writeBytes(jdkCodec.encode(value));
+        }
+    }
+
+    //只对常用的集合类型使用紧凑格式,其他实现(如不可变集合,TreeMap)使用java序列化以保留其特性
+    private boolean isPlainCollection(Object value, Class<?> type, Class<?>... plainTypes) {
+        if (!type.isInstance(value)) {
+            return false;
+        }
+        for (Class<?> plainType : plainTypes) {
+            if (value.getClass() == plainType) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeCollection(Collection<?> collection, BinaryCodecOutput output) {
+        output.writeVarInt(collection.size());
+        for (Object element : collection) {
+            writeValue(element, output);
+        }
+    }
+
+    <T> T readValue(BinaryCodecInput input) {
+        int tag = input.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return (T) input.readString();
+            case TAG_INT:
+                return (T) Integer.valueOf((int) input.readVarLong());
+            case TAG_LONG:
+                return (T) Long.valueOf(input.readVarLong());
+            case TAG_TRUE:
+                return (T) Boolean.TRUE;
+            case TAG_FALSE:
+                return (T) Boolean.FALSE;
+            case TAG_DOUBLE:
+                return (T) Double.valueOf(Double.longBitsToDouble(input.readFixedLong()));
+            case TAG_FLOAT:
+                return (T) Float.valueOf(Float.intBitsToFloat(input.readVarInt()));
+            case TAG_BYTES:
+                return (T) input.readBytes();
+            case TAG_ENUM:
+                return (T) readEnum(input.readString(), input.readString());
+            case TAG_NULL_VALUE:
+                return (T) NullValue.INSTANCE;
+            case TAG_EXPIRING_NULL_VALUE:
+                return (T) NullValue.expireAt(input.readVarLong());
+            case TAG_LIST: {
+                int size = input.readVarInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(input));
+                }
+                return (T) list;
+            }
+            case TAG_SET: {
+                int size = input.readVarInt();
+                Set<Object> set = new LinkedHashSet<>(Math.max(16, size * 2));
+                for (int i = 0; i < size; i++) {
+                    set.add(readValue(input));
+                }
+                return (T) set;
+            }
+            case TAG_MAP: {
+                int size = input.readVarInt();
+                Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, size * 2));
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(input), readValue(input));
+                }
+                return (T) map;
+            }
+            case TAG_TYPED: {
+                int typeId = input.readVarInt();
+                BinaryTypeCodec<?> codec = codecById.get(typeId);
+                if (codec == null) {
+                    throw new IllegalStateException("unknown binary codec type id:" + typeId);
+                }
+                return (T) codec.decode(input);
+            }
+            case TAG_JDK:
+                return (T) jdkCodec.decode(input.readBytes());
+            default:
+                throw new IllegalStateException("unknown binary codec tag:" + tag);
+        }
+    }
+
+    private Object readEnum(String typeName, String name) {
+        Class type = enumTypes.computeIfAbsent(typeName, this::loadClass);
+        return Enum.valueOf(type, name);
+    }
+
+    private Class<?> loadClass(String typeName) {
+        try {
+            return Class.forName(typeName, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("enum type not found:" + typeName, e);
+        }
+    }
+
+    static class CacheInvalidationMessageCodec implements BinaryTypeCodec<CacheInvalidationMessage> {
+        @Override
+        public int getTypeId() {
+            return 1;
+        }
+
+        @Override
+        public Class<CacheInvalidationMessage> getType() {
+            return CacheInvalidationMessage.class;
+        }
+
+        @Override
+        public void encode(CacheInvalidationMessage value, BinaryCodecOutput output) {
+            output.writeVarLong(value.getVersion());
+            output.writeValue(value.getKeys() == null ? null : new ArrayList<>(value.getKeys()));
+        }
+
+        @Override
+        public CacheInvalidationMessage decode(BinaryCodecInput input) {
+            return new CacheInvalidationMessage(input.readVarLong(), input.readValue());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.hswebframework.web.cache.codec;
+
+/**
+ * {@link BinaryReactiveCacheCodec}中指定类型的编解码器,用于以紧凑的格式编码框架内的常用类型.
+ * <p>
+ * 可通过{@link java.util.ServiceLoader}扩展,在META-INF/services/org.hswebframework.web.cache.codec.BinaryTypeCodec
+ * 中声明实现类.类型ID会被写入编码结果中,一旦使用后不能修改,已使用的范围:
+ * <ul>
+ *     <li>1-99: hsweb-concurrent-cache</li>
+ *     <li>100-199: hsweb-authorization-api</li>
+ *     <li>200-299: hsweb-authorization-oauth2</li>
+ * </ul>
+ * 没有对应编解码器的类型将使用java序列化.
+ *
+ * @param <T> 类型
+ * @since 4.0.15
+ */
+public interface BinaryTypeCodec<T> {
+
+    /**
+     * @return 类型ID, 必须大于0且全局唯一
+     */
+    int getTypeId();
+
+    /**
+     * @return 类型, 只有类型完全一致时才会使用此编解码器
+     */
+    Class<T> getType();
+
+    void encode(T value, BinaryCodecOutput output);
+
+    T decode(BinaryCodecInput input);
+}
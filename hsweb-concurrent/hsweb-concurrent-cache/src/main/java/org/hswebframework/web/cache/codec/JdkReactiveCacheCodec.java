@@ -0,0 +1,51 @@
+package org.hswebframework.web.cache.codec;
+
+import lombok.SneakyThrows;
+import org.springframework.core.ConfigurableObjectInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * 使用java序列化的编解码器
+ *
+ * @since 4.0.15
+ */
+public class JdkReactiveCacheCodec implements ReactiveCacheCodec {
+
+    public static final String ID = "jdk";
+
+    static boolean isJdkSerialized(byte[] data) {
+        return data.length > 1 && data[0] == (byte) 0xAC && data[1] == (byte) 0xED;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    @SneakyThrows
+    public byte[] encode(Object value) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream stream = new ObjectOutputStream(outputStream)) {
+            stream.writeObject(value);
+        }
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    @SneakyThrows
+    public Object decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try (ObjectInputStream stream = new ConfigurableObjectInputStream(new ByteArrayInputStream(data), Thread
+                .currentThread()
+                .getContextClassLoader())) {
+            return stream.readObject();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.hswebframework.web.cache.codec;
+
+/**
+ * 缓存值编解码器,用于将缓存值编码为二进制后存储到redis等外部存储中.
+ * <p>
+ * 可通过{@link java.util.ServiceLoader}扩展,在META-INF/services/org.hswebframework.web.cache.codec.ReactiveCacheCodec
+ * 中声明实现类,然后通过配置{@link #getId()}进行选择.
+ *
+ * @see ReactiveCacheCodecs
+ * @since 4.0.15
+ */
+public interface ReactiveCacheCodec {
+
+    /**
+     * @return 编解码器ID, 如: jdk,binary
+     */
+    String getId();
+
+    /**
+     * 编码
+     *
+     * @param value 值
+     * @return 编码后的数据
+     */
+    byte[] encode(Object value);
+
+    /**
+     * 解码
+     *
+     * @param data 数据
+     * @return 解码后的值
+     */
+    Object decode(byte[] data);
+}
@@ -0,0 +1,66 @@
+package org.hswebframework.web.cache.codec;
+
+import lombok.AllArgsConstructor;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * 使用{@link ReactiveCacheCodec}的redis序列化器
+ *
+ * @since 4.0.15
+ */
+@AllArgsConstructor
+public class ReactiveCacheCodecRedisSerializer implements RedisSerializer<Object> {
+
+    private final ReactiveCacheCodec codec;
+
+    /**
+     * 根据编解码器ID创建序列化器
+     *
+     * @param codecId 编解码器ID,如: jdk,binary
+     * @return 序列化器
+     * @see ReactiveCacheCodecs#lookup(String)
+     */
+    public static RedisSerializer<Object> of(String codecId) {
+        return new ReactiveCacheCodecRedisSerializer(ReactiveCacheCodecs.lookup(codecId));
+    }
+
+    /**
+     * 创建key使用字符串,值使用指定编解码器的序列化上下文
+     *
+     * @param codec 编解码器
+     * @param <K>   key类型
+     * @param <V>   值类型
+     * @return 序列化上下文
+     */
+    @SuppressWarnings("all")
+    public static <K, V> RedisSerializationContext<K, V> createContext(ReactiveCacheCodec codec) {
+        RedisSerializer serializer = new ReactiveCacheCodecRedisSerializer(codec);
+        return RedisSerializationContext
+                .newSerializationContext()
+                .key((RedisSerializer) RedisSerializer.string())
+                .value(serializer)
+                .hashKey(RedisSerializer.string())
+                .hashValue(serializer)
+                .build();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        try {
+            return codec.encode(value);
+        } catch (Throwable error) {
+            throw new SerializationException("serialize value error:" + value, error);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        try {
+            return codec.decode(bytes);
+        } catch (Throwable error) {
+            throw new SerializationException("deserialize value error", error);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.hswebframework.web.cache.codec;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 缓存编解码器注册中心
+ *
+ * @since 4.0.15
+ */
+public final class ReactiveCacheCodecs {
+
+    private static final Map<String, ReactiveCacheCodec> codecs = new ConcurrentHashMap<>();
+
+    static {
+        register(new JdkReactiveCacheCodec());
+        register(new BinaryReactiveCacheCodec());
+        for (ReactiveCacheCodec codec : ServiceLoader.load(ReactiveCacheCodec.class, ReactiveCacheCodecs.class.getClassLoader())) {
+            register(codec);
+        }
+    }
+
+    private ReactiveCacheCodecs() {
+    }
+
+    public static void register(ReactiveCacheCodec codec) {
+        codecs.put(codec.getId(), codec);
+    }
+
+    /**
+     * 根据ID获取编解码器
+     *
+     * @param id ID
+     * @return 编解码器
+     * @throws UnsupportedOperationException 编解码器不存在时
+     */
+    public static ReactiveCacheCodec lookup(String id) {
+        ReactiveCacheCodec codec = codecs.get(id);
+        if (codec == null) {
+            throw new UnsupportedOperationException("unsupported cache codec:" + id);
+        }
+        return codec;
+    }
+}
@@ -1,7 +1,15 @@
 package org.hswebframework.web.cache.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.hswebframework.web.cache.ReactiveCacheManager;
+import org.hswebframework.web.cache.metrics.MicrometerReactiveCacheMetricsSink;
+import org.hswebframework.web.cache.metrics.ReactiveCacheMetricsSink;
+import org.hswebframework.web.cache.supports.AbstractReactiveCacheManager;
+import org.hswebframework.web.cache.web.ReactiveCacheMetricsController;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -14,11 +22,37 @@ public class ReactiveCacheManagerConfiguration {
 
 
     @Bean
-    public ReactiveCacheManager reactiveCacheManager(ReactiveCacheProperties properties, ApplicationContext context) {
+    public ReactiveCacheManager reactiveCacheManager(ReactiveCacheProperties properties,
+                                                     ApplicationContext context,
+                                                     ObjectProvider<ReactiveCacheMetricsSink> metricsSinks) {
 
-        return properties.createCacheManager(context);
+        ReactiveCacheManager cacheManager = properties.createCacheManager(context);
+        if (cacheManager instanceof AbstractReactiveCacheManager) {
+            metricsSinks.orderedStream().forEach(((AbstractReactiveCacheManager) cacheManager)::addMetricsSink);
+        }
+        return cacheManager;
 
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class MicrometerCacheMetricsConfiguration {
+
+        @Bean
+        public MicrometerReactiveCacheMetricsSink micrometerReactiveCacheMetricsSink(ObjectProvider<MeterRegistry> registry) {
+            return new MicrometerReactiveCacheMetricsSink(registry);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.web.reactive.DispatcherHandler")
+    @ConditionalOnProperty(prefix = "hsweb.cache.metrics.endpoint", name = "enabled", havingValue = "true")
+    static class CacheMetricsEndpointConfiguration {
+
+        @Bean
+        public ReactiveCacheMetricsController reactiveCacheMetricsController(ReactiveCacheManager cacheManager) {
+            return new ReactiveCacheMetricsController(cacheManager);
+        }
+    }
 
 }
@@ -6,18 +6,26 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hswebframework.web.cache.ReactiveCache;
 import org.hswebframework.web.cache.ReactiveCacheManager;
+import org.hswebframework.web.cache.codec.BinaryReactiveCacheCodec;
+import org.hswebframework.web.cache.codec.ReactiveCacheCodec;
+import org.hswebframework.web.cache.codec.ReactiveCacheCodecs;
+import org.hswebframework.web.cache.supports.AbstractReactiveCacheManager;
 import org.hswebframework.web.cache.supports.CaffeineReactiveCacheManager;
 import org.hswebframework.web.cache.supports.GuavaReactiveCacheManager;
+import org.hswebframework.web.cache.supports.ObjectSizeEstimator;
+import org.hswebframework.web.cache.supports.OffHeapReactiveCache;
+import org.hswebframework.web.cache.supports.OffHeapReactiveCacheManager;
 import org.hswebframework.web.cache.supports.RedisLocalReactiveCacheManager;
 import org.hswebframework.web.cache.supports.UnSupportedReactiveCache;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.ApplicationContext;
-import org.springframework.core.ResolvableType;
-import org.springframework.data.redis.core.ReactiveRedisOperations;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
 
 @ConfigurationProperties(prefix = "hsweb.cache")
 @Getter
@@ -31,11 +39,30 @@ public class ReactiveCacheProperties {
 
     private CaffeineProperties caffeine = new CaffeineProperties();
 
+    private OffHeapProperties offHeap = new OffHeapProperties();
+
     private RedisProperties redis = new RedisProperties();
 
+    /**
+     * 缓存未命中时加载数据的超时时间,为空时不限制
+     */
+    private Duration loadTimeout;
+
+    /**
+     * 全部缓存后台刷新的最大并发数量,防止大量缓存同时过期时对数据源造成压力
+     */
+    private int maxConcurrentRefreshes = 32;
+
+    /**
+     * 按缓存名称单独配置,如: hsweb.cache.caches.user-auth.load-timeout=5s,
+     * hsweb.cache.caches.user-auth.maximum-weight=64MB.未配置的缓存使用全局配置
+     */
+    private Map<String, CacheProperties> caches = new HashMap<>();
+
 
     public boolean anyProviderPresent() {
-        return ClassUtils.isPresent("com.google.common.cache.Cache", this.getClass().getClassLoader())
+        return type == Type.offheap
+                || ClassUtils.isPresent("com.google.common.cache.Cache", this.getClass().getClassLoader())
                 || ClassUtils.isPresent("com.github.benmanes.caffeine.cache.Cache", this.getClass().getClassLoader())
                 || ClassUtils.isPresent("org.springframework.data.redis.core.ReactiveRedisOperations", this.getClass().getClassLoader());
     }
@@ -61,25 +88,56 @@ public class ReactiveCacheProperties {
             };
         }
 
+        Semaphore refreshPermits = new Semaphore(maxConcurrentRefreshes);
         if (type == Type.redis) {
-            ReactiveRedisOperations<Object, Object> operations;
-            if (StringUtils.hasText(redis.getBeanName())) {
-                operations = context.getBean(redis.getBeanName(), ReactiveRedisOperations.class);
-            } else {
-                operations = (ReactiveRedisOperations) context.getBeanProvider(ResolvableType.forClassWithGenerics(ReactiveRedisOperations.class, Object.class, Object.class)).getIfAvailable();
-            }
-            return new RedisLocalReactiveCacheManager(operations, createCacheManager(redis.localCacheType));
+            //本地缓存同样需要初始化,后台刷新依赖本地缓存记录的写入时间
+            ReactiveCacheManager localCacheManager = customize(createCacheManager(redis.localCacheType), refreshPermits);
+            return customize(RedisCacheManagerFactory.create(this, context, localCacheManager), refreshPermits);
+        }
+
+        return customize(createCacheManager(type), refreshPermits);
+    }
+
+    private ReactiveCacheManager customize(ReactiveCacheManager manager, Semaphore refreshPermits) {
+        if (manager instanceof AbstractReactiveCacheManager) {
+            ((AbstractReactiveCacheManager) manager).setCacheInitializer((name, cache) -> {
+                cache.setLoadTimeout(getLoadTimeout(name));
+                cache.setRefreshAfterWrite(getRefreshAfterWrite(name));
+                cache.setRefreshPermits(refreshPermits);
+            });
+        }
+        return manager;
+    }
+
+    public Duration getLoadTimeout(String cacheName) {
+        CacheProperties properties = caches.get(cacheName);
+        if (properties != null && properties.getLoadTimeout() != null) {
+            return properties.getLoadTimeout();
+        }
+        return loadTimeout;
+    }
+
+    public Duration getRedisExpireAfterWrite(String cacheName) {
+        CacheProperties properties = caches.get(cacheName);
+        if (properties != null && properties.getExpireAfterWrite() != null) {
+            return properties.getExpireAfterWrite();
         }
+        return redis.getExpireAfterWrite();
+    }
 
-        return createCacheManager(type);
+    public Duration getRefreshAfterWrite(String cacheName) {
+        CacheProperties properties = caches.get(cacheName);
+        return properties == null ? null : properties.getRefreshAfterWrite();
     }
 
     private ReactiveCacheManager createCacheManager(Type type) {
         switch (type) {
             case guava:
-                return getGuava().createCacheManager();
+                return getGuava().createCacheManager(caches);
             case caffeine:
-                return getCaffeine().createCacheManager();
+                return getCaffeine().createCacheManager(caches);
+            case offheap:
+                return getOffHeap().createCacheManager(caches);
 
         }
         return createUnsupported();
@@ -88,35 +146,208 @@ public class ReactiveCacheProperties {
 
     @Getter
     @Setter
-    public static class RedisProperties {
-        private String beanName;
+    public static class CacheProperties {
+        /**
+         * 缓存未命中时加载数据的超时时间,为空时使用全局配置
+         */
+        private Duration loadTimeout;
 
-        private Type localCacheType = Type.caffeine;
+        /**
+         * 写入超过此时间后,读取时仍返回缓存值,同时在后台重新加载.
+         * 应小于expireAfterWrite,为空时不开启
+         */
+        private Duration refreshAfterWrite;
+
+        /**
+         * 以下为本地缓存(caffeine,guava)配置,为空时使用全局配置
+         */
+        private Long maximumSize;
+
+        /**
+         * 按估算的内存大小(字节)限制缓存,如: 64MB.设置后{@link #maximumSize}不再生效.
+         * 使用堆外缓存时为缓存最大占用的堆外内存
+         *
+         * @see org.hswebframework.web.cache.supports.ObjectSizeEstimator
+         */
+        private DataSize maximumWeight;
+
+        private Integer initialCapacity;
+
+        private Duration expireAfterWrite;
 
+        private Duration expireAfterAccess;
+
+        private Strength keyStrength;
+
+        private Strength valueStrength;
     }
 
+    /**
+     * 本地缓存的通用配置
+     */
     @Getter
     @Setter
-    public static class GuavaProperties {
+    static abstract class LocalCacheProperties {
         long maximumSize = 1024;
+        //按估算的内存大小限制缓存,为空时使用maximumSize
+        DataSize maximumWeight;
         int initialCapacity = 64;
         Duration expireAfterWrite = Duration.ofHours(6);
         Duration expireAfterAccess = Duration.ofHours(1);
         Strength keyStrength = Strength.SOFT;
         Strength valueStrength = Strength.SOFT;
 
-        ReactiveCacheManager createCacheManager() {
-            return new GuavaReactiveCacheManager(createBuilder());
+        //合并全局配置和指定缓存的配置
+        LocalCacheProperties merge(CacheProperties properties) {
+            if (properties == null) {
+                return this;
+            }
+            LocalCacheProperties merged = copy();
+            if (properties.getMaximumSize() != null) {
+                merged.maximumSize = properties.getMaximumSize();
+                merged.maximumWeight = null;
+            }
+            if (properties.getMaximumWeight() != null) {
+                merged.maximumWeight = properties.getMaximumWeight();
+            }
+            if (properties.getInitialCapacity() != null) {
+                merged.initialCapacity = properties.getInitialCapacity();
+            }
+            if (properties.getExpireAfterWrite() != null) {
+                merged.expireAfterWrite = properties.getExpireAfterWrite();
+            }
+            if (properties.getExpireAfterAccess() != null) {
+                merged.expireAfterAccess = properties.getExpireAfterAccess();
+            }
+            if (properties.getKeyStrength() != null) {
+                merged.keyStrength = properties.getKeyStrength();
+            }
+            if (properties.getValueStrength() != null) {
+                merged.valueStrength = properties.getValueStrength();
+            }
+            return merged;
+        }
+
+        abstract LocalCacheProperties newInstance();
+
+        private LocalCacheProperties copy() {
+            LocalCacheProperties copy = newInstance();
+            copy.maximumSize = maximumSize;
+            copy.maximumWeight = maximumWeight;
+            copy.initialCapacity = initialCapacity;
+            copy.expireAfterWrite = expireAfterWrite;
+            copy.expireAfterAccess = expireAfterAccess;
+            copy.keyStrength = keyStrength;
+            copy.valueStrength = valueStrength;
+            return copy;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class RedisProperties {
+        private String beanName;
+
+        /**
+         * 缓存值编解码器,如: jdk,binary.设置后将使用ReactiveRedisConnectionFactory创建独立的redis操作,
+         * 不再使用{@link #beanName}指定的ReactiveRedisOperations.
+         *
+         * @see ReactiveCacheCodecs
+         */
+        private String codec;
+
+        private Type localCacheType = Type.caffeine;
+
+        /**
+         * redis中的存储结构,hash: 整个缓存保存在一个hash中. keyValue: 每个缓存条目使用独立的key,支持过期时间和分片
+         */
+        private RedisLocalReactiveCacheManager.Layout layout = RedisLocalReactiveCacheManager.Layout.hash;
+
+        /**
+         * 使用keyValue存储时的分片数量,用于将缓存分散到redis集群的多个slot,小于等于0时不分片
+         */
+        private int shards = 0;
+
+        /**
+         * 使用keyValue存储时缓存在redis中的过期时间,可通过hsweb.cache.caches.{name}.expire-after-write单独配置,
+         * 为空时不过期
+         */
+        private Duration expireAfterWrite;
+
+        /**
+         * 使用keyValue存储时,本地记录的缓存代数的有效期.丢失清空缓存的通知时,最多在此时间内读取到旧的数据
+         */
+        private Duration generationCheckInterval = Duration.ofSeconds(1);
+
+        private InvalidationProperties invalidation = new InvalidationProperties();
+
+    }
+
+    /**
+     * 本地缓存失效通知配置,缓存变更时通过redis pub/sub通知其他节点清空本地缓存.
+     * <p>
+     * 默认使用旧版本的通知格式(每个key一条字符串消息),与旧版本节点兼容.
+     * 新的通知格式(合并发送,可附加版本号)需要所有节点都能处理,升级步骤:
+     * <ol>
+     *     <li>保持{@code legacy-format: true}(默认),滚动升级所有节点</li>
+     *     <li>所有节点升级完成后,配置{@code legacy-format: false},再次滚动重启</li>
+     * </ol>
+     * 新版本节点可同时处理两种格式的通知,{@link #bufferTime},{@link #bufferSize},{@link #versioned}只在新的通知格式下生效.
+     */
+    @Getter
+    @Setter
+    public static class InvalidationProperties {
+        /**
+         * 缓冲时间,在此时间内变更的key将合并为一条通知发送,为0时每次变更立即发送.
+         * 开启缓冲后,清除缓存的操作完成时可能还未通知其他节点,其他节点最多在此时间后才会清除本地缓存
+         */
+        private Duration bufferTime = Duration.ZERO;
+
+        /**
+         * 单条通知最大key数量
+         */
+        private int bufferSize = 512;
+
+        /**
+         * 是否为通知附加版本号,开启后节点发现通知丢失时将清空整个本地缓存
+         */
+        private boolean versioned = false;
+
+        /**
+         * 使用旧版本的通知格式(每个key一条字符串消息).旧版本节点只能处理字符串格式的通知,
+         * 所有节点都升级到新版本后才能关闭此配置
+         */
+        private boolean legacyFormat = true;
+    }
+
+    @Getter
+    @Setter
+    public static class GuavaProperties extends LocalCacheProperties {
+
+        ReactiveCacheManager createCacheManager(Map<String, CacheProperties> caches) {
+            return new GuavaReactiveCacheManager(name -> ((GuavaProperties) merge(caches.get(name))).createBuilder());
+        }
+
+        @Override
+        LocalCacheProperties newInstance() {
+            return new GuavaProperties();
         }
 
         CacheBuilder<Object, Object> createBuilder() {
-            CacheBuilder<Object,Object> builder = CacheBuilder.newBuilder()
+            CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+                    .initialCapacity(initialCapacity)
                     .expireAfterAccess(expireAfterAccess)
                     .expireAfterWrite(expireAfterWrite)
-                    .maximumSize(maximumSize);
+                    .recordStats();
+            if (maximumWeight != null) {
+                builder.maximumWeight(maximumWeight.toBytes())
+                       .weigher(ObjectSizeEstimator::weigh);
+            } else {
+                builder.maximumSize(maximumSize);
+            }
             if (valueStrength == Strength.SOFT) {
                 builder.softValues();
-            } else {
+            } else if (valueStrength == Strength.WEAK) {
                 builder.weakValues();
             }
             if (keyStrength == Strength.WEAK) {
@@ -128,26 +359,32 @@ public class ReactiveCacheProperties {
 
     @Getter
     @Setter
-    public static class CaffeineProperties {
-        long maximumSize = 1024;
-        int initialCapacity = 64;
-        Duration expireAfterWrite = Duration.ofHours(6);
-        Duration expireAfterAccess = Duration.ofHours(1);
-        Strength keyStrength = Strength.SOFT;
-        Strength valueStrength = Strength.SOFT;
+    public static class CaffeineProperties extends LocalCacheProperties {
 
-        ReactiveCacheManager createCacheManager() {
-            return new CaffeineReactiveCacheManager(createBuilder());
+        ReactiveCacheManager createCacheManager(Map<String, CacheProperties> caches) {
+            return new CaffeineReactiveCacheManager(name -> ((CaffeineProperties) merge(caches.get(name))).createBuilder());
+        }
+
+        @Override
+        LocalCacheProperties newInstance() {
+            return new CaffeineProperties();
         }
 
         Caffeine<Object, Object> createBuilder() {
-            Caffeine<Object,Object> builder = Caffeine.newBuilder()
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .initialCapacity(initialCapacity)
                     .expireAfterAccess(expireAfterAccess)
                     .expireAfterWrite(expireAfterWrite)
-                    .maximumSize(maximumSize);
+                    .recordStats();
+            if (maximumWeight != null) {
+                builder.maximumWeight(maximumWeight.toBytes())
+                       .weigher(ObjectSizeEstimator::weigh);
+            } else {
+                builder.maximumSize(maximumSize);
+            }
             if (valueStrength == Strength.SOFT) {
                 builder.softValues();
-            } else {
+            } else if (valueStrength == Strength.WEAK) {
                 builder.weakValues();
             }
             if (keyStrength == Strength.WEAK) {
@@ -157,12 +394,61 @@ public class ReactiveCacheProperties {
         }
     }
 
-    enum Strength {WEAK, SOFT}
+    /**
+     * 堆外内存缓存配置
+     *
+     * @see OffHeapReactiveCache
+     */
+    @Getter
+    @Setter
+    public static class OffHeapProperties {
+        //每个缓存最大占用的堆外内存
+        DataSize maximumSize = DataSize.ofMegabytes(64);
+        //分段数量,越大锁竞争越小
+        int concurrencyLevel = 16;
+        //内存块大小,值按块存储,块越小浪费的内存越少,但大对象需要更多的块
+        DataSize blockSize = DataSize.ofBytes(128);
+        //每次申请的内存大小
+        DataSize pageSize = DataSize.ofMegabytes(1);
+        Duration expireAfterWrite = Duration.ofHours(6);
+        //缓存值编解码器
+        String codec = BinaryReactiveCacheCodec.ID;
+
+        ReactiveCacheManager createCacheManager(Map<String, CacheProperties> caches) {
+            ReactiveCacheCodec codec = ReactiveCacheCodecs.lookup(this.codec);
+            return new OffHeapReactiveCacheManager(name -> createCache(codec, caches.get(name)));
+        }
+
+        OffHeapReactiveCache<?> createCache(ReactiveCacheCodec codec, CacheProperties properties) {
+            DataSize maximumSize = this.maximumSize;
+            Duration expireAfterWrite = this.expireAfterWrite;
+            if (properties != null) {
+                if (properties.getMaximumWeight() != null) {
+                    maximumSize = properties.getMaximumWeight();
+                }
+                if (properties.getExpireAfterWrite() != null) {
+                    expireAfterWrite = properties.getExpireAfterWrite();
+                }
+            }
+            return new OffHeapReactiveCache<>(codec,
+                                              maximumSize.toBytes(),
+                                              concurrencyLevel,
+                                              (int) blockSize.toBytes(),
+                                              (int) pageSize.toBytes(),
+                                              expireAfterWrite);
+        }
+    }
+
+    /**
+     * 本地缓存引用类型,STRONG为强引用,缓存只会因容量或过期被移除,GC表现更可预期
+     */
+    public enum Strength {WEAK, SOFT, STRONG}
 
     public enum Type {
         redis,
         caffeine,
         guava,
+        offheap,
         none,
     }
 
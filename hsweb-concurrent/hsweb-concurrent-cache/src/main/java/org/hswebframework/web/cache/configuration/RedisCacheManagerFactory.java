@@ -0,0 +1,54 @@
+package org.hswebframework.web.cache.configuration;
+
+import org.hswebframework.web.cache.ReactiveCacheManager;
+import org.hswebframework.web.cache.codec.ReactiveCacheCodec;
+import org.hswebframework.web.cache.codec.ReactiveCacheCodecRedisSerializer;
+import org.hswebframework.web.cache.codec.ReactiveCacheCodecs;
+import org.hswebframework.web.cache.supports.RedisLocalReactiveCacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.util.StringUtils;
+
+/**
+ * 创建redis缓存管理器.redis相关的类只在此类中引用,
+ * 使{@link ReactiveCacheProperties}在没有引入spring-data-redis时也能正常加载.
+ *
+ * @since 4.0.15
+ */
+class RedisCacheManagerFactory {
+
+    private RedisCacheManagerFactory() {
+    }
+
+    @SuppressWarnings("all")
+    static ReactiveCacheManager create(ReactiveCacheProperties properties,
+                                       ApplicationContext context,
+                                       ReactiveCacheManager localCacheManager) {
+        ReactiveCacheProperties.RedisProperties redis = properties.getRedis();
+        ReactiveRedisOperations<Object, Object> operations;
+        if (StringUtils.hasText(redis.getCodec())) {
+            ReactiveCacheCodec codec = ReactiveCacheCodecs.lookup(redis.getCodec());
+            operations = new ReactiveRedisTemplate<>(
+                    context.getBean(ReactiveRedisConnectionFactory.class),
+                    RedisSerializationContext.fromSerializer(new ReactiveCacheCodecRedisSerializer(codec)));
+        } else if (StringUtils.hasText(redis.getBeanName())) {
+            operations = context.getBean(redis.getBeanName(), ReactiveRedisOperations.class);
+        } else {
+            operations = (ReactiveRedisOperations) context.getBeanProvider(ResolvableType.forClassWithGenerics(ReactiveRedisOperations.class, Object.class, Object.class)).getIfAvailable();
+        }
+        RedisLocalReactiveCacheManager cacheManager = new RedisLocalReactiveCacheManager(operations, localCacheManager);
+        cacheManager.setInvalidationBufferTime(redis.getInvalidation().getBufferTime());
+        cacheManager.setInvalidationBufferSize(redis.getInvalidation().getBufferSize());
+        cacheManager.setInvalidationVersioned(redis.getInvalidation().isVersioned());
+        cacheManager.setLegacyInvalidation(redis.getInvalidation().isLegacyFormat());
+        cacheManager.setLayout(redis.getLayout());
+        cacheManager.setShards(redis.getShards());
+        cacheManager.setGenerationCheckInterval(redis.getGenerationCheckInterval());
+        cacheManager.setExpireAfterWrite(properties::getRedisExpireAfterWrite);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,86 @@
+package org.hswebframework.web.cache.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hswebframework.web.cache.supports.AbstractReactiveCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存指标快照
+ *
+ * @since 4.0.15
+ */
+@Getter
+@Setter
+public class CacheMetricsSnapshot {
+
+    private String name;
+
+    private long hits;
+
+    private long misses;
+
+    //命中了缓存的空值的次数,包含在hits中
+    private long nullHits;
+
+    private double hitRate;
+
+    private long loadSuccess;
+
+    private long loadFailure;
+
+    //平均加载耗时(毫秒)
+    private double averageLoadTime;
+
+    //key为耗时上限(毫秒),+Inf为超过最大上限
+    private Map<String, Long> loadLatencyHistogram;
+
+    private long coalescedLoads;
+
+    private long refreshes;
+
+    private long evictions;
+
+    //缓存数量,-1表示无法获取
+    private long size;
+
+    private long remoteCalls;
+
+    //平均远程请求耗时(毫秒)
+    private double averageRemoteTime;
+
+    public static CacheMetricsSnapshot of(String name, AbstractReactiveCache<?> cache) {
+        CacheStatistics statistics = cache.getStatistics();
+        CacheMetricsSnapshot snapshot = new CacheMetricsSnapshot();
+        snapshot.name = name;
+        snapshot.hits = statistics.getHitCount();
+        snapshot.misses = statistics.getMissCount();
+        snapshot.nullHits = statistics.getNullHitCount();
+        long requests = snapshot.hits + snapshot.misses;
+        snapshot.hitRate = requests == 0 ? 0 : (double) snapshot.hits / requests;
+        snapshot.loadSuccess = statistics.getLoadSuccessCount();
+        snapshot.loadFailure = statistics.getLoadFailureCount();
+        long loads = snapshot.loadSuccess + snapshot.loadFailure;
+        snapshot.averageLoadTime = loads == 0 ? 0 : (double) statistics.getTotalLoadTime(TimeUnit.MICROSECONDS) / loads / 1000;
+        long[] histogram = statistics.getLoadLatencyHistogram();
+        snapshot.loadLatencyHistogram = new LinkedHashMap<>();
+        for (int i = 0; i < histogram.length; i++) {
+            String bucket = i < CacheStatistics.LOAD_LATENCY_BUCKETS.length
+                    ? String.valueOf(CacheStatistics.LOAD_LATENCY_BUCKETS[i])
+                    : "+Inf";
+            snapshot.loadLatencyHistogram.put(bucket, histogram[i]);
+        }
+        snapshot.coalescedLoads = cache.getCoalescedCount();
+        snapshot.refreshes = cache.getRefreshCount();
+        snapshot.evictions = cache.getEvictionCount();
+        snapshot.size = cache.estimatedSize();
+        snapshot.remoteCalls = statistics.getRemoteCallCount();
+        snapshot.averageRemoteTime = snapshot.remoteCalls == 0
+                ? 0
+                : (double) statistics.getTotalRemoteTime(TimeUnit.MICROSECONDS) / snapshot.remoteCalls / 1000;
+        return snapshot;
+    }
+}
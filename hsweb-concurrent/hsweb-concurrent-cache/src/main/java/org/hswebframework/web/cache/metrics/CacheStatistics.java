@@ -0,0 +1,144 @@
+package org.hswebframework.web.cache.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 缓存统计信息,所有统计均基于{@link LongAdder},记录时不会产生额外的对象.
+ *
+ * @since 4.0.15
+ */
+public class CacheStatistics {
+
+    /**
+     * 加载耗时直方图的上限(毫秒),最后一个区间为超过最大上限的加载
+     */
+    public static final long[] LOAD_LATENCY_BUCKETS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder nullHits = new LongAdder();
+
+    private final LongAdder loadSuccess = new LongAdder();
+
+    private final LongAdder loadFailure = new LongAdder();
+
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private final LongAdder[] loadLatency = new LongAdder[LOAD_LATENCY_BUCKETS.length + 1];
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder remoteCalls = new LongAdder();
+
+    private final LongAdder totalRemoteTime = new LongAdder();
+
+    public CacheStatistics() {
+        for (int i = 0; i < loadLatency.length; i++) {
+            loadLatency[i] = new LongAdder();
+        }
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordHits(int count) {
+        hits.add(count);
+    }
+
+    /**
+     * 记录命中了缓存的空值(数据不存在)
+     */
+    public void recordNullHit() {
+        nullHits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordMisses(int count) {
+        misses.add(count);
+    }
+
+    /**
+     * 记录加载结果
+     *
+     * @param nanos   耗时(纳秒)
+     * @param success 是否成功
+     */
+    public void recordLoad(long nanos, boolean success) {
+        (success ? loadSuccess : loadFailure).increment();
+        totalLoadTime.add(nanos);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < LOAD_LATENCY_BUCKETS.length && millis > LOAD_LATENCY_BUCKETS[bucket]) {
+            bucket++;
+        }
+        loadLatency[bucket].increment();
+    }
+
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * 记录一次远程(如redis)请求
+     *
+     * @param nanos 耗时(纳秒)
+     */
+    public void recordRemoteCall(long nanos) {
+        remoteCalls.increment();
+        totalRemoteTime.add(nanos);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getNullHitCount() {
+        return nullHits.sum();
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccess.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailure.sum();
+    }
+
+    public long getTotalLoadTime(TimeUnit unit) {
+        return unit.convert(totalLoadTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return 各区间的加载次数, 与{@link #LOAD_LATENCY_BUCKETS}一一对应,最后一个为超过最大上限的次数
+     */
+    public long[] getLoadLatencyHistogram() {
+        long[] histogram = new long[loadLatency.length];
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = loadLatency[i].sum();
+        }
+        return histogram;
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getRemoteCallCount() {
+        return remoteCalls.sum();
+    }
+
+    public long getTotalRemoteTime(TimeUnit unit) {
+        return unit.convert(totalRemoteTime.sum(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,75 @@
+package org.hswebframework.web.cache.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.AllArgsConstructor;
+import org.hswebframework.web.cache.supports.AbstractReactiveCache;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 将缓存指标注册到Micrometer,指标名称以hsweb.cache开头,通过cache标签区分缓存名称.
+ *
+ * @since 4.0.15
+ */
+@AllArgsConstructor
+public class MicrometerReactiveCacheMetricsSink implements ReactiveCacheMetricsSink {
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+
+    @Override
+    public void bind(String cacheName, AbstractReactiveCache<?> cache) {
+        MeterRegistry registry = registryProvider.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        Tags tags = Tags.of("cache", cacheName);
+        CacheStatistics statistics = cache.getStatistics();
+
+        FunctionCounter.builder("hsweb.cache.gets", statistics, CacheStatistics::getHitCount)
+                       .tags(tags).tag("result", "hit")
+                       .register(registry);
+        FunctionCounter.builder("hsweb.cache.gets", statistics, CacheStatistics::getMissCount)
+                       .tags(tags).tag("result", "miss")
+                       .register(registry);
+
+        FunctionCounter.builder("hsweb.cache.null.hits", statistics, CacheStatistics::getNullHitCount)
+                       .tags(tags)
+                       .register(registry);
+
+        FunctionTimer.builder("hsweb.cache.loads", statistics,
+                              CacheStatistics::getLoadSuccessCount,
+                              stat -> stat.getTotalLoadTime(TimeUnit.NANOSECONDS),
+                              TimeUnit.NANOSECONDS)
+                     .tags(tags)
+                     .register(registry);
+        FunctionCounter.builder("hsweb.cache.load.failures", statistics, CacheStatistics::getLoadFailureCount)
+                       .tags(tags)
+                       .register(registry);
+
+        FunctionCounter.builder("hsweb.cache.load.coalesced", cache, AbstractReactiveCache::getCoalescedCount)
+                       .tags(tags)
+                       .register(registry);
+        FunctionCounter.builder("hsweb.cache.refreshes", cache, AbstractReactiveCache::getRefreshCount)
+                       .tags(tags)
+                       .register(registry);
+        FunctionCounter.builder("hsweb.cache.evictions", cache, AbstractReactiveCache::getEvictionCount)
+                       .tags(tags)
+                       .register(registry);
+
+        Gauge.builder("hsweb.cache.size", cache, AbstractReactiveCache::estimatedSize)
+             .tags(tags)
+             .register(registry);
+
+        FunctionTimer.builder("hsweb.cache.remote", statistics,
+                              CacheStatistics::getRemoteCallCount,
+                              stat -> stat.getTotalRemoteTime(TimeUnit.NANOSECONDS),
+                              TimeUnit.NANOSECONDS)
+                     .tags(tags)
+                     .register(registry);
+    }
+}
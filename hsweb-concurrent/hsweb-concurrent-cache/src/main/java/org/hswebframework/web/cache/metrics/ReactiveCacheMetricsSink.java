@@ -0,0 +1,22 @@
+package org.hswebframework.web.cache.metrics;
+
+import org.hswebframework.web.cache.supports.AbstractReactiveCache;
+
+/**
+ * 缓存监控指标输出,缓存创建后将调用{@link #bind(String, AbstractReactiveCache)},
+ * 实现类可根据{@link AbstractReactiveCache#getStatistics()}等方法读取指标并输出到监控系统.
+ *
+ * @see org.hswebframework.web.cache.supports.AbstractReactiveCacheManager#addMetricsSink(ReactiveCacheMetricsSink)
+ * @since 4.0.15
+ */
+public interface ReactiveCacheMetricsSink {
+
+    /**
+     * 绑定缓存
+     *
+     * @param cacheName 缓存名称
+     * @param cache     缓存
+     */
+    void bind(String cacheName, AbstractReactiveCache<?> cache);
+
+}
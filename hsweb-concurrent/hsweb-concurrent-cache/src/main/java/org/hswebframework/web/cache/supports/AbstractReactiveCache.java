@@ -0,0 +1,265 @@
+package org.hswebframework.web.cache.supports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.hswebframework.web.cache.ReactiveCache;
+import org.hswebframework.web.cache.metrics.CacheStatistics;
+import reactor.cache.CacheFlux;
+import reactor.cache.CacheMono;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 缓存实现基类,对同一个key并发的缓存未命中进行合并(single-flight),
+ * 同一时刻只会执行一次加载逻辑,其他订阅者共享加载结果.
+ * <p>
+ * 设置了{@link #setRefreshAfterWrite(Duration)}时,缓存写入超过该时间后仍然直接返回缓存值,
+ * 同时在后台使用{@link #mono(Object)}或{@link #flux(Object)}注册的加载逻辑重新加载.
+ *
+ * @param <E> 缓存值类型
+ * @since 4.0.15
+ */
+@SuppressWarnings("all")
+@Slf4j
+public abstract class AbstractReactiveCache<E> implements ReactiveCache<E> {
+
+    private final Map<Object, Mono<E>> monoLoading = new ConcurrentHashMap<>();
+
+    private final Map<Object, Mono<List<E>>> fluxLoading = new ConcurrentHashMap<>();
+
+    //被合并的等待者数量
+    private final LongAdder coalescedCount = new LongAdder();
+
+    //实际执行加载的次数
+    private final LongAdder loadCount = new LongAdder();
+
+    //后台刷新的次数
+    private final LongAdder refreshCount = new LongAdder();
+
+    /**
+     * 命中,加载,淘汰等统计信息
+     */
+    @Getter
+    private final CacheStatistics statistics = new CacheStatistics();
+
+    /**
+     * 加载超时时间,为null时不限制
+     */
+    @Getter
+    @Setter
+    private Duration loadTimeout;
+
+    /**
+     * 写入后超过此时间则在后台刷新缓存,为null时不刷新
+     */
+    @Getter
+    @Setter
+    private Duration refreshAfterWrite;
+
+    /**
+     * 后台刷新并发许可,多个缓存可共享同一个许可以限制总的刷新并发量,为null时不限制
+     */
+    @Getter
+    @Setter
+    private Semaphore refreshPermits;
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    public long getRefreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * @return 因容量或过期被淘汰的缓存数量
+     */
+    public long getEvictionCount() {
+        return statistics.getEvictionCount();
+    }
+
+    /**
+     * @return 缓存数量估算值, -1表示不支持
+     */
+    public long estimatedSize() {
+        return -1;
+    }
+
+    /**
+     * 记录命中或未命中,在读取缓存的实现中调用
+     *
+     * @param value 从缓存中读取到的值, 为null时表示未命中
+     * @return value
+     */
+    protected final Object recordLookup(Object value) {
+        if (value == null) {
+            statistics.recordMiss();
+        } else {
+            statistics.recordHit();
+        }
+        return value;
+    }
+
+    @Override
+    public CacheFlux.FluxCacheBuilderMapMiss<E> flux(Object key) {
+        return otherSupplier -> {
+            Supplier<Mono<List<E>>> loader = () -> otherSupplier
+                    .get()
+                    .collectList()
+                    .flatMap(values -> put(key, Flux.fromIterable(values)).thenReturn(values));
+            return Flux
+                    .defer(() -> this
+                            .getFlux(key)
+                            .doOnComplete(() -> refreshIfNecessary(fluxLoading, key, loader))
+                            .switchIfEmpty(Flux.defer(() -> this
+                                    .loadOnce(fluxLoading, key, loader)
+                                    .flatMapIterable(values -> values))));
+        };
+    }
+
+    @Override
+    public CacheMono.MonoCacheBuilderMapMiss<E> mono(Object key) {
+        return otherSupplier -> {
+            Supplier<Mono<E>> loader = () -> otherSupplier
+                    .get()
+                    .flatMap(value -> put(key, Mono.just(value)).thenReturn(value));
+            return Mono
+                    .defer(() -> this
+                            .getMono(key)
+                            .doOnNext(ignore -> refreshIfNecessary(monoLoading, key, loader))
+                            .switchIfEmpty(Mono.defer(() -> this.loadOnce(monoLoading, key, loader))));
+        };
+    }
+
+    /**
+     * 判断缓存是否已超过{@link #getRefreshAfterWrite()},需要在后台刷新.
+     *
+     * @param key key
+     * @return 是否需要刷新
+     * @see #wrapValue(Object)
+     * @see #isStale(Object)
+     */
+    protected boolean isRefreshRequired(Object key) {
+        return false;
+    }
+
+    /**
+     * 包装要写入本地缓存的值,开启了后台刷新时记录写入时间.
+     *
+     * @param value 值
+     * @return 实际写入缓存的值
+     */
+    protected Object wrapValue(Object value) {
+        if (refreshAfterWrite == null) {
+            return value;
+        }
+        return new RefreshableValue(value, System.currentTimeMillis());
+    }
+
+    /**
+     * 获取通过{@link #wrapValue(Object)}包装的原始值
+     *
+     * @param stored 缓存中的值
+     * @return 原始值
+     */
+    protected Object unwrapValue(Object stored) {
+        if (stored instanceof RefreshableValue) {
+            return ((RefreshableValue) stored).value;
+        }
+        return stored;
+    }
+
+    /**
+     * 判断通过{@link #wrapValue(Object)}包装的值是否已超过{@link #getRefreshAfterWrite()}
+     *
+     * @param stored 缓存中的值
+     * @return 是否需要刷新
+     */
+    protected boolean isStale(Object stored) {
+        Duration refreshAfterWrite = this.refreshAfterWrite;
+        return refreshAfterWrite != null
+                && stored instanceof RefreshableValue
+                && System.currentTimeMillis() - ((RefreshableValue) stored).writeTime >= refreshAfterWrite.toMillis();
+    }
+
+    private <T> void refreshIfNecessary(Map<Object, Mono<T>> loading, Object key, Supplier<Mono<T>> loader) {
+        if (refreshAfterWrite == null || loading.containsKey(key) || !isRefreshRequired(key)) {
+            return;
+        }
+        Semaphore permits = this.refreshPermits;
+        //超过最大并发刷新数量,忽略本次刷新,等待下一次命中时再尝试
+        if (permits != null && !permits.tryAcquire()) {
+            return;
+        }
+        refreshCount.increment();
+        this.loadOnce(loading, key, loader)
+            .doFinally(signal -> {
+                if (permits != null) {
+                    permits.release();
+                }
+            })
+            .subscribe(ignore -> {
+            }, error -> log.warn("refresh cache [{}] error", key, error));
+    }
+
+    /**
+     * 执行加载,如果相同key已经有正在进行中的加载,则直接订阅该加载结果.
+     *
+     * @param loading 正在进行中的加载
+     * @param key     key
+     * @param loader  加载逻辑
+     * @param <T>     结果类型
+     * @return 加载结果
+     */
+    protected <T> Mono<T> loadOnce(Map<Object, Mono<T>> loading, Object key, Supplier<Mono<T>> loader) {
+        Mono<T> inFlight = loading.get(key);
+        if (inFlight != null) {
+            coalescedCount.increment();
+            return inFlight;
+        }
+        Mono<T>[] holder = new Mono[1];
+        long[] startTime = new long[1];
+        Mono<T> load = Mono.defer(loader);
+        if (loadTimeout != null) {
+            load = load.timeout(loadTimeout);
+        }
+        holder[0] = load
+                .doOnSubscribe(ignore -> {
+                    loadCount.increment();
+                    startTime[0] = System.nanoTime();
+                })
+                .doOnSuccess(ignore -> statistics.recordLoad(System.nanoTime() - startTime[0], true))
+                .doOnError(ignore -> statistics.recordLoad(System.nanoTime() - startTime[0], false))
+                //加载完成后移除,后续的未命中将重新加载
+                .doFinally(signal -> loading.remove(key, holder[0]))
+                .cache();
+        inFlight = loading.putIfAbsent(key, holder[0]);
+        if (inFlight != null) {
+            coalescedCount.increment();
+            return inFlight;
+        }
+        return holder[0];
+    }
+
+    @AllArgsConstructor
+    @Getter
+    protected static class RefreshableValue {
+        private final Object value;
+
+        private final long writeTime;
+    }
+}
@@ -1,18 +1,67 @@
 package org.hswebframework.web.cache.supports;
 
+import lombok.Getter;
+import lombok.Setter;
 import org.hswebframework.web.cache.ReactiveCache;
 import org.hswebframework.web.cache.ReactiveCacheManager;
+import org.hswebframework.web.cache.metrics.ReactiveCacheMetricsSink;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 public abstract class AbstractReactiveCacheManager implements ReactiveCacheManager {
     private Map<String, ReactiveCache> caches = new ConcurrentHashMap<>();
 
+    /**
+     * 缓存创建后的初始化操作,参数为缓存名称和缓存实例,可用于按缓存名称设置加载超时,后台刷新等配置
+     */
+    @Getter
+    @Setter
+    private BiConsumer<String, AbstractReactiveCache<?>> cacheInitializer = (name, cache) -> {
+    };
+
+    private final List<ReactiveCacheMetricsSink> metricsSinks = new CopyOnWriteArrayList<>();
+
+    /**
+     * 添加监控指标输出,已创建的缓存将立即绑定
+     *
+     * @param sink ReactiveCacheMetricsSink
+     */
+    public void addMetricsSink(ReactiveCacheMetricsSink sink) {
+        metricsSinks.add(sink);
+        caches.forEach((name, cache) -> {
+            if (cache instanceof AbstractReactiveCache) {
+                sink.bind(name, (AbstractReactiveCache<?>) cache);
+            }
+        });
+    }
+
     @Override
     @SuppressWarnings("all")
     public <E> ReactiveCache<E> getCache(String name) {
-        return caches.computeIfAbsent(name, this::createCache);
+        return caches.computeIfAbsent(name, this::createAndInitCache);
+    }
+
+    /**
+     * @return 已创建的全部缓存, key为缓存名称
+     */
+    public Map<String, ReactiveCache> getCaches() {
+        return Collections.unmodifiableMap(caches);
+    }
+
+    private ReactiveCache createAndInitCache(String name) {
+        ReactiveCache cache = createCache(name);
+        if (cache instanceof AbstractReactiveCache) {
+            cacheInitializer.accept(name, (AbstractReactiveCache<?>) cache);
+            for (ReactiveCacheMetricsSink sink : metricsSinks) {
+                sink.bind(name, (AbstractReactiveCache<?>) cache);
+            }
+        }
+        return cache;
     }
 
     protected abstract <E> ReactiveCache<E> createCache(String name);
@@ -0,0 +1,33 @@
+package org.hswebframework.web.cache.supports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * 缓存失效通知,一条消息包含多个失效的key
+ *
+ * @since 4.0.15
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheInvalidationMessage implements Serializable {
+    private static final long serialVersionUID = -1;
+
+    /**
+     * 通知版本号,同一个缓存的版本号连续递增,为0时表示未开启版本号.
+     * 接收方发现版本号不连续时说明有消息丢失,将清空整个本地缓存
+     */
+    private long version;
+
+    /**
+     * 失效的key
+     */
+    private Collection<Object> keys;
+}
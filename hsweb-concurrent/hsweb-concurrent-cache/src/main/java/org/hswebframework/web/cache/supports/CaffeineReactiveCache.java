@@ -2,24 +2,22 @@ package org.hswebframework.web.cache.supports;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import lombok.AllArgsConstructor;
-import org.hswebframework.web.cache.ReactiveCache;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
-import java.util.Collection;
+import java.util.*;
 
 @SuppressWarnings("all")
 @AllArgsConstructor
-public class CaffeineReactiveCache<E> implements ReactiveCache<E> {
+public class CaffeineReactiveCache<E> extends AbstractReactiveCache<E> {
 
     private Cache<Object, Object> cache;
 
     @Override
     public Flux<E> getFlux(Object key) {
         return (Flux) Flux.defer(() -> {
-            Object v = cache.getIfPresent(key);
+            Object v = unwrapValue(recordLookup(cache.getIfPresent(key)));
             if (v == null) {
                 return Flux.empty();
             }
@@ -33,7 +31,7 @@ public class CaffeineReactiveCache<E> implements ReactiveCache<E> {
     @Override
     public Mono<E> getMono(Object key) {
         return Mono.defer(() -> {
-            Object v = cache.getIfPresent(key);
+            Object v = unwrapValue(recordLookup(cache.getIfPresent(key)));
             if (v == null) {
                 return Mono.empty();
             }
@@ -46,12 +44,12 @@ public class CaffeineReactiveCache<E> implements ReactiveCache<E> {
         return Mono.defer(() -> {
             if (data instanceof Flux) {
                 return ((Flux<E>) data).collectList()
-                        .doOnNext(v -> cache.put(key, v))
+                        .doOnNext(v -> cache.put(key, wrapValue(v)))
                         .then();
             }
             if (data instanceof Mono) {
                 return ((Mono<E>) data)
-                        .doOnNext(v -> cache.put(key, v))
+                        .doOnNext(v -> cache.put(key, wrapValue(v)))
                         .then();
             }
             return Mono.error(new UnsupportedOperationException("unsupport publisher:" + data));
@@ -66,8 +64,11 @@ public class CaffeineReactiveCache<E> implements ReactiveCache<E> {
     @Override
     public Flux<E> getAll(Object... keys) {
         return Flux.<E>defer(() -> {
-            return Flux.fromIterable(cache.getAllPresent(Arrays.asList(keys)).values())
-                    .map(e -> (E) e);
+            Map<Object, Object> present = cache.getAllPresent(Arrays.asList(keys));
+            getStatistics().recordHits(present.size());
+            getStatistics().recordMisses(keys.length - present.size());
+            return Flux.fromIterable(present.values())
+                    .map(e -> (E) unwrapValue(e));
         });
     }
 
@@ -80,4 +81,45 @@ public class CaffeineReactiveCache<E> implements ReactiveCache<E> {
     public Mono<Void> clear() {
         return Mono.fromRunnable(() -> cache.invalidateAll());
     }
+
+    @Override
+    public <K> Mono<Map<K, E>> getAllPresent(Collection<K> keys) {
+        return Mono.fromSupplier(() -> {
+            Map<K, E> result = new LinkedHashMap<>();
+            Map<Object, Object> present = cache.getAllPresent(keys);
+            getStatistics().recordHits(present.size());
+            getStatistics().recordMisses(keys.size() - present.size());
+            for (Map.Entry<Object, Object> entry : present.entrySet()) {
+                result.put((K) entry.getKey(), (E) unwrapValue(entry.getValue()));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Mono<Void> putAll(Map<?, ? extends E> values) {
+        return Mono.fromRunnable(() -> {
+            Map<Object, Object> wrapped = new HashMap<>(values.size());
+            for (Map.Entry<?, ? extends E> entry : values.entrySet()) {
+                wrapped.put(entry.getKey(), wrapValue(entry.getValue()));
+            }
+            cache.putAll(wrapped);
+        });
+    }
+
+    @Override
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        //需要构造缓存时开启recordStats
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    protected boolean isRefreshRequired(Object key) {
+        return isStale(cache.getIfPresent(key));
+    }
 }
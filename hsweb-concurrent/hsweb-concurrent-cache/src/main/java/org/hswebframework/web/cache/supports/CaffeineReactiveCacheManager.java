@@ -4,17 +4,21 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.AllArgsConstructor;
 import org.hswebframework.web.cache.ReactiveCache;
 
-import java.time.Duration;
+import java.util.function.Function;
 
 @AllArgsConstructor
 public class CaffeineReactiveCacheManager extends AbstractReactiveCacheManager {
 
-    private Caffeine<Object, Object> builder;
+    //根据缓存名称创建缓存构造器,用于按缓存名称设置不同的大小和过期时间
+    private Function<String, Caffeine<Object, Object>> builderFactory;
 
+    public CaffeineReactiveCacheManager(Caffeine<Object, Object> builder) {
+        this(name -> builder);
+    }
 
     @Override
     protected <E> ReactiveCache<E> createCache(String name) {
-        return new CaffeineReactiveCache<>(builder.build());
+        return new CaffeineReactiveCache<>(builderFactory.apply(name).build());
     }
 
 }
@@ -4,16 +4,21 @@ import com.google.common.cache.CacheBuilder;
 import lombok.AllArgsConstructor;
 import org.hswebframework.web.cache.ReactiveCache;
 
-import java.time.Duration;
+import java.util.function.Function;
 
 @AllArgsConstructor
 public class GuavaReactiveCacheManager extends AbstractReactiveCacheManager {
 
-    private CacheBuilder<Object, Object> builder;
+    //根据缓存名称创建缓存构造器,用于按缓存名称设置不同的大小和过期时间
+    private Function<String, CacheBuilder<Object, Object>> builderFactory;
+
+    public GuavaReactiveCacheManager(CacheBuilder<Object, Object> builder) {
+        this(name -> builder);
+    }
 
     @Override
     protected <E> ReactiveCache<E> createCache(String name) {
-        return new GuavaReactiveCache<>(builder.build());
+        return new GuavaReactiveCache<>(builderFactory.apply(name).build());
     }
 
 }
@@ -0,0 +1,239 @@
+package org.hswebframework.web.cache.supports;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.hswebframework.web.cache.ReactiveCache;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 每个缓存条目使用独立的redis key保存,支持按条目设置过期时间.
+ * <p>
+ * key格式为: {redisKey:分片}:代数:缓存key,设置了分片数量时,通过hash tag将同一个缓存分散到集群的多个slot中,
+ * 未设置分片时格式为: redisKey:代数:缓存key.
+ * <p>
+ * 清空缓存时只增加代数(generation),旧代数的key不再被访问,并在后台通过SCAN+UNLINK删除,
+ * 后台删除需要redis key使用字符串序列化,否则旧的key将在过期后由redis自动删除.
+ * <p>
+ * 本地记录的代数最多使用{@link #setGenerationCheckInterval(Duration)}指定的时间,之后重新从redis中获取,
+ * 即使丢失了清空缓存的通知,也只会在此时间内读写旧代数的数据.
+ *
+ * @param <E> 缓存值类型
+ * @since 4.0.15
+ */
+@SuppressWarnings("all")
+@Slf4j
+public class KeyValueRedisReactiveCache<E> extends RedisReactiveCache<E> {
+
+    private static final int BATCH_SIZE = 500;
+
+    //分片数量,小于等于0时不分片
+    private final int shards;
+
+    //写入后过期时间,为null时不过期
+    private final Duration expireAfterWrite;
+
+    private final String generationKey;
+
+    //本地记录的代数,-1表示需要从redis中重新获取
+    private volatile long generation = -1;
+
+    //本地记录的代数过期时间(System.nanoTime)
+    private volatile long generationExpiresAt;
+
+    /**
+     * 本地记录的代数有效期,超过此时间后重新从redis中获取,为0时每次读写都重新获取
+     */
+    @Getter
+    @Setter
+    private Duration generationCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * @param redisKey         redis key前缀
+     * @param operations       ReactiveRedisOperations
+     * @param localCache       本地缓存
+     * @param bufferTime       失效通知的缓冲时间
+     * @param bufferSize       失效通知的最大key数量
+     * @param versioned        是否为失效通知附加版本号
+     * @param shards           分片数量,小于等于0时不分片
+     * @param expireAfterWrite 写入后过期时间,为null时不过期
+     */
+    public KeyValueRedisReactiveCache(String redisKey,
+                                      ReactiveRedisOperations<Object, Object> operations,
+                                      ReactiveCache<E> localCache,
+                                      Duration bufferTime,
+                                      int bufferSize,
+                                      boolean versioned,
+                                      int shards,
+                                      Duration expireAfterWrite) {
+        super(redisKey, operations, localCache, bufferTime, bufferSize, versioned);
+        this.shards = shards;
+        this.expireAfterWrite = expireAfterWrite;
+        this.generationKey = redisKey + ":generation";
+    }
+
+    private Mono<Long> generation() {
+        long generation = this.generation;
+        if (generation >= 0 && generationExpiresAt - System.nanoTime() > 0) {
+            return Mono.just(generation);
+        }
+        //使用INCRBY 0 获取当前值,不受value序列化方式影响
+        return operations
+                .opsForValue()
+                .increment(generationKey, 0)
+                .doOnNext(this::updateGeneration);
+    }
+
+    private void updateGeneration(long gen) {
+        long previous = this.generation;
+        this.generation = gen;
+        this.generationExpiresAt = System.nanoTime() + generationCheckInterval.toNanos();
+        //代数已变更但没有收到清空通知,本地缓存中可能是旧代数的数据
+        if (previous >= 0 && previous != gen) {
+            log.debug("cache [{}] generation changed from {} to {}, clear local cache", redisKey, previous, gen);
+            clearLocalCache();
+        }
+    }
+
+    protected String createEntryKey(long generation, Object key) {
+        String strKey = String.valueOf(key);
+        if (shards <= 0) {
+            return redisKey + ":" + generation + ":" + strKey;
+        }
+        int shard = (strKey.hashCode() & Integer.MAX_VALUE) % shards;
+        return "{" + redisKey + ":" + shard + "}:" + generation + ":" + strKey;
+    }
+
+    private String createPattern(long generation) {
+        if (shards <= 0) {
+            return redisKey + ":" + generation + ":*";
+        }
+        return "{" + redisKey + ":*}:" + generation + ":*";
+    }
+
+    private List<Object> createEntryKeys(long generation, Collection<?> keys) {
+        List<Object> entryKeys = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            entryKeys.add(createEntryKey(generation, key));
+        }
+        return entryKeys;
+    }
+
+    @Override
+    protected void onRemoteCleared() {
+        generation = -1;
+    }
+
+    @Override
+    protected Mono<Object> remoteGet(Object key) {
+        return generation()
+                .flatMap(gen -> operations.opsForValue().get(createEntryKey(gen, key)));
+    }
+
+    @Override
+    protected Mono<List<Object>> remoteMultiGet(List<Object> keys) {
+        if (keys.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        return generation()
+                .flatMap(gen -> operations.opsForValue().multiGet(createEntryKeys(gen, keys)));
+    }
+
+    @Override
+    protected Flux<Object> remoteValues() {
+        return generation()
+                .flatMapMany(gen -> operations.scan(ScanOptions.scanOptions()
+                                                               .match(createPattern(gen))
+                                                               .count(BATCH_SIZE)
+                                                               .build()))
+                .buffer(BATCH_SIZE)
+                .concatMap(entryKeys -> operations.opsForValue().multiGet(entryKeys))
+                .flatMapIterable(values -> {
+                    List<Object> present = new ArrayList<>(values.size());
+                    for (Object value : values) {
+                        if (value != null) {
+                            present.add(value);
+                        }
+                    }
+                    return present;
+                });
+    }
+
+    @Override
+    protected Mono<?> remotePut(Object key, Object value) {
+        return generation()
+                .flatMap(gen -> {
+                    String entryKey = createEntryKey(gen, key);
+                    return expireAfterWrite == null
+                            ? operations.opsForValue().set(entryKey, value)
+                            : operations.opsForValue().set(entryKey, value, expireAfterWrite);
+                });
+    }
+
+    @Override
+    protected Mono<?> remotePutAll(Map<?, ?> values) {
+        if (values.isEmpty()) {
+            return Mono.empty();
+        }
+        if (expireAfterWrite == null) {
+            return generation()
+                    .flatMap(gen -> {
+                        Map<Object, Object> entries = new HashMap<>(values.size());
+                        for (Map.Entry<?, ?> entry : values.entrySet()) {
+                            entries.put(createEntryKey(gen, entry.getKey()), entry.getValue());
+                        }
+                        return operations.opsForValue().multiSet(entries);
+                    });
+        }
+        //MSET不支持过期时间,并发发送SET命令,由客户端合并为管道发送
+        return generation()
+                .flatMapMany(gen -> Flux
+                        .fromIterable(values.entrySet())
+                        .flatMap(entry -> operations
+                                .opsForValue()
+                                .set(createEntryKey(gen, entry.getKey()), entry.getValue(), expireAfterWrite)))
+                .then();
+    }
+
+    @Override
+    protected Mono<?> remoteRemove(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+        return generation()
+                .flatMap(gen -> operations.unlink(createEntryKeys(gen, keys).toArray()));
+    }
+
+    @Override
+    protected Mono<?> remoteClear() {
+        return operations
+                .opsForValue()
+                .increment(generationKey)
+                .doOnNext(gen -> {
+                    this.generation = gen;
+                    this.generationExpiresAt = System.nanoTime() + generationCheckInterval.toNanos();
+                    removeGeneration(gen - 1);
+                });
+    }
+
+    //后台删除旧代数的缓存
+    private void removeGeneration(long generation) {
+        operations
+                .scan(ScanOptions.scanOptions()
+                                 .match(createPattern(generation))
+                                 .count(BATCH_SIZE)
+                                 .build())
+                .buffer(BATCH_SIZE)
+                .concatMap(entryKeys -> operations.unlink(entryKeys.toArray()))
+                .reduce(0L, Long::sum)
+                .subscribe(
+                        count -> log.debug("removed {} entries of cache [{}] generation {}", count, redisKey, generation),
+                        error -> log.warn("remove entries of cache [{}] generation {} error", redisKey, generation, error));
+    }
+}
@@ -1,10 +1,57 @@
 package org.hswebframework.web.cache.supports;
 
 import java.io.Serializable;
+import java.time.Duration;
 
 public class NullValue implements Serializable {
     private static final long serialVersionUID = -1;
 
     public static final NullValue INSTANCE = new NullValue();
 
+    //过期时间戳,0表示不过期
+    private final long expireAt;
+
+    public NullValue() {
+        this(0);
+    }
+
+    private NullValue(long expireAt) {
+        this.expireAt = expireAt;
+    }
+
+    /**
+     * 创建有过期时间的空值,用于缓存不存在的数据
+     *
+     * @param ttl 过期时间
+     * @return NullValue
+     * @since 4.0.15
+     */
+    public static NullValue expireAfter(Duration ttl) {
+        return expireAt(System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    /**
+     * @param expireAt 过期时间戳,0表示不过期
+     * @return NullValue
+     * @since 4.0.15
+     */
+    public static NullValue expireAt(long expireAt) {
+        return expireAt <= 0 ? INSTANCE : new NullValue(expireAt);
+    }
+
+    /**
+     * @return 过期时间戳,0表示不过期
+     * @since 4.0.15
+     */
+    public long getExpireAt() {
+        return expireAt;
+    }
+
+    /**
+     * @return 是否已过期
+     * @since 4.0.15
+     */
+    public boolean isExpired() {
+        return expireAt > 0 && System.currentTimeMillis() >= expireAt;
+    }
 }
@@ -0,0 +1,161 @@
+package org.hswebframework.web.cache.supports;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 估算缓存值占用的内存大小(字节),用于按内存限制本地缓存大小.
+ * <p>
+ * 只在写入缓存时计算一次,结果为估算值:常用类型按JVM(64位,压缩指针)布局估算,
+ * 其他对象通过反射遍历字段,超过{@link #MAX_DEPTH}层的对象不再计算.
+ *
+ * @since 4.0.15
+ */
+public final class ObjectSizeEstimator {
+
+    static final int MAX_DEPTH = 8;
+
+    private static final int OBJECT_HEADER = 12;
+
+    private static final int REFERENCE = 4;
+
+    private static final Map<Class<?>, Field[]> fieldsCache = new ConcurrentHashMap<>();
+
+    private ObjectSizeEstimator() {
+    }
+
+    /**
+     * 估算缓存条目大小,结果不超过{@link Integer#MAX_VALUE},可直接作为缓存权重使用
+     *
+     * @param key   key
+     * @param value 值
+     * @return 估算大小
+     */
+    public static int weigh(Object key, Object value) {
+        long size = estimate(key) + estimate(value);
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    public static long estimate(Object value) {
+        return estimate(value, 0, new IdentityHashMap<>());
+    }
+
+    private static long estimate(Object value, int depth, Map<Object, Boolean> visited) {
+        if (value == null || depth > MAX_DEPTH) {
+            return 0;
+        }
+        if (value instanceof AbstractReactiveCache.RefreshableValue) {
+            return align(OBJECT_HEADER + REFERENCE + 8)
+                    + estimate(((AbstractReactiveCache.RefreshableValue) value).getValue(), depth + 1, visited);
+        }
+        if (value instanceof String) {
+            //String对象 + char[]
+            return 24 + align(16 + ((String) value).length() * 2L);
+        }
+        if (value instanceof Long || value instanceof Double || value instanceof Date) {
+            return 24;
+        }
+        if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return 64;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof Enum) {
+            return 16;
+        }
+        if (value instanceof byte[]) {
+            return align(16 + ((byte[]) value).length);
+        }
+        if (visited.put(value, Boolean.TRUE) != null) {
+            return 0;
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            //集合本身及每个元素的节点或数组槽位
+            long size = 40 + collection.size() * (long) (value instanceof List ? REFERENCE : 32);
+            for (Object element : collection) {
+                size += estimate(element, depth + 1, visited);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            long size = 48 + map.size() * 36L;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += estimate(entry.getKey(), depth + 1, visited);
+                size += estimate(entry.getValue(), depth + 1, visited);
+            }
+            return size;
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            return estimateArray(value, depth, visited);
+        }
+        long size = OBJECT_HEADER;
+        for (Field field : getFields(type)) {
+            Class<?> fieldType = field.getType();
+            if (fieldType.isPrimitive()) {
+                size += primitiveSize(fieldType);
+                continue;
+            }
+            size += REFERENCE;
+            try {
+                size += estimate(field.get(value), depth + 1, visited);
+            } catch (IllegalAccessException ignore) {
+            }
+        }
+        return align(size);
+    }
+
+    private static long estimateArray(Object array, int depth, Map<Object, Boolean> visited) {
+        Class<?> componentType = array.getClass().getComponentType();
+        int length = java.lang.reflect.Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            return align(16 + (long) length * primitiveSize(componentType));
+        }
+        long size = align(16 + (long) length * REFERENCE);
+        for (Object element : (Object[]) array) {
+            size += estimate(element, depth + 1, visited);
+        }
+        return size;
+    }
+
+    private static Field[] getFields(Class<?> type) {
+        return fieldsCache.computeIfAbsent(type, clazz -> {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (RuntimeException ignore) {
+                        //无法访问的字段不计算
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        });
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
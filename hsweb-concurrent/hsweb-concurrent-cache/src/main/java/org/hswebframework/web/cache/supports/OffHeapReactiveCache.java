@@ -0,0 +1,470 @@
+package org.hswebframework.web.cache.supports;
+
+import lombok.AllArgsConstructor;
+import org.hswebframework.web.cache.codec.ReactiveCacheCodec;
+import org.hswebframework.web.cache.metrics.CacheStatistics;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 堆外内存缓存,缓存值通过{@link ReactiveCacheCodec}编码后保存在直接内存(DirectByteBuffer)中,
+ * 堆内只保留key和少量索引信息,适用于数据量较大的缓存,避免大量缓存对象进入老年代导致GC停顿.
+ * <p>
+ * 缓存按key的hash分为多个段,每个段独立加锁.段内内存按固定大小的块分配,一个值占用一个或多个块,
+ * 块在使用时按页(pageSize)逐步申请,不会预先占用全部内存.内存不足时按LRU淘汰最久未访问的缓存.
+ * <p>
+ * 每次读取都会重新解码,返回的对象与写入的对象不是同一个实例.
+ *
+ * @param <E> 缓存值类型
+ * @since 4.0.15
+ */
+@SuppressWarnings("all")
+public class OffHeapReactiveCache<E> extends AbstractReactiveCache<E> {
+
+    private final ReactiveCacheCodec codec;
+
+    private final Segment[] segments;
+
+    private final int segmentMask;
+
+    //写入后过期时间,小于等于0时不过期
+    private final long expireAfterWriteMillis;
+
+    /**
+     * @param codec            编解码器
+     * @param maximumBytes     最大占用内存(字节)
+     * @param concurrencyLevel 分段数量,将调整为2的幂
+     * @param blockSize        内存块大小(字节)
+     * @param pageSize         每次申请的内存页大小(字节)
+     * @param expireAfterWrite 写入后过期时间,为null时不过期
+     */
+    public OffHeapReactiveCache(ReactiveCacheCodec codec,
+                                long maximumBytes,
+                                int concurrencyLevel,
+                                int blockSize,
+                                int pageSize,
+                                Duration expireAfterWrite) {
+        if (blockSize <= 0 || pageSize < blockSize) {
+            throw new IllegalArgumentException("illegal blockSize [" + blockSize + "] or pageSize [" + pageSize + "]");
+        }
+        this.codec = codec;
+        int segmentSize = 1;
+        while (segmentSize < concurrencyLevel) {
+            segmentSize <<= 1;
+        }
+        this.segments = new Segment[segmentSize];
+        this.segmentMask = segmentSize - 1;
+        long blocksPerSegment = Math.max(1, maximumBytes / segmentSize / blockSize);
+        //单个段最多使用Integer.MAX_VALUE字节
+        int maxBlocks = (int) Math.min(blocksPerSegment, Integer.MAX_VALUE / blockSize);
+        int pageBlocks = Math.min(pageSize / blockSize, maxBlocks);
+        for (int i = 0; i < segmentSize; i++) {
+            segments[i] = new Segment(blockSize, pageBlocks, maxBlocks, getStatistics());
+        }
+        this.expireAfterWriteMillis = expireAfterWrite == null ? 0 : expireAfterWrite.toMillis();
+    }
+
+    @Override
+    public long estimatedSize() {
+        return size();
+    }
+
+    /**
+     * @return 缓存数量
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return 已使用的内存(字节),按块计算
+     */
+    public long getUsedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.usedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return 已申请的堆外内存(字节)
+     */
+    public long getAllocatedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.allocatedBytes();
+        }
+        return bytes;
+    }
+
+    private Segment segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & segmentMask];
+    }
+
+    private Object read(Object key) {
+        byte[] data = (byte[]) recordLookup(segmentFor(key).get(key, System.currentTimeMillis(), expireAfterWriteMillis));
+        return data == null ? null : codec.decode(data);
+    }
+
+    private void write(Object key, Object value) {
+        //在锁外编码,减少锁占用时间
+        byte[] data = codec.encode(value);
+        segmentFor(key).put(key, data, System.currentTimeMillis());
+    }
+
+    @Override
+    public Flux<E> getFlux(Object key) {
+        return (Flux) Flux.defer(() -> {
+            Object v = read(key);
+            if (v == null) {
+                return Flux.empty();
+            }
+            if (v instanceof Iterable) {
+                return Flux.fromIterable(((Iterable) v));
+            }
+            return Flux.just(v);
+        });
+    }
+
+    @Override
+    public Mono<E> getMono(Object key) {
+        return Mono.defer(() -> {
+            Object v = read(key);
+            if (v == null) {
+                return Mono.empty();
+            }
+            return (Mono) Mono.just(v);
+        });
+    }
+
+    @Override
+    public Mono<Void> put(Object key, Publisher<E> data) {
+        return Mono.defer(() -> {
+            if (data instanceof Flux) {
+                return ((Flux<E>) data).collectList()
+                        .doOnNext(v -> write(key, v))
+                        .then();
+            }
+            if (data instanceof Mono) {
+                return ((Mono<E>) data)
+                        .doOnNext(v -> write(key, v))
+                        .then();
+            }
+            return Mono.error(new UnsupportedOperationException("unsupport publisher:" + data));
+        });
+    }
+
+    @Override
+    public Mono<Void> evict(Object key) {
+        return Mono.fromRunnable(() -> segmentFor(key).remove(key));
+    }
+
+    @Override
+    public Flux<E> getAll(Object... keys) {
+        return Flux.defer(() -> {
+            List<E> values = new ArrayList<>(keys.length);
+            for (Object key : keys) {
+                Object v = read(key);
+                if (v != null) {
+                    values.add((E) v);
+                }
+            }
+            return Flux.fromIterable(values);
+        });
+    }
+
+    @Override
+    public Mono<Void> evictAll(Iterable<?> keys) {
+        return Mono.fromRunnable(() -> {
+            for (Object key : keys) {
+                segmentFor(key).remove(key);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> clear() {
+        return Mono.fromRunnable(() -> {
+            for (Segment segment : segments) {
+                segment.clear();
+            }
+        });
+    }
+
+    @Override
+    public <K> Mono<Map<K, E>> getAllPresent(Collection<K> keys) {
+        return Mono.fromSupplier(() -> {
+            Map<K, E> result = new LinkedHashMap<>();
+            for (K key : keys) {
+                Object v = read(key);
+                if (v != null) {
+                    result.put(key, (E) v);
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Mono<Void> putAll(Map<?, ? extends E> values) {
+        return Mono.fromRunnable(() -> {
+            for (Map.Entry<?, ? extends E> entry : values.entrySet()) {
+                write(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    @Override
+    protected boolean isRefreshRequired(Object key) {
+        Duration refreshAfterWrite = getRefreshAfterWrite();
+        if (refreshAfterWrite == null) {
+            return false;
+        }
+        long writeTime = segmentFor(key).getWriteTime(key);
+        return writeTime > 0 && System.currentTimeMillis() - writeTime >= refreshAfterWrite.toMillis();
+    }
+
+    @AllArgsConstructor
+    static class Entry {
+        //第一个内存块
+        private final int firstBlock;
+        //数据长度
+        private final int length;
+        //占用的块数量
+        private final int blocks;
+
+        private final long writeTime;
+    }
+
+    /**
+     * 缓存段,段内的内存块通过next数组组成链表,空闲块同样通过链表管理
+     */
+    static class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final int blockSize;
+
+        private final int pageBlocks;
+
+        private final int maxBlocks;
+
+        private final CacheStatistics statistics;
+
+        //按访问顺序排序,第一个为最久未访问的缓存
+        private final LinkedHashMap<Object, Entry> index = new LinkedHashMap<>(16, 0.75F, true);
+
+        private final List<ByteBuffer> pages = new ArrayList<>();
+
+        //每个块的下一个块,-1表示结束
+        private int[] next = new int[0];
+
+        private int freeHead = -1;
+
+        private int freeBlocks;
+
+        private int allocatedBlocks;
+
+        Segment(int blockSize, int pageBlocks, int maxBlocks, CacheStatistics statistics) {
+            this.blockSize = blockSize;
+            this.pageBlocks = pageBlocks;
+            this.maxBlocks = maxBlocks;
+            this.statistics = statistics;
+        }
+
+        byte[] get(Object key, long now, long expireAfterWriteMillis) {
+            lock.lock();
+            try {
+                Entry entry = index.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (expireAfterWriteMillis > 0 && now - entry.writeTime >= expireAfterWriteMillis) {
+                    index.remove(key);
+                    release(entry);
+                    statistics.recordEviction();
+                    return null;
+                }
+                return readBlocks(entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long getWriteTime(Object key) {
+            lock.lock();
+            try {
+                Entry entry = index.get(key);
+                return entry == null ? 0 : entry.writeTime;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(Object key, byte[] data, long now) {
+            int blocks = Math.max(1, (data.length + blockSize - 1) / blockSize);
+            lock.lock();
+            try {
+                Entry old = index.remove(key);
+                if (old != null) {
+                    release(old);
+                }
+                //超过段的最大容量,不缓存
+                if (blocks > maxBlocks) {
+                    return;
+                }
+                while (freeBlocks < blocks) {
+                    if (allocatedBlocks < maxBlocks) {
+                        allocatePage();
+                    } else {
+                        evictEldest();
+                    }
+                }
+                index.put(key, new Entry(writeBlocks(data, blocks), data.length, blocks, now));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Object key) {
+            lock.lock();
+            try {
+                Entry entry = index.remove(key);
+                if (entry != null) {
+                    release(entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                for (Entry entry : index.values()) {
+                    release(entry);
+                }
+                index.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return index.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long usedBytes() {
+            lock.lock();
+            try {
+                return (long) (allocatedBlocks - freeBlocks) * blockSize;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long allocatedBytes() {
+            lock.lock();
+            try {
+                return (long) allocatedBlocks * blockSize;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void evictEldest() {
+            Iterator<Entry> iterator = index.values().iterator();
+            Entry eldest = iterator.next();
+            iterator.remove();
+            release(eldest);
+            statistics.recordEviction();
+        }
+
+        private void allocatePage() {
+            int blocks = Math.min(pageBlocks, maxBlocks - allocatedBlocks);
+            pages.add(ByteBuffer.allocateDirect(blocks * blockSize));
+            int start = allocatedBlocks;
+            allocatedBlocks += blocks;
+            next = Arrays.copyOf(next, allocatedBlocks);
+            //新的块加入空闲链表
+            for (int i = allocatedBlocks - 1; i >= start; i--) {
+                next[i] = freeHead;
+                freeHead = i;
+            }
+            freeBlocks += blocks;
+        }
+
+        private void release(Entry entry) {
+            int last = entry.firstBlock;
+            while (next[last] != -1) {
+                last = next[last];
+            }
+            next[last] = freeHead;
+            freeHead = entry.firstBlock;
+            freeBlocks += entry.blocks;
+        }
+
+        private int writeBlocks(byte[] data, int blocks) {
+            int first = freeHead;
+            int block = first;
+            int offset = 0;
+            for (int i = 0; i < blocks; i++) {
+                int len = Math.min(blockSize, data.length - offset);
+                if (len > 0) {
+                    ByteBuffer page = page(block);
+                    page.position(position(block));
+                    page.put(data, offset, len);
+                    offset += len;
+                }
+                if (i == blocks - 1) {
+                    freeHead = next[block];
+                    next[block] = -1;
+                } else {
+                    block = next[block];
+                }
+            }
+            freeBlocks -= blocks;
+            return first;
+        }
+
+        private byte[] readBlocks(Entry entry) {
+            byte[] data = new byte[entry.length];
+            int block = entry.firstBlock;
+            int offset = 0;
+            while (offset < data.length) {
+                int len = Math.min(blockSize, data.length - offset);
+                ByteBuffer page = page(block);
+                page.position(position(block));
+                page.get(data, offset, len);
+                offset += len;
+                block = next[block];
+            }
+            return data;
+        }
+
+        private ByteBuffer page(int block) {
+            return pages.get(block / pageBlocks);
+        }
+
+        private int position(int block) {
+            return (block % pageBlocks) * blockSize;
+        }
+    }
+}
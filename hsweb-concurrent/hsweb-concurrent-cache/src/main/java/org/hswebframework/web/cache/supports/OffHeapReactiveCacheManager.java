@@ -0,0 +1,26 @@
+package org.hswebframework.web.cache.supports;
+
+import lombok.AllArgsConstructor;
+import org.hswebframework.web.cache.ReactiveCache;
+
+import java.util.function.Function;
+
+/**
+ * 堆外内存缓存管理器
+ *
+ * @see OffHeapReactiveCache
+ * @since 4.0.15
+ */
+@AllArgsConstructor
+public class OffHeapReactiveCacheManager extends AbstractReactiveCacheManager {
+
+    //根据缓存名称创建缓存,用于按缓存名称设置不同的内存大小和过期时间
+    private Function<String, OffHeapReactiveCache<?>> cacheFactory;
+
+    @Override
+    @SuppressWarnings("all")
+    protected <E> ReactiveCache<E> createCache(String name) {
+        return (ReactiveCache<E>) cacheFactory.apply(name);
+    }
+
+}
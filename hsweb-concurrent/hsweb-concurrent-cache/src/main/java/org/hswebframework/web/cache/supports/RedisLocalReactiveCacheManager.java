@@ -6,6 +6,9 @@ import org.hswebframework.web.cache.ReactiveCache;
 import org.hswebframework.web.cache.ReactiveCacheManager;
 import org.springframework.data.redis.core.ReactiveRedisOperations;
 
+import java.time.Duration;
+import java.util.function.Function;
+
 public class RedisLocalReactiveCacheManager extends AbstractReactiveCacheManager {
 
     private ReactiveRedisOperations<Object, Object> operations;
@@ -21,8 +24,103 @@ public class RedisLocalReactiveCacheManager extends AbstractReactiveCacheManager
     @Getter
     private String redisCachePrefix = "spring-cache:";
 
+    /**
+     * 失效通知缓冲时间,为0时不缓冲
+     */
+    @Setter
+    @Getter
+    private Duration invalidationBufferTime = Duration.ZERO;
+
+    /**
+     * 单条失效通知最大key数量
+     */
+    @Setter
+    @Getter
+    private int invalidationBufferSize = 1;
+
+    /**
+     * 失效通知是否附加版本号
+     */
+    @Setter
+    @Getter
+    private boolean invalidationVersioned = false;
+
+    /**
+     * 使用旧版本的失效通知格式,默认开启以兼容旧版本节点
+     *
+     * @see RedisReactiveCache#setLegacyInvalidation(boolean)
+     */
+    @Setter
+    @Getter
+    private boolean legacyInvalidation = true;
+
+    /**
+     * redis中的存储结构
+     */
+    @Setter
+    @Getter
+    private Layout layout = Layout.hash;
+
+    /**
+     * 使用{@link Layout#keyValue}时的分片数量,小于等于0时不分片
+     */
+    @Setter
+    @Getter
+    private int shards = 0;
+
+    /**
+     * 使用{@link Layout#keyValue}时本地记录的缓存代数的有效期
+     *
+     * @see KeyValueRedisReactiveCache#setGenerationCheckInterval(Duration)
+     */
+    @Setter
+    @Getter
+    private Duration generationCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * 使用{@link Layout#keyValue}时,根据缓存名称获取缓存在redis中的过期时间,返回null时不过期
+     */
+    @Setter
+    @Getter
+    private Function<String, Duration> expireAfterWrite = name -> null;
+
     @Override
     protected <E> ReactiveCache<E> createCache(String name) {
-        return new RedisReactiveCache<>(redisCachePrefix.concat(name), operations, localCacheManager.getCache(name));
+        RedisReactiveCache<E> cache;
+        if (layout == Layout.keyValue) {
+            KeyValueRedisReactiveCache<E> keyValueCache = new KeyValueRedisReactiveCache<>(
+                    redisCachePrefix.concat(name),
+                    operations,
+                    localCacheManager.getCache(name),
+                    invalidationBufferTime,
+                    invalidationBufferSize,
+                    invalidationVersioned,
+                    shards,
+                    expireAfterWrite.apply(name));
+            keyValueCache.setGenerationCheckInterval(generationCheckInterval);
+            cache = keyValueCache;
+        } else {
+            cache = new RedisReactiveCache<>(redisCachePrefix.concat(name),
+                                             operations,
+                                             localCacheManager.getCache(name),
+                                             invalidationBufferTime,
+                                             invalidationBufferSize,
+                                             invalidationVersioned);
+        }
+        cache.setLegacyInvalidation(legacyInvalidation);
+        return cache;
+    }
+
+    public enum Layout {
+        /**
+         * 整个缓存保存在一个hash中
+         */
+        hash,
+        /**
+         * 每个缓存条目使用独立的key,支持过期时间和分片
+         *
+         * @see KeyValueRedisReactiveCache
+         */
+        keyValue
     }
 }
@@ -1,56 +1,239 @@
 package org.hswebframework.web.cache.supports;
 
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.hswebframework.web.cache.ReactiveCache;
 import org.reactivestreams.Publisher;
 import org.springframework.data.redis.connection.ReactiveSubscription;
 import org.springframework.data.redis.core.ReactiveRedisOperations;
+import reactor.core.publisher.EmitterProcessor;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.function.Function;
-import java.util.stream.StreamSupport;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @SuppressWarnings("all")
 @Slf4j
-public class RedisReactiveCache<E> implements ReactiveCache<E> {
+public class RedisReactiveCache<E> extends AbstractReactiveCache<E> {
 
-    private ReactiveRedisOperations<Object, Object> operations;
+    protected final ReactiveRedisOperations<Object, Object> operations;
 
-    private String redisKey;
+    protected final String redisKey;
 
-    private ReactiveCache<E> localCache;
+    private final ReactiveCache<E> localCache;
 
     private String topicName;
 
+    //批量发送失效通知,为null时不缓冲,立即发送
+    private FluxSink<Object> invalidationSink;
+
+    private boolean versioned;
+
+    private String versionKey;
+
+    /**
+     * 使用旧版本的通知格式,每个失效的key单独发送一条字符串消息,不缓冲也不附加版本号.
+     * 默认开启以兼容旧版本节点,所有节点都升级到新版本后才能关闭
+     */
+    @Getter
+    @Setter
+    private boolean legacyInvalidation = true;
+
+    //收到的最大通知版本号
+    private final AtomicLong receivedVersion = new AtomicLong();
+
+    //命中时记录统计,避免每次读取创建新的回调
+    private final Consumer<Object> hitRecorder = ignore -> getStatistics().recordHit();
+
     public RedisReactiveCache(String redisKey, ReactiveRedisOperations<Object, Object> operations, ReactiveCache<E> localCache) {
+        this(redisKey, operations, localCache, Duration.ZERO, 1, false);
+    }
+
+    /**
+     * @param redisKey   redis key
+     * @param operations ReactiveRedisOperations
+     * @param localCache 本地缓存
+     * @param bufferTime 失效通知的缓冲时间,在此时间内失效的key将合并为一条通知发送
+     * @param bufferSize 失效通知的最大key数量,缓冲的key达到此数量时立即发送
+     * @param versioned  是否为失效通知附加版本号,用于检测丢失的通知
+     */
+    public RedisReactiveCache(String redisKey,
+                              ReactiveRedisOperations<Object, Object> operations,
+                              ReactiveCache<E> localCache,
+                              Duration bufferTime,
+                              int bufferSize,
+                              boolean versioned) {
         this.operations = operations;
         this.localCache = localCache;
         this.redisKey = redisKey;
+        this.versioned = versioned;
+        this.versionKey = "_cache_version:" + redisKey;
         operations.listenToChannel(topicName = ("_cache_changed:" + redisKey))
                 .map(ReactiveSubscription.Message::getMessage)
-                .cast(String.class)
-                .subscribe(s -> {
-                    if (s.equals("___all")) {
-                        localCache.clear().subscribe();
-                        return;
-                    }
-                    //清空本地缓存
-                    localCache.evict(s).subscribe();
-                });
+                .doOnNext(this::safeHandleInvalidation)
+                //订阅出错(如无法反序列化的消息)时重新订阅,避免本节点永久失去失效通知
+                .retryWhen(Retry
+                                   .backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                                   .maxBackoff(Duration.ofSeconds(30))
+                                   .doBeforeRetry(signal -> log.warn("cache [{}] invalidation subscription error, resubscribe", redisKey, signal.failure())))
+                .subscribe();
+
+        if (bufferSize > 1 && !bufferTime.isZero()) {
+            EmitterProcessor<Object> processor = EmitterProcessor.create(false);
+            invalidationSink = processor.sink(FluxSink.OverflowStrategy.BUFFER);
+            processor
+                    .bufferTimeout(bufferSize, bufferTime)
+                    .concatMap(keys -> sendInvalidation(new LinkedHashSet<>(keys)))
+                    .subscribe();
+        }
+    }
+
+    private void safeHandleInvalidation(Object message) {
+        try {
+            handleInvalidation(message);
+        } catch (Throwable error) {
+            //无法处理的通知,清空本地缓存以免读取到过期数据
+            log.warn("handle cache [{}] invalidation message [{}] error", redisKey, message, error);
+            localCache.clear().subscribe();
+        }
+    }
+
+    private void handleInvalidation(Object message) {
+        if ("___all".equals(message)) {
+            onRemoteCleared();
+            localCache.clear().subscribe();
+            return;
+        }
+        if (message instanceof CacheInvalidationMessage) {
+            CacheInvalidationMessage invalidation = ((CacheInvalidationMessage) message);
+            long version = invalidation.getVersion();
+            if (version > 0) {
+                long previous = receivedVersion.getAndAccumulate(version, Math::max);
+                //版本号不连续,可能丢失了通知,清空整个本地缓存
+                if (previous > 0 && version > previous + 1) {
+                    log.debug("cache [{}] invalidation version jumped from {} to {}, clear local cache", redisKey, previous, version);
+                    localCache.clear().subscribe();
+                    return;
+                }
+            }
+            localCache.evictAll(invalidation.getKeys()).subscribe();
+            return;
+        }
+        //兼容旧版本的通知
+        if (message instanceof Collection) {
+            localCache.evictAll(((Collection<?>) message)).subscribe();
+            return;
+        }
+        //清空本地缓存
+        localCache.evict(message).subscribe();
+    }
+
+    /**
+     * 通知其他节点清空本地缓存,开启了缓冲时,key将被合并后批量发送
+     *
+     * @param keys 失效的key
+     * @return void
+     */
+    protected Mono<Void> invalidate(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+        FluxSink<Object> sink = this.invalidationSink;
+        if (sink != null && !legacyInvalidation) {
+            return Mono.fromRunnable(() -> keys.forEach(sink::next));
+        }
+        return sendInvalidation(keys);
+    }
+
+    private Mono<Void> sendInvalidation(Collection<?> keys) {
+        if (legacyInvalidation) {
+            return Flux
+                    .fromIterable(new ArrayList<>(keys))
+                    .concatMap(key -> operations.convertAndSend(topicName, key))
+                    .then()
+                    .onErrorResume(err -> this.handleError(err));
+        }
+        Mono<Long> version = versioned
+                ? operations.opsForValue().increment(versionKey)
+                : Mono.just(0L);
+        return version
+                .flatMap(ver -> operations.convertAndSend(topicName, new CacheInvalidationMessage(ver, new ArrayList<>(keys))))
+                .then()
+                .onErrorResume(err -> this.handleError(err));
+    }
+
+    /**
+     * 清空本节点的本地缓存,不通知其他节点
+     */
+    protected void clearLocalCache() {
+        localCache.clear().subscribe();
+    }
+
+    /**
+     * 其他节点清空了缓存时调用
+     */
+    protected void onRemoteCleared() {
+
+    }
+
+    /* 以下为redis存储操作,默认将整个缓存保存在一个hash中,子类可重写使用其他存储结构 */
+
+    protected Mono<Object> remoteGet(Object key) {
+        return operations.opsForHash().get(redisKey, key);
+    }
+
+    /**
+     * 批量获取,返回的结果与key一一对应,不存在的值为null
+     */
+    protected Mono<List<Object>> remoteMultiGet(List<Object> keys) {
+        return operations.<Object, Object>opsForHash().multiGet(redisKey, keys);
+    }
+
+    protected Flux<Object> remoteValues() {
+        return operations.opsForHash().values(redisKey);
+    }
+
+    protected Mono<?> remotePut(Object key, Object value) {
+        return operations.opsForHash().put(redisKey, key, value);
+    }
+
+    protected Mono<?> remotePutAll(Map<?, ?> values) {
+        return operations.opsForHash().putAll(redisKey, values);
+    }
+
+    protected Mono<?> remoteRemove(Collection<?> keys) {
+        return operations.opsForHash().remove(redisKey, keys.toArray());
+    }
+
+    protected Mono<?> remoteClear() {
+        return operations.opsForHash().delete(redisKey);
     }
 
     @Override
     public Flux<E> getFlux(Object key) {
-        return localCache
-                .getFlux(key)
+        return Flux
+                .defer(() -> {
+                    //每次读取只记录一次命中,只在第一个元素时记录
+                    boolean[] first = {true};
+                    return localCache
+                            .getFlux(key)
+                            .doOnNext(value -> {
+                                if (first[0]) {
+                                    first[0] = false;
+                                    getStatistics().recordHit();
+                                }
+                            });
+                })
                 .switchIfEmpty(Flux.<E>defer(() -> {
-                    return operations
-                            .opsForHash()
-                            .get(redisKey, key)
+                    return timed(remoteGet(key))
+                            .doOnNext(hitRecorder)
+                            .switchIfEmpty(Mono.fromRunnable(getStatistics()::recordMiss))
                             .flatMapIterable(r -> {
                                 if (r instanceof Iterable) {
                                     return ((Iterable) r);
@@ -63,6 +246,19 @@ public class RedisReactiveCache<E> implements ReactiveCache<E> {
 
     }
 
+    /**
+     * 记录redis请求耗时
+     *
+     * @param remote redis请求
+     * @return 记录耗时的请求
+     */
+    protected <T> Mono<T> timed(Mono<T> remote) {
+        return Mono.defer(() -> {
+            long startTime = System.nanoTime();
+            return remote.doFinally(signal -> getStatistics().recordRemoteCall(System.nanoTime() - startTime));
+        });
+    }
+
     protected <T> Mono<T> handleError(Throwable error) {
         return Mono.fromRunnable(() -> {
             log.error(error.getMessage(), error);
@@ -72,11 +268,12 @@ public class RedisReactiveCache<E> implements ReactiveCache<E> {
     @Override
     public Mono<E> getMono(Object key) {
         return localCache.getMono(key)
-                .switchIfEmpty(operations.opsForHash()
-                        .get(redisKey, key)
+                .switchIfEmpty(timed(remoteGet(key))
                         .map(v -> (E) v)
+                        .switchIfEmpty(Mono.fromRunnable(getStatistics()::recordMiss))
                         .flatMap(r -> localCache.put(key, Mono.just(r))
                                 .thenReturn(r)))
+                .doOnNext(hitRecorder)
                 .onErrorResume(err -> this.handleError(err));
     }
 
@@ -85,10 +282,9 @@ public class RedisReactiveCache<E> implements ReactiveCache<E> {
         if (data instanceof Mono) {
             return ((Mono<?>) data)
                     .flatMap(r -> {
-                        return operations.opsForHash()
-                                .put(redisKey, key, r)
+                        return timed(remotePut(key, r))
                                 .then(localCache.put(key, data))
-                                .then(operations.convertAndSend(topicName, key));
+                                .then(invalidate(Collections.singletonList(key)));
 
                     })
                     .then()
@@ -99,10 +295,9 @@ public class RedisReactiveCache<E> implements ReactiveCache<E> {
             return ((Flux<?>) data)
                     .collectList()
                     .flatMap(r -> {
-                        return operations.opsForHash()
-                                .put(redisKey, key, r)
+                        return timed(remotePut(key, r))
                                 .then(localCache.put(key, data))
-                                .then(operations.convertAndSend(topicName, key));
+                                .then(invalidate(Collections.singletonList(key)));
 
                     })
                     .then()
@@ -115,51 +310,124 @@ public class RedisReactiveCache<E> implements ReactiveCache<E> {
 
     @Override
     public Mono<Void> evictAll(Iterable<?> key) {
-        return operations.opsForHash()
-                .remove(redisKey, StreamSupport.stream(key.spliterator(), false).toArray())
-                .then(localCache.evictAll(key))
-                .flatMap(nil -> Flux.fromIterable(key)
-                        .flatMap(k -> operations.convertAndSend(topicName, key))
-                        .then()
-                )
+        List<Object> keys = new ArrayList<>();
+        key.forEach(keys::add);
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+        return timed(remoteRemove(keys))
+                .then(localCache.evictAll(keys))
+                .then(invalidate(keys))
                 .onErrorResume(err -> this.handleError(err));
     }
 
     @Override
     public Flux<E> getAll(Object... keys) {
         if (keys.length == 0) {
-            return operations
-                    .opsForHash()
-                    .values(redisKey)
+            return remoteValues()
                     .map(r -> (E) r);
         }
-        return operations.opsForHash()
-                .multiGet(redisKey, Arrays.asList(keys))
-                .flatMapIterable(Function.identity())
+        return timed(remoteMultiGet(Arrays.asList(keys)))
+                .flatMapIterable(values -> {
+                    //忽略不存在的值
+                    List<Object> present = new ArrayList<>(values.size());
+                    for (Object value : values) {
+                        if (value != null) {
+                            present.add(value);
+                        }
+                    }
+                    return present;
+                })
                 .map(r -> (E) r)
                 .onErrorResume(err -> this.handleError(err));
     }
 
 
+    @Override
+    public <K> Mono<Map<K, E>> getAllPresent(Collection<K> keys) {
+        return localCache
+                .getAllPresent(keys)
+                .flatMap(local -> {
+                    List<K> missing = new ArrayList<>();
+                    for (K key : keys) {
+                        if (!local.containsKey(key)) {
+                            missing.add(key);
+                        }
+                    }
+                    getStatistics().recordHits(local.size());
+                    if (missing.isEmpty()) {
+                        return Mono.just(local);
+                    }
+                    return timed(remoteMultiGet(new ArrayList<Object>(missing)))
+                            .flatMap(values -> {
+                                Map<K, E> result = new LinkedHashMap<>(local);
+                                Map<K, E> loaded = new HashMap<>();
+                                for (int i = 0; i < missing.size() && i < values.size(); i++) {
+                                    Object value = values.get(i);
+                                    if (value != null) {
+                                        loaded.put(missing.get(i), (E) value);
+                                    }
+                                }
+                                result.putAll(loaded);
+                                getStatistics().recordHits(loaded.size());
+                                getStatistics().recordMisses(missing.size() - loaded.size());
+                                //回填本地缓存
+                                return localCache
+                                        .putAll(loaded)
+                                        .thenReturn(result);
+                            });
+                })
+                .onErrorResume(err -> this.handleError(err));
+    }
+
+    @Override
+    public Mono<Void> putAll(Map<?, ? extends E> values) {
+        if (values.isEmpty()) {
+            return Mono.empty();
+        }
+        return timed(remotePutAll(values))
+                .then(localCache.putAll(values))
+                .then(invalidate(values.keySet()))
+                .onErrorResume(err -> this.handleError(err));
+    }
+
     @Override
     public Mono<Void> evict(Object key) {
-        return operations
-                .opsForHash()
-                .remove(redisKey, key)
+        return timed(remoteRemove(Collections.singletonList(key)))
                 .then(localCache.evict(key))
-                .then(operations.convertAndSend(topicName, key))
+                .then(invalidate(Collections.singletonList(key)))
                 .onErrorResume(err -> this.handleError(err))
                 .then();
     }
 
     @Override
     public Mono<Void> clear() {
-        return operations
-                .opsForHash()
-                .delete(redisKey)
+        return timed(remoteClear())
                 .then(localCache.clear())
                 .then(operations.convertAndSend(topicName, "___all"))
                 .onErrorResume(err -> this.handleError(err))
                 .then();
     }
+
+    @Override
+    public long estimatedSize() {
+        //redis中的数量需要远程请求获取,这里只返回本地缓存的数量
+        return localCache instanceof AbstractReactiveCache
+                ? ((AbstractReactiveCache<E>) localCache).estimatedSize()
+                : -1;
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return localCache instanceof AbstractReactiveCache
+                ? ((AbstractReactiveCache<E>) localCache).getEvictionCount()
+                : 0;
+    }
+
+    @Override
+    protected boolean isRefreshRequired(Object key) {
+        //本地缓存中记录了写入时间
+        return localCache instanceof AbstractReactiveCache
+                && ((AbstractReactiveCache<E>) localCache).isRefreshRequired(key);
+    }
 }
@@ -0,0 +1,57 @@
+package org.hswebframework.web.cache.web;
+
+import lombok.AllArgsConstructor;
+import org.hswebframework.web.cache.ReactiveCache;
+import org.hswebframework.web.cache.ReactiveCacheManager;
+import org.hswebframework.web.cache.metrics.CacheMetricsSnapshot;
+import org.hswebframework.web.cache.supports.AbstractReactiveCache;
+import org.hswebframework.web.cache.supports.AbstractReactiveCacheManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 缓存监控指标接口,需要配置hsweb.cache.metrics.endpoint.enabled=true开启.
+ * <p>
+ * 接口不包含权限控制,请通过网关或安全配置限制访问.
+ * 只通过{@link org.hswebframework.web.cache.configuration.ReactiveCacheManagerConfiguration}注册,不参与组件扫描.
+ *
+ * @since 4.0.15
+ */
+@RequestMapping("${hsweb.cache.metrics.endpoint.path:/cache/metrics}")
+@AllArgsConstructor
+public class ReactiveCacheMetricsController {
+
+    private final ReactiveCacheManager cacheManager;
+
+    @GetMapping
+    @ResponseBody
+    public Flux<CacheMetricsSnapshot> getAllMetrics() {
+        return Flux
+                .fromIterable(getCaches().entrySet())
+                .filter(e -> e.getValue() instanceof AbstractReactiveCache)
+                .map(e -> CacheMetricsSnapshot.of(e.getKey(), (AbstractReactiveCache<?>) e.getValue()));
+    }
+
+    @GetMapping("/{name}")
+    @ResponseBody
+    public Mono<CacheMetricsSnapshot> getMetrics(@PathVariable String name) {
+        return Mono
+                .justOrEmpty(getCaches().get(name))
+                .filter(cache -> cache instanceof AbstractReactiveCache)
+                .map(cache -> CacheMetricsSnapshot.of(name, (AbstractReactiveCache<?>) cache));
+    }
+
+    private Map<String, ReactiveCache> getCaches() {
+        if (cacheManager instanceof AbstractReactiveCacheManager) {
+            return ((AbstractReactiveCacheManager) cacheManager).getCaches();
+        }
+        return Collections.emptyMap();
+    }
+}
@@ -13,9 +13,17 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 
 @SpringBootTest(classes = TestApplication.class,args = {
-        "--hsweb.cache.type=caffeine"
+        "--hsweb.cache.type=caffeine",
+        "--hsweb.cache.caches.test-refresh.refresh-after-write=100ms"
 })
 @RunWith(SpringRunner.class)
 @DirtiesContext
@@ -67,4 +75,79 @@ public class CaffeineReactiveCacheManagerTest {
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLoadCoalescing() {
+        ReactiveCache<String> cache = cacheManager.getCache("test-coalescing");
+        AtomicInteger loadTimes = new AtomicInteger();
+
+        Mono<String> loader = Mono
+                .fromCallable(loadTimes::incrementAndGet)
+                .map(String::valueOf)
+                .delayElement(Duration.ofMillis(100));
+
+        Flux.range(0, 100)
+            .flatMap(i -> cache.mono("test-mono").onCacheMissResume(loader))
+            .as(StepVerifier::create)
+            .expectNextCount(100)
+            .verifyComplete();
+
+        Assert.assertEquals(1, loadTimes.get());
+    }
+
+    @Test
+    public void testRefreshAfterWrite() throws InterruptedException {
+        ReactiveCache<String> cache = cacheManager.getCache("test-refresh");
+        AtomicInteger loadTimes = new AtomicInteger();
+
+        Mono<String> loader = Mono
+                .fromCallable(loadTimes::incrementAndGet)
+                .map(String::valueOf);
+
+        cache.mono("test-mono")
+             .onCacheMissResume(loader)
+             .as(StepVerifier::create)
+             .expectNext("1")
+             .verifyComplete();
+
+        Thread.sleep(200);
+
+        //返回旧值,同时在后台刷新
+        cache.mono("test-mono")
+             .onCacheMissResume(loader)
+             .as(StepVerifier::create)
+             .expectNext("1")
+             .verifyComplete();
+
+        cache.getMono("test-mono")
+             .as(StepVerifier::create)
+             .expectNext("2")
+             .verifyComplete();
+
+        Assert.assertEquals(2, loadTimes.get());
+    }
+
+    @Test
+    public void testGetAllWithLoader() {
+        ReactiveCache<String> cache = cacheManager.getCache("test-get-all");
+
+        cache.put("a", Mono.just("A"))
+             .as(StepVerifier::create)
+             .verifyComplete();
+
+        cache.getAll(Arrays.asList("c", "a", "b"), missing -> {
+            Assert.assertEquals(Arrays.asList("c", "b"), new ArrayList<>(missing));
+            return Flux.fromIterable(missing)
+                       .collectMap(Function.identity(), String::toUpperCase);
+        })
+             .<List<String>>map(map -> new ArrayList<>(map.values()))
+             .as(StepVerifier::create)
+             .expectNext(Arrays.asList("C", "A", "B"))
+             .verifyComplete();
+
+        cache.getMono("b")
+             .as(StepVerifier::create)
+             .expectNext("B")
+             .verifyComplete();
+    }
+}
@@ -1,5 +1,7 @@
 package org.hswebframework.web.cache;
 
+import org.hswebframework.web.cache.metrics.CacheMetricsSnapshot;
+import org.hswebframework.web.cache.supports.AbstractReactiveCache;
 import org.hswebframework.web.cache.supports.GuavaReactiveCacheManager;
 import org.hswebframework.web.cache.supports.RedisLocalReactiveCacheManager;
 import org.junit.Assert;
@@ -13,9 +15,12 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.Arrays;
+
 
 @SpringBootTest(classes = TestApplication.class,args = {
-        "--hsweb.cache.type=guava"
+        "--hsweb.cache.type=guava",
+        "--hsweb.cache.caches.test-weight.maximum-weight=1KB"
 })
 @RunWith(SpringRunner.class)
 @DirtiesContext
@@ -67,4 +72,52 @@ public class GuavaReactiveCacheManagerTest {
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMaximumWeight() {
+        ReactiveCache<String> cache = cacheManager.getCache("test-weight");
+        char[] chars = new char[1024];
+        Arrays.fill(chars, 'a');
+
+        cache.put("small", Mono.just("1"))
+             .then(cache.put("large", Mono.just(new String(chars))))
+             .as(StepVerifier::create)
+             .verifyComplete();
+
+        cache.getMono("small")
+             .as(StepVerifier::create)
+             .expectNext("1")
+             .verifyComplete();
+
+        //超过缓存的最大内存限制,立即被移除
+        cache.getMono("large")
+             .as(StepVerifier::create)
+             .verifyComplete();
+
+        //未配置的缓存使用全局配置
+        ReactiveCache<String> defaultCache = cacheManager.getCache("test");
+        defaultCache.put("large", Mono.just(new String(chars)))
+                    .then(defaultCache.getMono("large"))
+                    .as(StepVerifier::create)
+                    .expectNextCount(1)
+                    .verifyComplete();
+    }
+
+    @Test
+    public void testStatistics() {
+        ReactiveCache<String> cache = cacheManager.getCache("test-statistics");
+
+        cache.mono("test")
+             .onCacheMissResume(Mono.just("1"))
+             .then(cache.mono("test").onCacheMissResume(Mono.just("1")))
+             .as(StepVerifier::create)
+             .expectNext("1")
+             .verifyComplete();
+
+        CacheMetricsSnapshot snapshot = CacheMetricsSnapshot.of("test-statistics", (AbstractReactiveCache<?>) cache);
+        Assert.assertEquals(1, snapshot.getHits());
+        Assert.assertEquals(1, snapshot.getMisses());
+        Assert.assertEquals(1, snapshot.getLoadSuccess());
+        Assert.assertEquals(1, snapshot.getSize());
+    }
+}
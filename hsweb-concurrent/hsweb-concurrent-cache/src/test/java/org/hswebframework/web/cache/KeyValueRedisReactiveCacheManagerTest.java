@@ -0,0 +1,73 @@
+package org.hswebframework.web.cache;
+
+import org.hswebframework.web.cache.supports.RedisLocalReactiveCacheManager;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+@SpringBootTest(classes = TestApplication.class, args = {
+        "--hsweb.cache.type=redis",
+        "--hsweb.cache.redis.layout=keyValue",
+        "--hsweb.cache.redis.shards=4",
+        "--hsweb.cache.redis.expire-after-write=1m"
+})
+@RunWith(SpringRunner.class)
+@DirtiesContext
+public class KeyValueRedisReactiveCacheManagerTest {
+
+    @Autowired
+    ReactiveCacheManager cacheManager;
+
+    @Test
+    public void test() {
+        Assert.assertTrue(cacheManager instanceof RedisLocalReactiveCacheManager);
+
+        ReactiveCache<String> cache = cacheManager.getCache("test-kv");
+        cache.clear()
+             .as(StepVerifier::create)
+             .verifyComplete();
+
+        cache.flux("test-flux")
+             .onCacheMissResume(Flux.just("1", "2", "3"))
+             .as(StepVerifier::create)
+             .expectNext("1", "2", "3")
+             .verifyComplete();
+
+        cache.getFlux("test-flux")
+             .as(StepVerifier::create)
+             .expectNext("1", "2", "3")
+             .verifyComplete();
+
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        values.put("b", "2");
+        cache.putAll(values)
+             .then(cache.getAllPresent(Arrays.asList("a", "b", "c")))
+             .as(StepVerifier::create)
+             .expectNext(values)
+             .verifyComplete();
+
+        cache.clear()
+             .then(cache.getMono("a"))
+             .as(StepVerifier::create)
+             .verifyComplete();
+
+        cache.put("a", Mono.just("3"))
+             .then(cache.getMono("a"))
+             .as(StepVerifier::create)
+             .expectNext("3")
+             .verifyComplete();
+    }
+}
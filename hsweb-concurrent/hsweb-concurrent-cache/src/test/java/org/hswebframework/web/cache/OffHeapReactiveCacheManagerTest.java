@@ -0,0 +1,93 @@
+package org.hswebframework.web.cache;
+
+import org.hswebframework.web.cache.supports.OffHeapReactiveCache;
+import org.hswebframework.web.cache.supports.OffHeapReactiveCacheManager;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+
+
+@SpringBootTest(classes = TestApplication.class, args = {
+        "--hsweb.cache.type=offheap",
+        "--hsweb.cache.caches.test-lru.maximum-weight=16KB"
+})
+@RunWith(SpringRunner.class)
+@DirtiesContext
+public class OffHeapReactiveCacheManagerTest {
+
+    @Autowired
+    ReactiveCacheManager cacheManager;
+
+    @Test
+    public void test() {
+        Assert.assertNotNull(cacheManager);
+        Assert.assertTrue(cacheManager instanceof OffHeapReactiveCacheManager);
+
+        ReactiveCache<String> cache = cacheManager.getCache("test");
+        cache.clear()
+             .as(StepVerifier::create)
+             .verifyComplete();
+
+        cache.flux("test-flux")
+             .onCacheMissResume(Flux.just("1", "2", "3"))
+             .as(StepVerifier::create)
+             .expectNext("1", "2", "3")
+             .verifyComplete();
+
+        cache.getFlux("test-flux")
+             .as(StepVerifier::create)
+             .expectNext("1", "2", "3")
+             .verifyComplete();
+
+        cache.mono("test-mono")
+             .onCacheMissResume(Mono.just("1"))
+             .as(StepVerifier::create)
+             .expectNext("1")
+             .verifyComplete();
+
+        cache.put("test-mono", Mono.just("2"))
+             .as(StepVerifier::create)
+             .verifyComplete();
+
+        cache.getMono("test-mono")
+             .as(StepVerifier::create)
+             .expectNext("2")
+             .verifyComplete();
+
+        cache.evict("test-mono")
+             .then(cache.getMono("test-mono"))
+             .as(StepVerifier::create)
+             .verifyComplete();
+    }
+
+    @Test
+    public void testLru() {
+        OffHeapReactiveCache<String> cache = (OffHeapReactiveCache<String>) cacheManager.<String>getCache("test-lru");
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'a');
+        String value = new String(chars);
+
+        Flux.range(0, 100)
+            .concatMap(i -> cache.put("key-" + i, Mono.just(value)))
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        Assert.assertTrue(cache.getAllocatedBytes() <= 16 * 1024);
+        Assert.assertTrue(cache.size() < 100);
+
+        //最后写入的缓存不会被淘汰
+        cache.getMono("key-99")
+             .as(StepVerifier::create)
+             .expectNext(value)
+             .verifyComplete();
+    }
+}
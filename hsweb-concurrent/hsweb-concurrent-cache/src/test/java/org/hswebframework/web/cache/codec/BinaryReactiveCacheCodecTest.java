@@ -0,0 +1,43 @@
+package org.hswebframework.web.cache.codec;
+
+import org.hswebframework.web.cache.supports.CacheInvalidationMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class BinaryReactiveCacheCodecTest {
+
+    BinaryReactiveCacheCodec codec = new BinaryReactiveCacheCodec();
+
+    @Test
+    public void testRoundTrip() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("str", "test");
+        map.put("int", 1);
+        map.put("long", Long.MAX_VALUE);
+        map.put("bool", true);
+        map.put("double", 1.5D);
+        map.put("list", new ArrayList<>(Arrays.asList("a", "b", null)));
+        map.put("set", new HashSet<>(Arrays.asList(1, 2)));
+        map.put("date", new Date(1000));
+
+        Assert.assertEquals(map, codec.decode(codec.encode(map)));
+        Assert.assertNull(codec.decode(codec.encode(null)));
+    }
+
+    @Test
+    public void testTypeCodec() {
+        CacheInvalidationMessage message = new CacheInvalidationMessage(10, Arrays.asList("a", "b"));
+        CacheInvalidationMessage decoded = (CacheInvalidationMessage) codec.decode(codec.encode(message));
+        Assert.assertEquals(10, decoded.getVersion());
+        Assert.assertEquals(Arrays.asList("a", "b"), new ArrayList<>(decoded.getKeys()));
+    }
+
+    @Test
+    public void testCompatibleWithJdk() {
+        byte[] jdk = new JdkReactiveCacheCodec().encode("test");
+        Assert.assertEquals("test", codec.decode(jdk));
+        Assert.assertTrue(codec.encode("test").length < jdk.length);
+    }
+}